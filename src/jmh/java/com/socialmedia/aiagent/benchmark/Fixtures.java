@@ -0,0 +1,60 @@
+package com.socialmedia.aiagent.benchmark;
+
+import com.socialmedia.aiagent.model.SocialMediaContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captured upstream payloads and synthetic contents shared by the benchmarks
+ */
+public final class Fixtures {
+    
+    public static final String BILIBILI_ARC_SEARCH = "fixtures/bilibili-arc-search.json";
+    public static final String WEIBO_CONTAINER_INDEX = "fixtures/weibo-container-index.json";
+    public static final String DOUYIN_USER_PAGE = "fixtures/douyin-user-page.html";
+    
+    private Fixtures() {
+    }
+    
+    public static String load(String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Contents shaped like a parsed Bilibili page, with unique URLs derived from the given prefix
+     */
+    public static List<SocialMediaContent> contents(int count, String urlPrefix) {
+        List<SocialMediaContent> contents = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            contents.add(SocialMediaContent.builder()
+                    .platform("bilibili")
+                    .bloggerName("CoserAnalysier测试UP")
+                    .bloggerUrl("https://space.bilibili.com/123456789")
+                    .title("【原神cos】雷电将军：这一次，换我来守护你 | 漫展返图 第" + (i + 1) + "期")
+                    .content("【原神】雷电将军 cosplay 正片来啦！这次尝试了全新的妆面和道具，拍摄地点在上海漫展。"
+                            + "感谢摄影老师和后期老师～ #cosplay# #原神# 喜欢的话请一键三连！")
+                    .contentUrl(urlPrefix + i)
+                    .likes(1000 + i * 37)
+                    .comments(100 + i * 3)
+                    .shares(10 + i)
+                    .views(50000 + i * 911)
+                    .publishTime(now.minusDays(i))
+                    .build());
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,49 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.benchmark.Fixtures;
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt assembly cost in {@link AiAnalysisService}; the model itself is never called
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AiAnalysisBenchmark {
+    
+    @Param({"10", "50"})
+    private int batchSize;
+    
+    private AiAnalysisService aiAnalysisService;
+    private List<SocialMediaContent> contents;
+    
+    @Setup
+    public void setUp() {
+        aiAnalysisService = new AiAnalysisService(null, new AgentConfig(), null, Schedulers.boundedElastic());
+        contents = Fixtures.contents(batchSize, "https://www.bilibili.com/video/BV");
+    }
+    
+    @Benchmark
+    public String buildContentText() {
+        return aiAnalysisService.buildContentText(contents.get(0));
+    }
+    
+    @Benchmark
+    public Prompt buildBatchPrompt() {
+        return aiAnalysisService.buildBatchPrompt(contents);
+    }
+}
@@ -0,0 +1,161 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.AiSocialAgentApplication;
+import com.socialmedia.aiagent.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent analyze-shaped requests, each a history read over JDBC, a blocking model call of
+ * {@code modelLatencyMs} and a second read, all on the blocking scheduler. Time per burst compares the
+ * bounded elastic pool, which runs at most 10 calls per core at once, with one virtual thread per call.
+ * Run with {@code -prof gc} for allocation per burst. Footprint is printed after every iteration: peak heap
+ * in use (virtual thread stacks live there), peak live platform threads (each holds a native stack) and, on
+ * Linux, peak resident set size. The virtual-threads mode needs the java21 profile:
+ * <pre>
+ * mvn -Pjava21,benchmark test-compile exec:exec -Djmh.includes=BlockingScheduler
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BlockingSchedulerBenchmark {
+    
+    private static final String BLOGGER = "CoserAnalysier测试UP";
+    
+    @Param({"bounded-elastic", "virtual-threads"})
+    private String mode;
+    
+    @Param({"1000", "4000"})
+    private int concurrency;
+    
+    @Param({"50"})
+    private long modelLatencyMs;
+    
+    private ConfigurableApplicationContext context;
+    private SocialMediaAgentService agentService;
+    private Scheduler scheduler;
+    
+    @Setup(Level.Trial)
+    public void startContext() {
+        boolean virtual = mode.equals("virtual-threads");
+        if (virtual && !ClassUtils.isPresent("com.socialmedia.aiagent.config.VirtualThreadConfig", null)) {
+            throw new IllegalStateException("virtual-threads mode needs a build with -Pjava21 on JDK 21");
+        }
+        // arguments, not default properties, which application.yml would override
+        context = new SpringApplicationBuilder(AiSocialAgentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:scheduler;DB_CLOSE_DELAY=-1",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.h2.console.enabled=false",
+                    "--agent.execution.virtual-threads=" + virtual,
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.socialmedia.aiagent=WARN",
+                    "--logging.level.org.springframework.ai=WARN");
+        agentService = context.getBean(SocialMediaAgentService.class);
+        scheduler = context.getBean(Scheduler.class);
+        if (virtual != scheduler.toString().contains("virtual")) {
+            throw new IllegalStateException("Expected the " + mode + " scheduler, got " + scheduler);
+        }
+        agentService.saveContents(Fixtures.contents(200, "https://www.bilibili.com/video/SCHED")).block();
+    }
+    
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+    
+    @Setup(Level.Iteration)
+    public void resetFootprint() {
+        Footprint.reset();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void printFootprint() {
+        System.out.println(Footprint.report(mode, concurrency));
+    }
+    
+    @Benchmark
+    public long analyzeBurst() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> analyzeShapedRequest(), concurrency)
+                .count()
+                .block();
+    }
+    
+    private Mono<Integer> analyzeShapedRequest() {
+        return agentService.getHistoricalContent("bilibili", BLOGGER, 0, 20)
+                .flatMap(history -> Mono.fromCallable(() -> {
+                    Thread.sleep(modelLatencyMs); // stands in for chatClient.call
+                    return history.size();
+                }).subscribeOn(scheduler))
+                .flatMap(size -> agentService.getHistoricalContent("bilibili", BLOGGER, 1, 20)
+                        .map(page -> size + page.size()));
+    }
+    
+    /**
+     * Peaks since the last reset: heap pools' peak usage, the JVM's peak thread count, and VmHWM, which
+     * writing 5 to /proc/self/clear_refs resets
+     */
+    static final class Footprint {
+        
+        private static final Path CLEAR_REFS = Path.of("/proc/self/clear_refs");
+        private static final Path STATUS = Path.of("/proc/self/status");
+        
+        static void reset() {
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            try {
+                Files.writeString(CLEAR_REFS, "5");
+            } catch (IOException | UnsupportedOperationException e) {
+                // not Linux; RSS is reported as unknown
+            }
+        }
+        
+        static String report(String mode, int concurrency) {
+            long heapBytes = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                    .sum();
+            int threads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            return String.format("footprint mode=%s concurrency=%d peakHeapMb=%d peakPlatformThreads=%d peakRssMb=%s",
+                mode, concurrency, heapBytes >> 20, threads, peakRssMb());
+        }
+        
+        private static String peakRssMb() {
+            try {
+                return Files.readAllLines(STATUS).stream()
+                        .filter(line -> line.startsWith("VmHWM:"))
+                        .map(line -> String.valueOf(Long.parseLong(line.replaceAll("\\D", "")) >> 10))
+                        .findFirst()
+                        .orElse("?");
+            } catch (IOException e) {
+                return "?";
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.AiSocialAgentApplication;
+import com.socialmedia.aiagent.benchmark.Fixtures;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SocialMediaAgentService#saveContents} against an in-memory H2 database, with SQL logging and
+ * scheduled jobs off
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SaveContentsBenchmark {
+    
+    @Param({"10", "50"})
+    private int batchSize;
+    
+    private ConfigurableApplicationContext context;
+    private SocialMediaAgentService agentService;
+    private List<SocialMediaContent> batch;
+    private long invocation;
+    
+    @Setup(Level.Trial)
+    public void startContext() {
+        // arguments, not default properties, which application.yml would override
+        context = new SpringApplicationBuilder(AiSocialAgentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.h2.console.enabled=false",
+                    "--agent.scheduling.enabled=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.socialmedia.aiagent=WARN",
+                    "--logging.level.org.springframework.ai=WARN");
+        if (context.getEnvironment().getProperty("spring.jpa.show-sql", Boolean.class, false)) {
+            throw new IllegalStateException("SQL logging is on; it would be measured with every save");
+        }
+        agentService = context.getBean(SocialMediaAgentService.class);
+    }
+    
+    /**
+     * Fresh, never-seen URLs each time so every row takes the insert path
+     */
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        batch = Fixtures.contents(batchSize, "https://www.bilibili.com/video/BENCH" + (invocation++) + "-");
+    }
+    
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void saveNewContents() {
+        agentService.saveContents(batch).block();
+    }
+}
@@ -0,0 +1,92 @@
+package com.socialmedia.aiagent.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialmedia.aiagent.benchmark.Fixtures;
+import com.socialmedia.aiagent.config.SocialMediaConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream payload to {@link SocialMediaContent} conversion on captured fixtures, without any network I/O
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class PlatformParsingBenchmark {
+    
+    private static final int LIMIT = 50;
+    
+    private BilibiliService bilibiliService;
+    private WeiboService weiboService;
+    private DouyinService douyinService;
+    
+    private String bilibiliJson;
+    private String weiboJson;
+    private String douyinHtml;
+    private List<String> weiboTexts;
+    
+    @Setup
+    public void setUp() throws Exception {
+        SocialMediaConfig config = new SocialMediaConfig();
+        bilibiliService = new BilibiliService(null, config, null);
+        weiboService = new WeiboService(null, config, null);
+        douyinService = new DouyinService(null, config, null);
+        
+        bilibiliJson = Fixtures.load(Fixtures.BILIBILI_ARC_SEARCH);
+        weiboJson = Fixtures.load(Fixtures.WEIBO_CONTAINER_INDEX);
+        douyinHtml = Fixtures.load(Fixtures.DOUYIN_USER_PAGE);
+        
+        weiboTexts = new ArrayList<>();
+        for (JsonNode card : new ObjectMapper().readTree(weiboJson).path("data").path("cards")) {
+            if (card.path("card_type").asInt() == 9) {
+                weiboTexts.add(card.path("mblog").path("text").asText());
+            }
+        }
+    }
+    
+    @Benchmark
+    public List<SocialMediaContent> bilibiliJsonToContent() {
+        return bilibiliService.parseVideos(bilibiliJson, "123456789", LIMIT);
+    }
+    
+    @Benchmark
+    public List<SocialMediaContent> weiboJsonToContent() {
+        return weiboService.parseWeibos(weiboJson, "1234567890", LIMIT);
+    }
+    
+    @Benchmark
+    public void weiboCleanHtmlContent(Blackhole blackhole) {
+        for (String text : weiboTexts) {
+            blackhole.consume(weiboService.cleanHtmlContent(text));
+        }
+    }
+    
+    /**
+     * The Jsoup DOM round trip {@link WeiboService#cleanHtmlContent} used before {@link WeiboTextScanner},
+     * kept as the baseline; it yields only the text, without hashtags, mentions or links
+     */
+    @Benchmark
+    public void weiboCleanHtmlContentJsoup(Blackhole blackhole) {
+        for (String text : weiboTexts) {
+            blackhole.consume(Jsoup.parse(text).text());
+        }
+    }
+    
+    @Benchmark
+    public List<SocialMediaContent> douyinParseUserContent() {
+        return douyinService.parseUserContent(douyinHtml, "https://www.douyin.com/user/MS4wLjABAAAA", LIMIT);
+    }
+}
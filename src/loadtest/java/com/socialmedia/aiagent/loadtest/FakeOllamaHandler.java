@@ -0,0 +1,199 @@
+package com.socialmedia.aiagent.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Non-streaming /api/chat (plus a cheap /api/embeddings) that behaves like a single Ollama runner: requests share a fixed number of
+ * slots, prompt evaluation costs prompt tokens / prompt-tokens-per-sec and generation costs
+ * completion tokens / tokens-per-sec.
+ * <p>
+ * Like the llama.cpp server behind Ollama, each slot keeps the prompt it last evaluated, and a request
+ * takes the free slot sharing the longest prefix with its messages; only the tokens after that prefix are
+ * evaluated and reported in prompt_eval_count. Disable with {@code --prompt-cache=false}.
+ */
+class FakeOllamaHandler implements HttpHandler {
+    
+    private static final Pattern MODEL = Pattern.compile("\"model\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern PROMPT = Pattern.compile("\"prompt\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final int EMBEDDING_DIMENSIONS = 256;
+    
+    private final double tokensPerSec;
+    private final double promptTokensPerSec;
+    private final int completionTokens;
+    private final boolean promptCache;
+    private final String[] slotPrompts;
+    private final boolean[] slotBusy;
+    
+    FakeOllamaHandler(Map<String, String> options) {
+        this.tokensPerSec = Double.parseDouble(options.getOrDefault("tokens-per-sec", "40"));
+        this.promptTokensPerSec = Double.parseDouble(options.getOrDefault("prompt-tokens-per-sec", "800"));
+        this.completionTokens = Integer.parseInt(options.getOrDefault("completion-tokens", "150"));
+        this.promptCache = Boolean.parseBoolean(options.getOrDefault("prompt-cache", "true"));
+        int parallel = Integer.parseInt(options.getOrDefault("ollama-parallel", "4"));
+        this.slotPrompts = new String[parallel];
+        this.slotBusy = new boolean[parallel];
+    }
+    
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher model = MODEL.matcher(request);
+        String modelName = model.find() ? model.group(1) : "llama3.1";
+        
+        // Roughly one token per CJK character and per four ASCII characters
+        String prompt = messagesOf(request);
+        int slot = acquireSlot(prompt);
+        long start = System.nanoTime();
+        int promptTokens;
+        long promptEvalNanos;
+        long evalNanos = (long) (completionTokens / tokensPerSec * 1e9);
+        try {
+            String cached = slotPrompts[slot];
+            int shared = promptCache && cached != null ? commonPrefix(cached, prompt) : 0;
+            promptTokens = Math.max(1, estimateTokens(prompt.substring(shared)));
+            promptEvalNanos = (long) (promptTokens / promptTokensPerSec * 1e9);
+            StubServers.sleep((promptEvalNanos + evalNanos) / 1_000_000);
+        } finally {
+            releaseSlot(slot, prompt);
+        }
+        long total = System.nanoTime() - start;
+        
+        String body = "{"
+                + "\"model\":\"" + modelName + "\","
+                + "\"created_at\":\"" + Instant.now() + "\","
+                + "\"message\":{\"role\":\"assistant\",\"content\":\"" + answer() + "\"},"
+                + "\"done\":true,"
+                + "\"total_duration\":" + total + ","
+                + "\"load_duration\":0,"
+                + "\"prompt_eval_count\":" + promptTokens + ","
+                + "\"prompt_eval_duration\":" + promptEvalNanos + ","
+                + "\"eval_count\":" + completionTokens + ","
+                + "\"eval_duration\":" + evalNanos
+                + "}";
+        StubServers.respond(exchange, 200, "application/json", body);
+    }
+    
+    /**
+     * Wait for a free slot and take the one whose cached prompt shares the longest prefix with this one
+     */
+    private synchronized int acquireSlot(String prompt) {
+        while (true) {
+            int best = -1;
+            int bestShared = -1;
+            for (int i = 0; i < slotBusy.length; i++) {
+                if (!slotBusy[i]) {
+                    int shared = slotPrompts[i] != null ? commonPrefix(slotPrompts[i], prompt) : 0;
+                    if (shared > bestShared) {
+                        best = i;
+                        bestShared = shared;
+                    }
+                }
+            }
+            if (best >= 0) {
+                slotBusy[best] = true;
+                return best;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+    
+    private synchronized void releaseSlot(int slot, String prompt) {
+        slotPrompts[slot] = prompt;
+        slotBusy[slot] = false;
+        notifyAll();
+    }
+    
+    /**
+     * The messages array as sent, standing in for the rendered chat template; options and format are
+     * not part of the evaluated prompt
+     */
+    static String messagesOf(String request) {
+        int start = request.indexOf("\"messages\"");
+        if (start < 0) {
+            return request;
+        }
+        int depth = 0;
+        boolean inString = false;
+        for (int i = request.indexOf('[', start); i >= 0 && i < request.length(); i++) {
+            char c = request.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return request.substring(start, i + 1);
+            }
+        }
+        return request.substring(start);
+    }
+    
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * /api/embeddings: hashed character bigrams, so reposted and lightly edited texts land close together
+     */
+    static void embeddings(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher prompt = PROMPT.matcher(request);
+        String text = prompt.find() ? prompt.group(1) : "";
+        
+        double[] vector = new double[EMBEDDING_DIMENSIONS];
+        for (int i = 0; i + 1 < text.length(); i++) {
+            int hash = (text.charAt(i) * 31 + text.charAt(i + 1)) * 0x9E3779B1;
+            vector[Math.floorMod(hash, EMBEDDING_DIMENSIONS)] += 1;
+        }
+        StringBuilder body = new StringBuilder("{\"embedding\":[");
+        for (int i = 0; i < vector.length; i++) {
+            body.append(i > 0 ? "," : "").append(vector[i]);
+        }
+        StubServers.respond(exchange, 200, "application/json", body.append("]}").toString());
+    }
+    
+    static int estimateTokens(String text) {
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.UnicodeScript.of(text.charAt(i)) == Character.UnicodeScript.HAN) {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return cjk + other / 4;
+    }
+    
+    private String answer() {
+        StringBuilder answer = new StringBuilder("Stub analysis: ");
+        for (int i = 0; i < completionTokens; i++) {
+            answer.append("token ");
+        }
+        return answer.toString().trim();
+    }
+}
@@ -0,0 +1,208 @@
+package com.socialmedia.aiagent.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop load driver for the agent REST API. Each stage runs a fixed number of concurrent
+ * clients for a fixed duration, issuing a weighted mix of analyze, history and recommendation calls,
+ * and prints p50/p99 latency and throughput per endpoint. Requests shed with 429 are counted apart from
+ * errors, and the client that got one waits out its Retry-After (at most 5 s) before the next request.
+ * With {@code --api-keys}, clients take the listed keys in turn.
+ *
+ * <pre>
+ * LoadDriver --target=http://localhost:8080 --stages=10:30s,50:30s,100:60s \
+ *            --mix=analyze:70,history:20,recommendations:10 --bloggers=50 --limit=10 --api-keys=key-a,key-b
+ * </pre>
+ */
+public class LoadDriver {
+    
+    private static final String[] PLATFORMS = {"bilibili", "weibo", "douyin"};
+    private static final Map<String, String> BLOGGER_NAMES = Map.of(
+        "bilibili", "CoserAnalysier测试UP",
+        "weibo", "CoserAnalysier测试博主",
+        "douyin", "CoserAnalysier测试抖音号");
+    
+    private final String target;
+    private final int bloggers;
+    private final int limit;
+    private final String[] mix;
+    private final String[] apiKeys;
+    private final HttpClient client;
+    
+    public LoadDriver(Map<String, String> options) {
+        this.target = options.getOrDefault("target", "http://localhost:8080");
+        this.bloggers = Integer.parseInt(options.getOrDefault("bloggers", "50"));
+        this.limit = Integer.parseInt(options.getOrDefault("limit", "10"));
+        this.mix = expandMix(options.getOrDefault("mix", "analyze:70,history:20,recommendations:10"));
+        this.apiKeys = options.containsKey("api-keys") ? options.get("api-keys").split(",") : new String[0];
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = StubServers.parseOptions(args);
+        LoadDriver driver = new LoadDriver(options);
+        for (String stage : options.getOrDefault("stages", "10:30s,50:30s,100:30s").split(",")) {
+            String[] parts = stage.split(":");
+            int concurrency = Integer.parseInt(parts[0]);
+            long seconds = Long.parseLong(parts[1].replace("s", ""));
+            driver.runStage(concurrency, Duration.ofSeconds(seconds)).print(concurrency);
+        }
+        System.exit(0);
+    }
+    
+    public StageResult runStage(int concurrency, Duration duration) throws InterruptedException {
+        StageResult result = new StageResult(duration);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        
+        for (int i = 0; i < concurrency; i++) {
+            String apiKey = apiKeys.length > 0 ? apiKeys[i % apiKeys.length] : null;
+            workers.submit(() -> {
+                while (running.get()) {
+                    String endpoint = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+                    long start = System.nanoTime();
+                    int status;
+                    long retryAfterMillis = 0;
+                    try {
+                        HttpResponse<Void> response = client.send(request(endpoint, apiKey), HttpResponse.BodyHandlers.discarding());
+                        status = response.statusCode();
+                        retryAfterMillis = response.headers().firstValueAsLong("Retry-After").orElse(1) * 1000;
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    result.record(endpoint, System.nanoTime() - start, status);
+                    if (status == 429) {
+                        try {
+                            Thread.sleep(Math.min(retryAfterMillis, 5000));
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.MINUTES);
+        return result;
+    }
+    
+    private HttpRequest request(String endpoint, String apiKey) {
+        HttpRequest.Builder builder = request(endpoint);
+        if (apiKey != null) {
+            builder.header("X-API-Key", apiKey);
+        }
+        return builder.build();
+    }
+    
+    private HttpRequest.Builder request(String endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String platform = PLATFORMS[random.nextInt(PLATFORMS.length)];
+        int blogger = 100000 + random.nextInt(bloggers);
+        String bloggerName = URLEncoder.encode(BLOGGER_NAMES.get(platform), StandardCharsets.UTF_8);
+        
+        switch (endpoint) {
+            case "history":
+                return HttpRequest.newBuilder(URI.create(target + "/api/v1/agent/history?platform=" + platform + "&bloggerName=" + bloggerName))
+                        .timeout(Duration.ofMinutes(2))
+                        .GET();
+            case "recommendations":
+                return HttpRequest.newBuilder(URI.create(target + "/api/v1/agent/recommendations?platform=" + platform + "&bloggerName=" + bloggerName))
+                        .timeout(Duration.ofMinutes(5))
+                        .POST(HttpRequest.BodyPublishers.noBody());
+            default:
+                String identifier = "douyin".equals(platform) ? "@user" + blogger : String.valueOf(blogger);
+                String body = "{\"platform\":\"" + platform + "\",\"bloggerIdentifier\":\"" + identifier
+                        + "\",\"limit\":" + limit + ",\"includeAnalysis\":true}";
+                return HttpRequest.newBuilder(URI.create(target + "/api/v1/agent/analyze"))
+                        .timeout(Duration.ofMinutes(5))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    }
+    
+    private static String[] expandMix(String spec) {
+        List<String> weighted = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+                weighted.add(parts[0]);
+            }
+        }
+        return weighted.toArray(new String[0]);
+    }
+    
+    /**
+     * Latencies per endpoint for one stage
+     */
+    static class StageResult {
+        
+        private final Duration duration;
+        private final Map<String, long[]> latencies = new LinkedHashMap<>();
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private final Map<String, Integer> errors = new LinkedHashMap<>();
+        private final Map<String, Integer> shed = new LinkedHashMap<>();
+        
+        StageResult(Duration duration) {
+            this.duration = duration;
+        }
+        
+        /**
+         * Status -1 for requests that got no response
+         */
+        synchronized void record(String endpoint, long nanos, int status) {
+            int count = counts.getOrDefault(endpoint, 0);
+            long[] values = latencies.computeIfAbsent(endpoint, k -> new long[1024]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(endpoint, values);
+            }
+            values[count] = nanos;
+            counts.put(endpoint, count + 1);
+            if (status == 429) {
+                shed.merge(endpoint, 1, Integer::sum);
+            } else if (status < 0 || status >= 400) {
+                errors.merge(endpoint, 1, Integer::sum);
+            }
+        }
+        
+        synchronized void print(int concurrency) {
+            System.out.printf("%n=== concurrency %d, %ds ===%n", concurrency, duration.toSeconds());
+            System.out.printf("%-16s %8s %8s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "shed", "req/s", "p50 ms", "p99 ms", "max ms");
+            counts.forEach((endpoint, count) -> {
+                long[] sorted = Arrays.copyOf(latencies.get(endpoint), count);
+                Arrays.sort(sorted);
+                System.out.printf("%-16s %8d %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    endpoint, count, errors.getOrDefault(endpoint, 0), shed.getOrDefault(endpoint, 0),
+                    count / (double) duration.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[count - 1] / 1e6);
+            });
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.socialmedia.aiagent.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures Ollama prompt evaluation for the agent's three call kinds in two layouts: the former one, where
+ * instructions and data share one user message, and the system-prefix one, where instructions are a fixed
+ * system message and the data follows. Without {@code --ollama-url} it runs against an in-process
+ * {@link FakeOllamaHandler}; against a real server it pins keep_alive and num_ctx on every request.
+ *
+ * <pre>
+ * PromptCacheProbe --requests=20 --prompt-tokens-per-sec=800
+ * PromptCacheProbe --ollama-url=http://localhost:11434 --model=llama3.1 --requests=20
+ * </pre>
+ */
+public class PromptCacheProbe {
+    
+    private static final Pattern PROMPT_EVAL_COUNT = Pattern.compile("\"prompt_eval_count\"\\s*:\\s*(\\d+)");
+    private static final Pattern PROMPT_EVAL_DURATION = Pattern.compile("\"prompt_eval_duration\"\\s*:\\s*(\\d+)");
+    
+    private static final String ANALYSIS_INSTRUCTIONS = """
+        You are an AI agent specialized in analyzing social media content from Chinese platforms.
+        Analyze the content in the user message and reply with one JSON object only, with these fields:
+        - "sentiment": one of "positive", "negative", "neutral"
+        - "sentimentScore": number from -1 (very negative) to 1 (very positive)
+        - "topics": array of up to 3 short topic names
+        - "hashtags": array of hashtags present or clearly implied, without # marks
+        - "summary": one or two sentences on the content theme
+        - "insights": array of up to 3 short, actionable insights for content creators
+        """;
+    private static final String BATCH_INSTRUCTIONS = """
+        You are an AI agent specialized in analyzing social media content from Chinese platforms.
+        Please analyze the following batch of content and provide comprehensive insights including:
+        
+        1. Overall content themes and trends
+        2. Sentiment distribution across posts
+        3. Popular hashtags and topics
+        4. Engagement patterns analysis
+        5. Content creator performance insights
+        6. Recommendations for content strategy
+        """;
+    private static final String BATCH_CLOSING = "Please provide a structured analysis with clear sections and actionable insights.";
+    private static final String RECOMMENDATION_INSTRUCTIONS = """
+        You are an AI consultant specializing in social media strategy for Chinese platforms.
+        Based on the following precomputed content performance analytics, provide specific recommendations for the blogger.
+        The numbers are exact; do not recompute them, interpret them.
+        """;
+    private static final String RECOMMENDATION_LIST = """
+        Please provide:
+        1. Content strategy recommendations
+        2. Optimal posting times and frequency
+        3. Trending topics to explore
+        4. Engagement improvement tactics
+        5. Platform-specific optimization tips
+        """;
+    private static final String[] WORDS = {"今天", "分享", "一下", "我的", "露营", "装备", "清单", "真的", "太好用了",
+        "推荐", "大家", "试试", "这款", "相机", "画质", "很棒", "但是", "价格", "有点", "贵", "周末", "去了", "海边"};
+    
+    private record Message(String role, String content) {
+    }
+    
+    private final String url;
+    private final String model;
+    private final int requests;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Random random = new Random(7);
+    
+    public PromptCacheProbe(String url, String model, int requests) {
+        this.url = url;
+        this.model = model;
+        this.requests = requests;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = StubServers.parseOptions(args);
+        String url = options.get("ollama-url");
+        HttpServer embedded = null;
+        if (url == null) {
+            embedded = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+            embedded.createContext("/api/chat", new FakeOllamaHandler(options));
+            embedded.setExecutor(Executors.newCachedThreadPool());
+            embedded.start();
+            url = "http://localhost:" + embedded.getAddress().getPort();
+        }
+        PromptCacheProbe probe = new PromptCacheProbe(url, options.getOrDefault("model", "llama3.1"),
+            Integer.parseInt(options.getOrDefault("requests", "20")));
+        
+        System.out.printf("%-16s %-14s %12s %14s%n", "call", "layout", "eval tokens", "prompt eval ms");
+        for (String kind : List.of("analysis", "batch", "recommendations")) {
+            for (boolean systemPrefix : new boolean[] {false, true}) {
+                probe.run(kind, systemPrefix);
+            }
+        }
+        if (embedded != null) {
+            embedded.stop(0);
+        }
+        System.exit(0);
+    }
+    
+    private void run(String kind, boolean systemPrefix) throws Exception {
+        long tokens = 0;
+        long nanos = 0;
+        for (int i = 0; i < requests; i++) {
+            String response = send(messages(kind, systemPrefix), kind.equals("analysis"));
+            tokens += extract(PROMPT_EVAL_COUNT, response);
+            nanos += extract(PROMPT_EVAL_DURATION, response);
+        }
+        System.out.printf("%-16s %-14s %12.0f %14.1f%n", kind, systemPrefix ? "system-prefix" : "interpolated",
+            (double) tokens / requests, nanos / 1e6 / requests);
+    }
+    
+    private List<Message> messages(String kind, boolean systemPrefix) {
+        return switch (kind) {
+            case "analysis" -> {
+                String post = post();
+                yield systemPrefix
+                    ? List.of(new Message("system", ANALYSIS_INSTRUCTIONS), new Message("user", post))
+                    : List.of(new Message("user", ANALYSIS_INSTRUCTIONS + "\nContent to analyze: " + post));
+            }
+            case "batch" -> {
+                StringBuilder batch = new StringBuilder();
+                for (int i = 0; i < 10; i++) {
+                    batch.append(i > 0 ? "\n\n---\n\n" : "").append(post());
+                }
+                yield systemPrefix
+                    ? List.of(new Message("system", BATCH_INSTRUCTIONS + "\n" + BATCH_CLOSING), new Message("user", batch.toString()))
+                    : List.of(new Message("user", BATCH_INSTRUCTIONS + "\nContent batch to analyze:\n" + batch + "\n\n" + BATCH_CLOSING));
+            }
+            default -> {
+                String analytics = analytics();
+                yield systemPrefix
+                    ? List.of(new Message("system", RECOMMENDATION_INSTRUCTIONS + "\n" + RECOMMENDATION_LIST), new Message("user", analytics))
+                    : List.of(new Message("user", RECOMMENDATION_INSTRUCTIONS + "\n" + analytics + "\n" + RECOMMENDATION_LIST));
+            }
+        };
+    }
+    
+    private String post() {
+        StringBuilder text = new StringBuilder("Platform: weibo\nTitle: ");
+        for (int i = 0; i < 8; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.append("\nContent: ");
+        for (int i = 0; i < 60; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(i % 9 == 8 ? "，" : "");
+        }
+        return text.append("\nEngagement: Likes: ").append(random.nextInt(5000))
+                .append(" Comments: ").append(random.nextInt(500)).toString();
+    }
+    
+    private String analytics() {
+        return "Platform: bilibili\nBlogger: blogger" + random.nextInt(1000) + "\n\n"
+            + "Overall statistics:\nPosts: " + random.nextInt(900) + " | Avg likes: " + random.nextInt(9000)
+            + ".0 | Avg comments: " + random.nextInt(900) + ".0 | Most active hours: [20, 21, 12]\n\n"
+            + "Recent content analytics:\nSample: 500 recent posts, 4.5 posts/week\n"
+            + "Interactions (likes+comments+shares) p25 120 | p50 480 | p75 1500 | p90 5200\n"
+            + "Best posting slots: FRIDAY 20:00 (14 posts, avg 5400); SATURDAY 21:00 (11 posts, avg 4100)\n"
+            + "Topics by avg interactions: 户外 (40 posts, 3900); 数码 (120 posts, 1800); 美食 (30 posts, 900)\n"
+            + "Overperforming posts: \"" + post().substring(22, 40) + "\" (" + random.nextInt(90000) + ")\n";
+    }
+    
+    private String send(List<Message> messages, boolean json) throws Exception {
+        StringBuilder body = new StringBuilder("{\"model\":\"").append(model).append("\",\"messages\":[");
+        for (int i = 0; i < messages.size(); i++) {
+            body.append(i > 0 ? "," : "")
+                .append("{\"role\":\"").append(messages.get(i).role()).append("\",\"content\":\"")
+                .append(escape(messages.get(i).content())).append("\"}");
+        }
+        body.append("],\"stream\":false");
+        if (json) {
+            body.append(",\"format\":\"json\"");
+        }
+        body.append(",\"keep_alive\":\"24h\",\"options\":{\"num_ctx\":8192,\"num_predict\":64,\"temperature\":0.2}}");
+        
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/chat"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+    
+    private static long extract(Pattern pattern, String response) {
+        Matcher matcher = pattern.matcher(response);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+    
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
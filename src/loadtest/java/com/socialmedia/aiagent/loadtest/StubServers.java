@@ -0,0 +1,145 @@
+package com.socialmedia.aiagent.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Local stand-ins for Bilibili, Weibo, Douyin and Ollama.
+ * Platform stubs replay the captured fixtures with configurable latency and error rate;
+ * the Ollama stub paces its answers to a configurable tokens/sec rate.
+ *
+ * <pre>
+ * StubServers --latency-ms=80 --jitter-ms=40 --error-rate=0.02 --tokens-per-sec=40 --completion-tokens=150
+ * </pre>
+ */
+public class StubServers {
+    
+    public static final int BILIBILI_PORT = 18081;
+    public static final int WEIBO_PORT = 18082;
+    public static final int DOUYIN_PORT = 18083;
+    public static final int OLLAMA_PORT = 18434;
+    
+    private final Map<String, String> options;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    
+    public StubServers(Map<String, String> options) {
+        this.options = options;
+        this.latencyMs = Long.parseLong(options.getOrDefault("latency-ms", "80"));
+        this.jitterMs = Long.parseLong(options.getOrDefault("jitter-ms", "40"));
+        this.errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0.0"));
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        new StubServers(options).start();
+        System.out.printf("Stubs up: bilibili=:%d weibo=:%d douyin=:%d ollama=:%d%n",
+            BILIBILI_PORT, WEIBO_PORT, DOUYIN_PORT, OLLAMA_PORT);
+    }
+    
+    public void start() throws IOException {
+        String bilibili = fixture("fixtures/bilibili-arc-search.json");
+        String weibo = fixture("fixtures/weibo-container-index.json");
+        String douyin = fixture("fixtures/douyin-user-page.html");
+        
+        serve(BILIBILI_PORT, Map.of(
+            "/x/space/arc/search", platform("application/json", uri ->
+                bilibili.replace("\"bvid\": \"BV1", "\"bvid\": \"BV1" + query(uri, "mid") + "x")),
+            "/x/space/acc/info", platform("application/json", uri ->
+                "{\"code\":0,\"data\":{\"mid\":" + query(uri, "mid") + ",\"name\":\"CoserAnalysier测试UP\"}}")));
+        serve(WEIBO_PORT, Map.of(
+            "/api/container/getIndex", platform("application/json", uri ->
+                weibo.replace("\"48800000", "\"" + query(uri, "value") + "0"))));
+        serve(DOUYIN_PORT, Map.of(
+            "/user/", platform("text/html; charset=utf-8", uri ->
+                douyin.replace("/video/730000000", "/video/" + Math.abs(uri.getPath().hashCode())))));
+        serve(OLLAMA_PORT, Map.of(
+            "/api/chat", new FakeOllamaHandler(options),
+            "/api/embeddings", FakeOllamaHandler::embeddings,
+            "/api/tags", exchange -> respond(exchange, 200, "application/json",
+                "{\"models\":[{\"name\":\"llama3.1:latest\"},{\"name\":\"nomic-embed-text:latest\"}]}")));
+    }
+    
+    private HttpHandler platform(String contentType, Function<URI, String> body) {
+        return exchange -> {
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0));
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 503, "text/plain", "injected failure");
+                return;
+            }
+            respond(exchange, 200, contentType, body.apply(exchange.getRequestURI()));
+        };
+    }
+    
+    private static void serve(int port, Map<String, HttpHandler> handlers) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        handlers.forEach(server::createContext);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+    
+    static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+    
+    private static String query(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith(name + "=")) {
+                    return pair.substring(name.length() + 1);
+                }
+            }
+        }
+        return "0";
+    }
+    
+    private static String fixture(String resource) {
+        try (InputStream in = StubServers.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+#!/bin/bash
+
+# Runs several agent JVMs against local stubs as one cluster sharing an H2 file database, queues fetch work
+# on the first node and waits until the work table drains. With --kill-one, the last node is killed while
+# it holds leases, so its tasks must be reclaimed and finished by the others.
+# Usage: src/loadtest/run-cluster.sh [nodes] [bloggers] [--kill-one]
+#   e.g. src/loadtest/run-cluster.sh 3 60 --kill-one
+# Stub options can be passed with STUB_ARGS, e.g. STUB_ARGS="--latency-ms=200 --tokens-per-sec=30".
+
+set -e
+cd "$(dirname "$0")/../.."
+
+NODES=${1:-3}
+BLOGGERS=${2:-30}
+KILL_ONE=$3
+RUN_DIR=target/cluster
+rm -rf "$RUN_DIR" && mkdir -p "$RUN_DIR"
+
+echo "🔨 Building agent and harness..."
+mvn -q -Ploadtest package test-compile -DskipTests
+
+echo "🧪 Starting stubs: $STUB_ARGS"
+mvn -q -Ploadtest exec:java -Dexec.mainClass=com.socialmedia.aiagent.loadtest.StubServers \
+    -Dexec.args="$STUB_ARGS" &
+PIDS=($!)
+trap 'kill ${PIDS[*]} 2>/dev/null' EXIT
+
+for node in $(seq 1 "$NODES"); do
+    echo "🚀 Starting node-$node on port $((8080 + node))..."
+    PORT=$((8080 + node)) NODE_ID=node-$node AGENT_SHARED_DB=$RUN_DIR/shared AGENT_DATA_DIR=$RUN_DIR/node-$node \
+    java $AGENT_JAVA_OPTS -jar target/ai-social-agent-1.0.0.jar \
+        --spring.profiles.active=prod,cluster \
+        --social-media.bilibili.base-url=http://localhost:18081 \
+        --social-media.weibo.base-url=http://localhost:18082 \
+        --social-media.douyin.base-url=http://localhost:18083 \
+        --spring.ai.ollama.base-url=http://localhost:18434 \
+        $AGENT_ARGS > "$RUN_DIR/node-$node.log" 2>&1 &
+    PIDS+=($!)
+    for i in $(seq 1 60); do
+        if curl -sf http://localhost:$((8080 + node))/api/v1/agent/health > /dev/null; then
+            break
+        fi
+        sleep 1
+    done
+done
+
+identifiers=$(seq -s, -f '"%g"' 100001 $((100000 + BLOGGERS)))
+echo "📥 Queueing $BLOGGERS bilibili bloggers..."
+curl -sf -X POST http://localhost:8081/api/v1/agent/jobs/fetch -H 'Content-Type: application/json' \
+    -d "{\"platform\":\"bilibili\",\"bloggerIdentifiers\":[$identifiers],\"limit\":10}"
+echo
+
+killed=false
+start=$(date +%s)
+while true; do
+    status=$(curl -sf http://localhost:8081/api/v1/agent/jobs)
+    echo "$(($(date +%s) - start))s $status"
+    if [ "$KILL_ONE" == "--kill-one" ] && [ "$killed" == false ] && [ "$NODES" -gt 1 ] \
+            && grep -q "Leased" "$RUN_DIR/node-$NODES.log" 2>/dev/null; then
+        echo "💥 Killing node-$NODES"
+        kill -9 "${PIDS[$NODES]}"
+        killed=true
+    fi
+    if echo "$status" | grep -q '"PENDING":0' && echo "$status" | grep -q '"LEASED":0'; then
+        break
+    fi
+    sleep 2
+done
+
+for node in $(seq 1 "$NODES"); do
+    echo "node-$node: $(grep -c "Leased" "$RUN_DIR/node-$node.log" || true) tasks leased"
+done
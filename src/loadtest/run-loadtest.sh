@@ -0,0 +1,53 @@
+#!/bin/bash
+
+# End-to-end load test of /api/v1/agent against local stubs for Bilibili, Weibo, Douyin and Ollama.
+# Usage: src/loadtest/run-loadtest.sh [stub options] -- [driver options]
+#   e.g. src/loadtest/run-loadtest.sh --latency-ms=120 --error-rate=0.05 --tokens-per-sec=30 -- --stages=20:60s,100:60s
+# Extra JVM options for the agent can be passed with AGENT_JAVA_OPTS, Spring options with AGENT_ARGS.
+
+set -e
+cd "$(dirname "$0")/../.."
+
+STUB_ARGS=()
+DRIVER_ARGS=()
+target=STUB_ARGS
+for arg in "$@"; do
+    if [ "$arg" == "--" ]; then
+        target=DRIVER_ARGS
+        continue
+    fi
+    eval "$target+=(\"\$arg\")"
+done
+
+echo "🔨 Building agent and harness..."
+mvn -q -Ploadtest package test-compile -DskipTests
+
+echo "🧪 Starting stubs: ${STUB_ARGS[*]}"
+mvn -q -Ploadtest exec:java -Dexec.mainClass=com.socialmedia.aiagent.loadtest.StubServers \
+    -Dexec.args="${STUB_ARGS[*]}" &
+STUB_PID=$!
+
+echo "🚀 Starting agent against stubs..."
+java $AGENT_JAVA_OPTS -jar target/ai-social-agent-1.0.0.jar \
+    --social-media.bilibili.base-url=http://localhost:18081 \
+    --social-media.weibo.base-url=http://localhost:18082 \
+    --social-media.douyin.base-url=http://localhost:18083 \
+    --spring.ai.ollama.base-url=http://localhost:18434 \
+    --spring.jpa.show-sql=false \
+    --logging.level.com.socialmedia.aiagent=INFO \
+    --logging.level.org.springframework.ai=WARN \
+    $AGENT_ARGS > target/loadtest-agent.log 2>&1 &
+AGENT_PID=$!
+
+trap 'kill $AGENT_PID $STUB_PID 2>/dev/null' EXIT
+
+for i in $(seq 1 60); do
+    if curl -sf http://localhost:8080/api/v1/agent/health > /dev/null; then
+        break
+    fi
+    sleep 1
+done
+
+echo "📈 Driving load: ${DRIVER_ARGS[*]}"
+mvn -q -Ploadtest exec:java -Dexec.mainClass=com.socialmedia.aiagent.loadtest.LoadDriver \
+    -Dexec.args="${DRIVER_ARGS[*]}"
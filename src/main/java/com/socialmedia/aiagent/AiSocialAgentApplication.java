@@ -1,14 +1,25 @@
 package com.socialmedia.aiagent;
 
+import com.socialmedia.aiagent.service.export.ContentExportRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 @EnableAsync
 public class AiSocialAgentApplication {
-
+    
     public static void main(String[] args) {
-        SpringApplication.run(AiSocialAgentApplication.class, args);
+        SpringApplication application = new SpringApplication(AiSocialAgentApplication.class);
+        String[] arguments = args;
+        if (ContentExportRunner.isRequested(args)) {
+            application.setWebApplicationType(WebApplicationType.NONE); // one-shot export, no server
+            arguments = Arrays.copyOf(args, args.length + 1);
+            arguments[args.length] = "--agent.scheduling.enabled=false"; // and no scheduled jobs beside it
+        }
+        application.run(arguments);
     }
 }
\ No newline at end of file
@@ -1,24 +1,261 @@
 package com.socialmedia.aiagent.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "agent")
 @Data
 public class AgentConfig {
     
     private Integer maxContentLength = 5000;
+    private Integer defaultPageSize = 50;
+    private Integer maxPageSize = 500;
+    private Integer recommendationSampleSize = 500; // most recent contents the recommendation analytics run over
+    // System message of every per-content analysis; the content itself follows as the user message
     private String analysisPrompt = """
         You are an AI agent specialized in analyzing social media content from Chinese platforms.
-        Please analyze the following content and provide insights about:
-        1. Content theme and main topics
-        2. Sentiment analysis
-        3. Popular trends or hashtags
-        4. Engagement patterns
-        5. Key insights for content creators
-        
-        Content to analyze: {content}
+        Analyze the content in the user message and reply with one JSON object only, with these fields:
+        - "sentiment": one of "positive", "negative", "neutral"
+        - "sentimentScore": number from -1 (very negative) to 1 (very positive)
+        - "topics": array of up to 3 short topic names
+        - "hashtags": array of hashtags present or clearly implied, without # marks
+        - "summary": one or two sentences on the content theme
+        - "insights": array of up to 3 short, actionable insights for content creators
         """;
-}
\ No newline at end of file
+    
+    private Execution execution = new Execution();
+    private Admission admission = new Admission();
+    private Coalescing coalescing = new Coalescing();
+    private ConditionalFetch conditionalFetch = new ConditionalFetch();
+    private Calls calls = new Calls();
+    private Inference inference = new Inference();
+    private Engagement engagement = new Engagement();
+    private Classifier classifier = new Classifier();
+    private Embedding embedding = new Embedding();
+    private FullText fullText = new FullText();
+    private Trends trends = new Trends();
+    private Cluster cluster = new Cluster();
+    private Reanalysis reanalysis = new Reanalysis();
+    private Export export = new Export();
+    private Scheduling scheduling = new Scheduling();
+    
+    /**
+     * Where blocking repository and model calls run. Virtual threads need a build with the java21 Maven
+     * profile on JDK 21; otherwise the bounded elastic pool is used.
+     */
+    @Data
+    public static class Execution {
+        private Boolean virtualThreads = false;
+    }
+    
+    /**
+     * Admission of /analyze and /recommendations, priced in estimated model calls: an analysis costs one
+     * plus its limit when includeAnalysis is set, one otherwise
+     */
+    @Data
+    public static class Admission {
+        private Boolean enabled = true;
+        private Integer maxOutstandingCost = 200; // admitted and unfinished cost of all clients together
+        private Duration overloadRetryAfter = Duration.ofSeconds(5);
+        private Integer recommendationCost = 2;
+        private Quota keyQuota = new Quota(200, 120); // default for keys listed below without their own numbers
+        private Quota anonymousQuota = new Quota(60, 30); // shared by requests without a listed X-API-Key
+        private Map<String, Quota> keys = new HashMap<>(); // known API keys, optionally with their own quota
+    }
+    
+    /**
+     * Identical concurrent /analyze requests share one pipeline run; its response is served again for the
+     * freshness window. Zero freshness shares only runs in progress.
+     */
+    @Data
+    public static class Coalescing {
+        private Boolean enabled = true;
+        private Duration freshness = Duration.ofSeconds(30);
+    }
+    
+    /**
+     * Platform pages are requested with the validators of their last response, and a page whose body is
+     * unchanged is answered from the store without parsing, analysis or persistence
+     */
+    @Data
+    public static class ConditionalFetch {
+        private Boolean enabled = true;
+    }
+    
+    /**
+     * Token bucket of one client: up to capacity cost units at once, refilled continuously
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+        private Integer capacity;
+        private Integer refillPerMinute;
+    }
+    
+    /**
+     * Model and options per kind of call. A null model means spring.ai.ollama.chat.model.
+     */
+    @Data
+    public static class Calls {
+        private ModelCall analysis = new ModelCall("llama3.2", 0.2f, 8192, 512); // short structured extraction: small model
+        private ModelCall batch = new ModelCall(null, 0.7f, 8192, 1024);
+        private ModelCall recommendations = new ModelCall(null, 0.7f, 8192, 1024);
+        private Boolean fallbackEnabled = true; // batch and recommendations may move to the analysis model
+        private Integer fallbackQueueDepth = 2; // calls waiting on their own model before new ones move
+    }
+    
+    /**
+     * Ollama model and options sent with one kind of call. Keep numCtx equal across kinds that use the same
+     * model: a different context size makes Ollama reload the runner, which also drops its prompt cache.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModelCall {
+        private String model;
+        private Float temperature;
+        private Integer numCtx;
+        private Integer numPredict; // cap on generated tokens
+    }
+    
+    @Data
+    public static class Inference {
+        private Integer initialConcurrency = 4;
+        private Integer minConcurrency = 1;
+        private Integer maxConcurrency = 16;
+        private Double latencyTolerance = 2.0; // back off once latency exceeds this multiple of the best observed
+        private Double backoffRatio = 0.9;
+        private Duration acquireTimeout = Duration.ofSeconds(60);
+        private Integer failureThreshold = 5; // consecutive failures before the circuit opens
+        private Duration openDuration = Duration.ofSeconds(30);
+        private Priorities priorities = new Priorities();
+    }
+    
+    /**
+     * How queued calls of each priority class share free slots of a model
+     */
+    @Data
+    public static class Priorities {
+        private PriorityClass interactive = new PriorityClass(8, 0, Duration.ofSeconds(5), null);
+        private PriorityClass recommendation = new PriorityClass(4, 0, Duration.ofSeconds(10), null);
+        private PriorityClass background = new PriorityClass(1, 2, Duration.ofSeconds(60), Duration.ofMinutes(10));
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriorityClass {
+        private Integer weight; // share of slots while other classes also have calls queued
+        private Integer maxInFlight; // 0 = no cap beyond the concurrency limit
+        private Duration maxWait; // after this the class's oldest call goes next, whatever its weight
+        private Duration acquireTimeout; // null = agent.inference.acquire-timeout
+    }
+    
+    @Data
+    public static class Engagement {
+        private Duration rawRetention = Duration.ofDays(7); // every snapshot kept this long
+        private Duration hourlyRetention = Duration.ofDays(90); // then one per hour, then one per day
+        private Duration compactionInterval = Duration.ofHours(1);
+        private Integer compactionBatchSize = 500;
+        private Integer maxCurvePoints = 1000;
+    }
+    
+    @Data
+    public static class Classifier {
+        private Boolean enabled = true; // false sends every content to the model, as before
+        private Double modelTopFraction = 0.2; // most engaging share of each fetched batch still analyzed by the model
+        private Double ambiguityThreshold = 0.35; // mixed-sentiment contents scoring below this are escalated
+    }
+    
+    @Data
+    public static class Embedding {
+        private Boolean enabled = true;
+        private String indexPath = "./data/vectors";
+        private Integer maxTextLength = 2000; // characters of title and content sent to the embedding model
+        private Double duplicateThreshold = 0.95; // cosine similarity above which a stored analysis is reused
+        private Integer lshTables = 8;
+        private Integer lshBits = 12;
+        private Long lshSeed = 42L;
+        private Integer segmentCapacity = 16384; // vectors per memory-mapped segment file
+        private Integer exactSearchBelow = 20000; // smaller indexes are scanned exhaustively
+        private Integer cacheSize = 1024; // recently computed embeddings kept in memory
+        private Integer maxResults = 100;
+        private Duration backfillInterval = Duration.ofMinutes(30);
+        private Integer backfillBatchSize = 500;
+    }
+    
+    @Data
+    public static class FullText {
+        private String indexPath = "./data/fulltext";
+        private Float titleBoost = 2.0f;
+        private Integer maxResultWindow = 1000; // deepest page * size a search may reach
+        private Duration commitInterval = Duration.ofMinutes(1); // searchable at once, durable after this
+        private Integer rebuildBatchSize = 500;
+    }
+    
+    @Data
+    public static class Trends {
+        private Duration bucketDuration = Duration.ofHours(1);
+        private Duration retention = Duration.ofDays(7); // longest window; memory is fixed by retention / bucket
+        private Integer sketchDepth = 4;
+        private Integer sketchWidth = 1024; // counters per row; overcount is at most total * e / width
+        private Integer heavyHitters = 200; // candidate tags tracked per bucket
+        private Integer maxResults = 100;
+        private Integer warmUpBatchSize = 1000;
+    }
+    
+    @Data
+    public static class Cluster {
+        private Boolean enabled = false; // lease fetch and analysis tasks from the shared work_task table
+        private String nodeId; // defaults to host name and process id
+        private Integer workerConcurrency = 2; // tasks this node runs at once
+        private Duration pollInterval = Duration.ofSeconds(2);
+        private Duration leaseDuration = Duration.ofSeconds(60);
+        private Duration heartbeatInterval = Duration.ofSeconds(15); // well inside the lease, so one missed beat is harmless
+        private Duration reaperInterval = Duration.ofSeconds(30);
+        private Integer maxAttempts = 3;
+        private Integer defaultFetchLimit = 20;
+        private Duration doneRetention = Duration.ofDays(7);
+        private Duration rateWindow = Duration.ofSeconds(1);
+        // upstream requests per platform and window, across all nodes; platforms not listed are not limited
+        private Map<String, Integer> requestsPerWindow = new HashMap<>(Map.of("bilibili", 5, "douyin", 2, "weibo", 3));
+    }
+    
+    /**
+     * Bulk re-analysis of stored contents after the analysis model or prompt changed
+     */
+    @Data
+    public static class Reanalysis {
+        private Integer chunkSize = 100; // contents read, analyzed and written back per checkpoint
+        private Integer concurrency = 2; // model calls in flight; they also queue as background inference
+        private Duration retryDelay = Duration.ofSeconds(30); // wait before retrying a chunk while the model is unavailable
+        private Duration staleAfter = Duration.ofMinutes(10); // a running job not checkpointed this long is taken over
+        private Duration adoptInterval = Duration.ofMinutes(1);
+    }
+    
+    /**
+     * Bulk export of stored contents as gzipped CSV, over GET /export or with --export on the command line
+     */
+    @Data
+    public static class Export {
+        private Integer fetchSize = 1000; // rows per round trip of the JDBC cursor
+        private Integer compressionLevel = 1; // gzip level; 1 takes about a fifth less time than the default 6 for ~20% more bytes
+    }
+    
+    /**
+     * Whether this process runs the scheduled jobs; read by {@code SchedulingConfig}
+     */
+    @Data
+    public static class Scheduling {
+        private Boolean enabled = true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.socialmedia.aiagent.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs: the cluster worker's polls, heartbeats and reaper, full-text commits,
+ * embedding backfill, engagement compaction and adoption of abandoned re-analysis. The command-line export
+ * turns it off, so that none of them runs beside the export or is killed halfway when it exits.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "agent.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
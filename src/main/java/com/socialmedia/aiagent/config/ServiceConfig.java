@@ -1,17 +1,31 @@
 package com.socialmedia.aiagent.config;
 
 import com.socialmedia.aiagent.service.SocialMediaService;
+import com.socialmedia.aiagent.service.inference.ModelRouter;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import com.socialmedia.aiagent.service.search.FullTextIndex;
+import com.socialmedia.aiagent.service.search.VectorIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Configuration
+@Slf4j
 public class ServiceConfig {
     
+    private static final String VIRTUAL_THREAD_CONFIG = "com.socialmedia.aiagent.config.VirtualThreadConfig";
+    
     @Bean
     public Map<String, SocialMediaService> socialMediaServices(List<SocialMediaService> services) {
         return services.stream()
@@ -20,4 +34,38 @@ public class ServiceConfig {
                     Function.identity()
                 ));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Runs blocking repository and model calls. Builds with the java21 profile add a virtual-thread
+     * scheduler that takes precedence when agent.execution.virtual-threads is set.
+     */
+    @Bean
+    public Scheduler blockingScheduler(AgentConfig agentConfig) {
+        if (agentConfig.getExecution().getVirtualThreads() && !ClassUtils.isPresent(VIRTUAL_THREAD_CONFIG, null)) {
+            log.warn("agent.execution.virtual-threads is set, but this build has no virtual-thread support "
+                + "(build with -Pjava21 on JDK 21); using the bounded elastic scheduler");
+        }
+        return Schedulers.boundedElastic();
+    }
+    
+    @Bean
+    public ModelRouter modelRouter(OllamaApi ollamaApi, @Value("${spring.ai.ollama.chat.model}") String defaultModel,
+                                   AgentConfig agentConfig, PipelineMetrics pipelineMetrics) {
+        ModelRouter router = new ModelRouter(ollamaApi, defaultModel, agentConfig.getCalls(), agentConfig.getInference());
+        router.getGuards().forEach(pipelineMetrics::bindInferenceGuard);
+        return router;
+    }
+    
+    @Bean
+    public VectorIndex vectorIndex(AgentConfig agentConfig) {
+        AgentConfig.Embedding settings = agentConfig.getEmbedding();
+        return new VectorIndex(Path.of(settings.getIndexPath()), settings.getLshTables(), settings.getLshBits(),
+            settings.getLshSeed(), settings.getSegmentCapacity(), settings.getExactSearchBelow());
+    }
+    
+    @Bean
+    public FullTextIndex fullTextIndex(AgentConfig agentConfig) {
+        AgentConfig.FullText settings = agentConfig.getFullText();
+        return new FullTextIndex(Path.of(settings.getIndexPath()), settings.getTitleBoost(), settings.getMaxResultWindow());
+    }
+}
@@ -1,9 +1,13 @@
 package com.socialmedia.aiagent.config;
 
+import com.socialmedia.aiagent.service.cluster.ClusterRateLimiter;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
@@ -12,7 +16,7 @@ import java.time.Duration;
 public class WebClientConfig {
     
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(PipelineMetrics pipelineMetrics, ClusterRateLimiter clusterRateLimiter) {
         HttpClient httpClient = HttpClient.create()
                 .responseTimeout(Duration.ofSeconds(30))
                 .followRedirect(true);
@@ -20,6 +24,32 @@ public class WebClientConfig {
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB
+                .filter(upstreamStatusFilter(pipelineMetrics))
+                .filter(clusterRateLimitFilter(clusterRateLimiter))
                 .build();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Count upstream responses per platform and status code; requests are tagged via {@link PipelineMetrics#PLATFORM_ATTRIBUTE}
+     */
+    private ExchangeFilterFunction upstreamStatusFilter(PipelineMetrics pipelineMetrics) {
+        return (request, next) -> {
+            String platform = request.attribute(PipelineMetrics.PLATFORM_ATTRIBUTE)
+                    .map(Object::toString)
+                    .orElse("unknown");
+            return next.exchange(request)
+                    .doOnNext(response -> pipelineMetrics.recordUpstreamResponse(
+                        platform, String.valueOf(response.statusCode().value())))
+                    .doOnError(error -> pipelineMetrics.recordUpstreamResponse(platform, "IO_ERROR"));
+        };
+    }
+    
+    /**
+     * Hold each platform request until the cluster-wide rate limit of its platform has a permit
+     */
+    private ExchangeFilterFunction clusterRateLimitFilter(ClusterRateLimiter clusterRateLimiter) {
+        return (request, next) -> request.attribute(PipelineMetrics.PLATFORM_ATTRIBUTE)
+                .map(platform -> clusterRateLimiter.acquire(platform.toString()).then(Mono.defer(() -> next.exchange(request))))
+                .orElseGet(() -> next.exchange(request));
+    }
+}
@@ -1,19 +1,43 @@
 package com.socialmedia.aiagent.controller;
 
+import com.socialmedia.aiagent.model.Sentiment;
 import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.BloggerStatsSummary;
 import com.socialmedia.aiagent.model.dto.ContentAnalysisRequest;
 import com.socialmedia.aiagent.model.dto.ContentAnalysisResponse;
+import com.socialmedia.aiagent.model.dto.ContentFilter;
+import com.socialmedia.aiagent.model.dto.ContentListItem;
+import com.socialmedia.aiagent.model.dto.EngagementCurve;
+import com.socialmedia.aiagent.model.dto.EngagementReport;
+import com.socialmedia.aiagent.model.dto.FetchJobRequest;
+import com.socialmedia.aiagent.model.dto.ReanalysisReport;
+import com.socialmedia.aiagent.model.dto.SearchHit;
+import com.socialmedia.aiagent.model.dto.SearchResults;
+import com.socialmedia.aiagent.model.dto.TrendingTag;
 import com.socialmedia.aiagent.service.AiAnalysisService;
+import com.socialmedia.aiagent.service.ReanalysisService;
 import com.socialmedia.aiagent.service.SocialMediaAgentService;
+import com.socialmedia.aiagent.service.admission.AdmissionControl;
+import com.socialmedia.aiagent.service.cluster.WorkQueueService;
+import com.socialmedia.aiagent.service.export.ContentExporter;
+import com.socialmedia.aiagent.service.inference.InferenceUnavailableException;
+import com.socialmedia.aiagent.service.inference.ModelRouter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/agent")
@@ -22,22 +46,32 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class SocialMediaAgentController {
     
+    private static final String API_KEY_HEADER = "X-API-Key";
+    
     private final SocialMediaAgentService agentService;
     private final AiAnalysisService aiAnalysisService;
+    private final ModelRouter modelRouter;
+    private final WorkQueueService workQueue;
+    private final AdmissionControl admissionControl;
+    private final ReanalysisService reanalysisService;
+    private final ContentExporter contentExporter;
     
     /**
      * Analyze blogger content from social media platforms
      */
     @PostMapping("/analyze")
     public Mono<ResponseEntity<ContentAnalysisResponse>> analyzeBloggerContent(
-            @Valid @RequestBody ContentAnalysisRequest request) {
+            @Valid @RequestBody ContentAnalysisRequest request,
+            @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey) {
         
+        int cost = agentService.isAnalysisShared(request) ? 1 : admissionControl.analyzeCost(request); // joins a shared run
+        AdmissionControl.Permit permit = admissionControl.admit("analyze", apiKey, cost);
         log.info("Analyzing content for blogger: {} on platform: {}", 
             request.getBloggerIdentifier(), request.getPlatform());
         
         return agentService.analyzeBloggerContent(request)
                 .map(ResponseEntity::ok)
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !(error instanceof InferenceUnavailableException), error -> { // 503 in GlobalExceptionHandler
                     log.error("Analysis failed: {}", error.getMessage());
                     return Mono.just(ResponseEntity.badRequest()
                             .body(ContentAnalysisResponse.builder()
@@ -46,7 +80,8 @@ public class SocialMediaAgentController {
                                     .totalContents(0)
                                     .overallAnalysis("Analysis failed: " + error.getMessage())
                                     .build()));
-                });
+                })
+                .doFinally(signal -> permit.release());
     }
     
     /**
@@ -55,31 +90,33 @@ public class SocialMediaAgentController {
     @PostMapping("/recommendations")
     public Mono<ResponseEntity<Map<String, String>>> getRecommendations(
             @RequestParam String platform,
-            @RequestParam String bloggerName) {
+            @RequestParam String bloggerName,
+            @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey) {
         
-        return agentService.getHistoricalContent(platform, bloggerName)
-                .flatMap(contents -> {
-                    if (contents.isEmpty()) {
-                        return Mono.just(Map.of("error", "No content found for blogger"));
-                    }
-                    return aiAnalysisService.generateRecommendations(platform, bloggerName, contents)
-                            .map(recommendations -> Map.of("recommendations", recommendations));
-                })
+        AdmissionControl.Permit permit = admissionControl.admit("recommendations", apiKey, admissionControl.recommendationCost());
+        return agentService.getBloggerStats(platform, bloggerName)
+                .flatMap(stats -> agentService.getEngagementReport(platform, bloggerName)
+                        .flatMap(report -> aiAnalysisService.generateRecommendations(platform, bloggerName, stats, report))
+                        .map(recommendations -> Map.of("recommendations", recommendations)))
+                .defaultIfEmpty(Map.of("error", "No content found for blogger"))
                 .map(ResponseEntity::ok)
-                .onErrorResume(error -> 
+                .onErrorResume(error -> !(error instanceof InferenceUnavailableException), error ->
                     Mono.just(ResponseEntity.badRequest()
-                            .body(Map.of("error", error.getMessage()))));
+                            .body(Map.of("error", error.getMessage()))))
+                .doFinally(signal -> permit.release());
     }
     
     /**
      * Get historical content for a blogger
      */
     @GetMapping("/history")
-    public Mono<ResponseEntity<List<SocialMediaContent>>> getHistoricalContent(
+    public Mono<ResponseEntity<List<ContentListItem>>> getHistoricalContent(
             @RequestParam String platform,
-            @RequestParam String bloggerName) {
+            @RequestParam String bloggerName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
         
-        return agentService.getHistoricalContent(platform, bloggerName)
+        return agentService.getHistoricalContent(platform, bloggerName, page, size)
                 .map(ResponseEntity::ok)
                 .onErrorResume(error -> 
                     Mono.just(ResponseEntity.badRequest().build()));
@@ -89,15 +126,220 @@ public class SocialMediaAgentController {
      * Get recent content across all platforms
      */
     @GetMapping("/recent")
-    public Mono<ResponseEntity<List<SocialMediaContent>>> getRecentContent(
-            @RequestParam(defaultValue = "24") int hours) {
+    public Mono<ResponseEntity<List<ContentListItem>>> getRecentContent(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
         
-        return agentService.getRecentContent(hours)
+        return agentService.getRecentContent(hours, page, size)
                 .map(ResponseEntity::ok)
                 .onErrorResume(error -> 
                     Mono.just(ResponseEntity.badRequest().build()));
     }
     
+    /**
+     * Filter stored contents, e.g. negative weibo posts of the last week:
+     * {@code /content?platform=weibo&sentiment=NEGATIVE&hours=168}
+     */
+    @GetMapping("/content")
+    public Mono<ResponseEntity<List<ContentListItem>>> findContents(
+            @RequestParam(required = false) String platform,
+            @RequestParam(required = false) String bloggerName,
+            @RequestParam(required = false) Sentiment sentiment,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Double maxScore,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) String hashtag,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        
+        ContentFilter filter = ContentFilter.builder()
+                .platform(platform)
+                .bloggerName(bloggerName)
+                .sentiment(sentiment)
+                .minSentimentScore(minScore)
+                .maxSentimentScore(maxScore)
+                .since(hours != null ? LocalDateTime.now().minusHours(hours) : null)
+                .topic(topic)
+                .hashtag(hashtag)
+                .build();
+        return agentService.findContents(filter, page, size)
+                .map(ResponseEntity::ok)
+                .onErrorResume(error -> 
+                    Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    /**
+     * Semantic search over stored contents, e.g. {@code /search?q=露营装备推荐&platform=bilibili&k=20}
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<SearchHit>>> searchContents(
+            @RequestParam String q,
+            @RequestParam(required = false) String platform,
+            @RequestParam(defaultValue = "10") int k) {
+        
+        return agentService.searchContents(q, platform, k)
+                .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Keyword search over titles and content, e.g. {@code /search/text?q=原神 攻略&platform=bilibili&hours=720}
+     */
+    @GetMapping("/search/text")
+    public Mono<ResponseEntity<SearchResults>> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) String platform,
+            @RequestParam(required = false) String bloggerName,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        
+        LocalDateTime since = hours != null ? LocalDateTime.now().minusHours(hours) : null;
+        return agentService.searchText(q, platform, bloggerName, since, page, size)
+                .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Trending hashtags across every crawled blogger, e.g. {@code /trends?platform=weibo&hours=24&k=20&rising=true}
+     */
+    @GetMapping("/trends")
+    public Mono<ResponseEntity<List<TrendingTag>>> getTrends(
+            @RequestParam(required = false) String platform,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int k,
+            @RequestParam(defaultValue = "false") boolean rising) {
+        
+        return agentService.getTrends(platform, hours, k, rising)
+                .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Get a single content with its full text and AI analysis
+     */
+    @GetMapping("/content/{id}")
+    public Mono<ResponseEntity<SocialMediaContent>> getContent(@PathVariable Long id) {
+        return agentService.getContent(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get a blogger's precomputed aggregate statistics
+     */
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<BloggerStatsSummary>> getBloggerStats(
+            @RequestParam String platform,
+            @RequestParam String bloggerName) {
+        
+        return agentService.getBloggerStats(platform, bloggerName)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get engagement analytics over a blogger's recent contents
+     */
+    @GetMapping("/analytics")
+    public Mono<ResponseEntity<EngagementReport>> getEngagementReport(
+            @RequestParam String platform,
+            @RequestParam String bloggerName) {
+        
+        return agentService.getEngagementReport(platform, bloggerName)
+                .map(ResponseEntity::ok)
+                .onErrorResume(error -> 
+                    Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    /**
+     * Get the engagement growth curve and velocity of a single content
+     */
+    @GetMapping("/engagement/content/{id}")
+    public Mono<ResponseEntity<EngagementCurve>> getContentEngagement(@PathVariable Long id) {
+        return agentService.getContentEngagement(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get a blogger's summed engagement growth and velocity
+     */
+    @GetMapping("/engagement/blogger")
+    public Mono<ResponseEntity<EngagementCurve>> getBloggerEngagement(
+            @RequestParam String platform,
+            @RequestParam String bloggerName,
+            @RequestParam(defaultValue = "168") int hours,
+            @RequestParam(defaultValue = "6") int bucketHours) {
+        
+        return agentService.getBloggerEngagement(platform, bloggerName, hours, bucketHours)
+                .map(ResponseEntity::ok)
+                .onErrorResume(error -> 
+                    Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    /**
+     * Queue bloggers for fetching and analysis by any node of the cluster
+     */
+    @PostMapping("/jobs/fetch")
+    public Mono<ResponseEntity<Map<String, Object>>> queueFetches(@Valid @RequestBody FetchJobRequest request) {
+        return agentService.queueFetches(request)
+                .map(queued -> ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.<String, Object>of(
+                        "queued", queued,
+                        "skipped", request.getBloggerIdentifiers().size() - queued)))
+                .onErrorResume(IllegalArgumentException.class, error ->
+                        Mono.just(ResponseEntity.badRequest().body(Map.of("error", error.getMessage()))));
+    }
+    
+    /**
+     * Task counts of the shared work table, as seen from this node
+     */
+    @GetMapping("/jobs")
+    public Mono<ResponseEntity<Map<String, Object>>> getJobs() {
+        return agentService.getWorkStatus()
+                .map(counts -> ResponseEntity.ok(Map.<String, Object>of(
+                        "node", workQueue.getNodeId(),
+                        "tasks", counts)));
+    }
+    
+    /**
+     * Every stored content, or those of one platform published in [since, until), as gzipped CSV, e.g.
+     * {@code /export?platform=weibo&since=2024-06-01T00:00:00}. Written on the request thread rather than
+     * as an async result, so a long export is not cut off by the async request timeout.
+     */
+    @GetMapping("/export")
+    public void exportContents(
+            @RequestParam(required = false) String platform,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            HttpServletResponse response) throws IOException {
+        
+        response.setContentType(ContentExporter.CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contents.csv.gz\"");
+        contentExporter.export(new ContentExporter.Filter(platform, since, until), response.getOutputStream());
+    }
+    
+    /**
+     * Re-analyze stored contents whose analysis predates the current model or prompt; resumes a paused job
+     */
+    @PostMapping("/jobs/reanalysis")
+    public Mono<ResponseEntity<ReanalysisReport>> startReanalysis() {
+        return reanalysisService.start()
+                .map(report -> ResponseEntity.status(HttpStatus.ACCEPTED).body(report));
+    }
+    
+    /**
+     * Progress, rate and ETA of the re-analysis to the current analysis version
+     */
+    @GetMapping("/jobs/reanalysis")
+    public Mono<ResponseEntity<ReanalysisReport>> getReanalysis() {
+        return reanalysisService.getReport().map(ResponseEntity::ok);
+    }
+    
+    @PostMapping("/jobs/reanalysis/pause")
+    public Mono<ResponseEntity<ReanalysisReport>> pauseReanalysis() {
+        return reanalysisService.pause().map(ResponseEntity::ok);
+    }
+    
     /**
      * Health check endpoint
      */
@@ -106,6 +348,12 @@ public class SocialMediaAgentController {
         return ResponseEntity.ok(Map.of(
                 "status", "UP",
                 "service", "AI Social Media Agent",
+                "inferenceCircuit", modelRouter.getGuards().stream()
+                        .map(guard -> guard.getName() + " " + guard.getCircuitState().name())
+                        .collect(Collectors.joining(", ")),
+                "inferenceConcurrency", modelRouter.getGuards().stream()
+                        .map(guard -> guard.getName() + " " + guard.getInFlight() + "/" + guard.getConcurrencyLimit())
+                        .collect(Collectors.joining(", ")),
                 "timestamp", java.time.LocalDateTime.now().toString()
         ));
     }
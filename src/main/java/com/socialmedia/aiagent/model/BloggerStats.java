@@ -0,0 +1,66 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running aggregates of one blogger's stored contents, updated in the same transaction as the contents
+ */
+@Entity
+@Table(name = "blogger_stats", uniqueConstraints = @UniqueConstraint(columnNames = {"platform", "bloggerName"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BloggerStats {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blogger_stats_seq")
+    @SequenceGenerator(name = "blogger_stats_seq", sequenceName = "blogger_stats_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String platform;
+    
+    @Column(nullable = false)
+    private String bloggerName;
+    
+    @Column(nullable = false)
+    private Long postCount;
+    
+    @Column(nullable = false)
+    private Long totalLikes;
+    
+    @Column(nullable = false)
+    private Long totalComments;
+    
+    @Column(nullable = false)
+    private Long totalShares;
+    
+    @Column(nullable = false)
+    private Long totalViews;
+    
+    @Convert(converter = HourHistogramConverter.class)
+    @Column(nullable = false, length = 400)
+    private long[] postingHours; // posts per publish hour of day, 0-23
+    
+    @Column
+    private LocalDateTime firstPublishTime;
+    
+    @Column
+    private LocalDateTime lastPublishTime;
+    
+    @Column
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,34 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * One topic or hashtag of a content, so tag filters are index lookups instead of scans of the joined columns
+ */
+@Entity
+@Table(name = "content_tag", uniqueConstraints = @UniqueConstraint(columnNames = {"contentId", "tagType", "tag"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentTag {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_tag_seq")
+    @SequenceGenerator(name = "content_tag_seq", sequenceName = "content_tag_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long contentId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TagType tagType;
+    
+    @Column(nullable = false)
+    private String tag;
+}
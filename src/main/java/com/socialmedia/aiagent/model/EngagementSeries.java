@@ -0,0 +1,73 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Engagement history of one content. Snapshots are stored delta-encoded in {@link #points}
+ * (see {@code EngagementSeriesCodec}); the last point is kept unpacked so appends never decode the blob.
+ * Times are epoch seconds.
+ */
+@Entity
+@Table(name = "engagement_series")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementSeries {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "engagement_series_seq")
+    @SequenceGenerator(name = "engagement_series_seq", sequenceName = "engagement_series_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private Long contentId;
+    
+    @Column(nullable = false)
+    private String platform;
+    
+    @Column(nullable = false)
+    private String bloggerName;
+    
+    @Column(nullable = false)
+    private Integer pointCount;
+    
+    @Column(nullable = false)
+    private Long firstTime;
+    
+    @Column(nullable = false)
+    private Long lastTime;
+    
+    @Column(nullable = false)
+    private Long lastLikes;
+    
+    @Column(nullable = false)
+    private Long lastComments;
+    
+    @Column(nullable = false)
+    private Long lastShares;
+    
+    @Column(nullable = false)
+    private Long lastViews;
+    
+    @Column(nullable = false, length = 1000000)
+    private byte[] points;
+    
+    @Column(nullable = false)
+    private Long compactedAt; // points older than the retention windows have been downsampled up to here
+    
+    @Column
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
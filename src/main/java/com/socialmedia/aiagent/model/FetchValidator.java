@@ -0,0 +1,46 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the last response of one upstream endpoint looked like, used to ask for and recognize an unchanged page
+ */
+@Entity
+@Table(name = "fetch_validator")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FetchValidator {
+    
+    @Id
+    @Column(length = 1000)
+    private String endpoint; // request URL and item limit
+    
+    @Column(nullable = false)
+    private String platform;
+    
+    @Column(length = 500)
+    private String etag;
+    
+    @Column(length = 100)
+    private String lastModified; // sent back verbatim, as the server formatted it
+    
+    @Column(nullable = false, length = 64)
+    private String bodySha256;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String contentUrls; // newline-separated, in page order
+    
+    @Column(nullable = false)
+    private LocalDateTime checkedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,35 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a 24-bucket hour histogram as comma-separated counts
+ */
+@Converter
+public class HourHistogramConverter implements AttributeConverter<long[], String> {
+    
+    public static final int HOURS = 24;
+    
+    @Override
+    public String convertToDatabaseColumn(long[] histogram) {
+        long[] counts = histogram != null ? histogram : new long[HOURS];
+        return Arrays.stream(counts).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+    
+    @Override
+    public long[] convertToEntityAttribute(String column) {
+        long[] counts = new long[HOURS];
+        if (column == null || column.isBlank()) {
+            return counts;
+        }
+        String[] parts = column.split(",");
+        for (int i = 0; i < Math.min(parts.length, HOURS); i++) {
+            counts[i] = Long.parseLong(parts[i].trim());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,28 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Upstream requests made to one platform in the current rate-limit window, by all nodes together
+ */
+@Entity
+@Table(name = "platform_rate_window")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformRateWindow {
+    
+    @Id
+    private String platform;
+    
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+    
+    @Column(nullable = false)
+    private Integer permitsUsed;
+}
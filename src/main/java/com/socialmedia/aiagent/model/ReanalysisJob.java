@@ -0,0 +1,59 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of bringing every stored model analysis to one analysis version. Like {@link WorkTask}, it changes
+ * through conditional updates in {@link com.socialmedia.aiagent.repository.ReanalysisJobRepository}.
+ */
+@Entity
+@Table(name = "reanalysis_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReanalysisJob {
+    
+    @Id
+    private String targetVersion;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReanalysisJobStatus status;
+    
+    @Column
+    private String owner; // node running the job
+    
+    @Column(nullable = false)
+    private Long lastContentId; // checkpoint
+    
+    @Column(nullable = false)
+    private Integer total; // contents handled plus contents left, as of the latest run's start
+    
+    @Column(nullable = false)
+    private Integer analyzed;
+    
+    @Column(nullable = false)
+    private Integer failed; // kept their old analysis; retried when the job is started again after it is done
+    
+    @Column(nullable = false)
+    private LocalDateTime runStartedAt; // the job's current run, since it was last started or taken over
+    
+    @Column(nullable = false)
+    private Integer runProcessed;
+    
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,7 @@
+package com.socialmedia.aiagent.model;
+
+public enum ReanalysisJobStatus {
+    RUNNING,
+    PAUSED,
+    DONE
+}
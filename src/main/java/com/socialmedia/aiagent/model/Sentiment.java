@@ -0,0 +1,7 @@
+package com.socialmedia.aiagent.model;
+
+public enum Sentiment {
+    POSITIVE,
+    NEGATIVE,
+    NEUTRAL
+}
@@ -17,8 +17,9 @@ import java.time.LocalDateTime;
 public class SocialMediaContent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "social_media_content_seq")
+    @SequenceGenerator(name = "social_media_content_seq", sequenceName = "social_media_content_seq", allocationSize = 50)
+    private Long id; // pooled sequence rather than IDENTITY so inserts can be JDBC-batched
     
     @Column(nullable = false)
     private String platform; // bilibili, douyin, weibo
@@ -53,6 +54,28 @@ public class SocialMediaContent {
     @Column(columnDefinition = "TEXT")
     private String aiAnalysis;
     
+    @Column
+    private String analysisVersion; // model and prompt the aiAnalysis came from
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Sentiment sentiment;
+    
+    @Column
+    private Double sentimentScore; // lexicon score in [-1, 1]
+    
+    @Column(length = 1000)
+    private String topics; // comma-separated topic categories
+    
+    @Column(length = 1000)
+    private String hashtags; // comma-separated, without the # markers
+    
+    @Column(length = 1000)
+    private String mentions; // comma-separated user names, without the @
+    
+    @Column(length = 2000)
+    private String links; // space-separated URLs linked from the text
+    
     @Column
     private LocalDateTime publishTime;
     
@@ -0,0 +1,6 @@
+package com.socialmedia.aiagent.model;
+
+public enum TagType {
+    TOPIC,
+    HASHTAG
+}
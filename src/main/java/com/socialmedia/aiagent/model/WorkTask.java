@@ -0,0 +1,65 @@
+package com.socialmedia.aiagent.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * A unit of work in the table shared by all nodes. State changes are conditional updates in
+ * {@link com.socialmedia.aiagent.repository.WorkTaskRepository}, never read-modify-write of this entity.
+ */
+@Entity
+@Table(name = "work_task")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkTask {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "work_task_seq")
+    @SequenceGenerator(name = "work_task_seq", sequenceName = "work_task_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WorkTaskType taskType;
+    
+    @Column(nullable = false)
+    private String platform;
+    
+    @Column(nullable = false, length = 500)
+    private String subject; // blogger identifier for FETCH, content id for ANALYZE
+    
+    @Column
+    private Integer itemLimit;
+    
+    @Column(length = 800, unique = true)
+    private String dedupeKey; // cleared once the task is finished
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WorkTaskStatus status;
+    
+    @Column
+    private String leaseOwner;
+    
+    @Column
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.socialmedia.aiagent.model;
+
+public enum WorkTaskStatus {
+    PENDING,
+    LEASED,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.socialmedia.aiagent.model;
+
+public enum WorkTaskType {
+    FETCH, // fetch, classify, analyze and store a blogger's recent contents
+    ANALYZE // analyze one stored content whose model analysis failed during its fetch
+}
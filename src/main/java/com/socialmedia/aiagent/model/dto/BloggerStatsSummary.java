@@ -0,0 +1,36 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aggregate statistics of a blogger's stored contents
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BloggerStatsSummary {
+    
+    private String platform;
+    private String bloggerName;
+    private Long postCount;
+    private Long totalLikes;
+    private Long totalComments;
+    private Long totalShares;
+    private Long totalViews;
+    private Double averageLikes;
+    private Double averageComments;
+    private Double averageShares;
+    private Double averageViews;
+    private List<Long> postingHours;
+    private List<Integer> peakHours; // most frequent posting hours, busiest first
+    private LocalDateTime firstPublishTime;
+    private LocalDateTime lastPublishTime;
+    private LocalDateTime updatedAt;
+}
@@ -24,4 +24,6 @@ public class ContentAnalysisRequest {
     private Integer limit = 10; // Number of posts to analyze
     
     private Boolean includeAnalysis = true; // Whether to perform AI analysis
+    
+    private Boolean background = false; // Bulk sync: model calls queue behind interactive ones
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -18,18 +19,25 @@ public class ContentAnalysisResponse {
     private String bloggerName;
     private Integer totalContents;
     private List<SocialMediaContent> contents;
+    private List<ContentSummary> summaries;
     private String overallAnalysis;
     private Long processingTimeMs;
+    private Map<String, Long> stageTimingsMs; // time per pipeline stage; concurrent per-item inference is summed
+    private Boolean degraded; // a model call failed, so an item analysis or the overall analysis is missing
     
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
     public static class ContentSummary {
+        private Long id;
         private String title;
         private String contentPreview;
         private Integer engagement; // likes + comments + shares
         private String sentiment;
+        private Double sentimentScore;
+        private List<String> topics;
+        private List<String> hashtags;
         private String aiInsights;
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.socialmedia.aiagent.model.dto;
+
+import com.socialmedia.aiagent.model.Sentiment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Typed per-content analysis parsed from the model's JSON output
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentAnalysisResult {
+    
+    private Sentiment sentiment;
+    private Double sentimentScore; // -1 (very negative) to 1 (very positive)
+    private List<String> topics;
+    private List<String> hashtags;
+    private String summary;
+    private List<String> insights;
+    
+    /**
+     * Readable form kept in the aiAnalysis column
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder(summary != null ? summary : "");
+        if (insights != null) {
+            insights.forEach(insight -> text.append(text.length() > 0 ? "\n- " : "- ").append(insight));
+        }
+        return text.toString();
+    }
+}
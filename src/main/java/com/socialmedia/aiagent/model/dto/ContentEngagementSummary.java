@@ -0,0 +1,26 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Title and engagement counters only, for recommendation and statistics inputs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentEngagementSummary {
+    
+    private String title;
+    private Integer likes;
+    private Integer comments;
+    private Integer shares;
+    private Integer views;
+    private LocalDateTime publishTime;
+    private String topics;
+}
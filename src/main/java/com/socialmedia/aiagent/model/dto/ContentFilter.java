@@ -0,0 +1,28 @@
+package com.socialmedia.aiagent.model.dto;
+
+import com.socialmedia.aiagent.model.Sentiment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria of a content query; null fields do not filter
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentFilter {
+    
+    private String platform;
+    private String bloggerName;
+    private Sentiment sentiment;
+    private Double minSentimentScore;
+    private Double maxSentimentScore;
+    private LocalDateTime since;
+    private String topic;
+    private String hashtag;
+}
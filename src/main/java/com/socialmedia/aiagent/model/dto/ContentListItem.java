@@ -0,0 +1,36 @@
+package com.socialmedia.aiagent.model.dto;
+
+import com.socialmedia.aiagent.model.Sentiment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of a history/recent listing. Carries a short preview instead of the full content and no AI analysis;
+ * fetch a single content for the heavy text.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentListItem {
+    
+    public static final int PREVIEW_LENGTH = 200;
+    
+    private Long id;
+    private String platform;
+    private String bloggerName;
+    private String title;
+    private String contentPreview;
+    private String contentUrl;
+    private Integer likes;
+    private Integer comments;
+    private Integer shares;
+    private Integer views;
+    private LocalDateTime publishTime;
+    private Sentiment sentiment;
+    private String topics;
+}
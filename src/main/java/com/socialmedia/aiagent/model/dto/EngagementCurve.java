@@ -0,0 +1,42 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Engagement growth of one content, or summed over a blogger's contents, with per-hour velocity
+ * between consecutive points
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementCurve {
+    
+    private Long contentId;
+    private String platform;
+    private String bloggerName;
+    private Integer seriesCount;
+    private List<Point> points;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Point {
+        private LocalDateTime time;
+        private Long likes;
+        private Long comments;
+        private Long shares;
+        private Long views;
+        private Double likesPerHour;
+        private Double commentsPerHour;
+        private Double sharesPerHour;
+        private Double viewsPerHour;
+    }
+}
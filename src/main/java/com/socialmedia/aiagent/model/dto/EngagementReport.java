@@ -0,0 +1,75 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deterministic engagement analytics over a blogger's recent contents. Interactions are
+ * likes + comments + shares; the engagement rate is interactions per view where views are reported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementReport {
+    
+    private Integer sampleSize;
+    private Double postsPerWeek;
+    private Percentiles interactions;
+    private Percentiles engagementRate; // null when the platform reports no views
+    private List<SlotStat> bestSlots;
+    private List<SlotStat> worstSlots;
+    private List<TopicStat> topics;
+    private List<Outlier> overperformers;
+    private List<Outlier> underperformers;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Percentiles {
+        private Double p25;
+        private Double p50;
+        private Double p75;
+        private Double p90;
+    }
+    
+    /**
+     * One cell of the day-of-week by hour-of-day heatmap
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SlotStat {
+        private String dayOfWeek;
+        private Integer hour;
+        private Integer posts;
+        private Double averageInteractions;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TopicStat {
+        private String topic;
+        private Integer posts;
+        private Double averageInteractions;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Outlier {
+        private String title;
+        private Long interactions;
+        private LocalDateTime publishTime;
+    }
+}
@@ -0,0 +1,28 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FetchJobRequest {
+    
+    @NotBlank(message = "Platform is required")
+    @Pattern(regexp = "bilibili|douyin|weibo", message = "Platform must be one of: bilibili, douyin, weibo")
+    private String platform;
+    
+    @NotEmpty(message = "At least one blogger name or URL is required")
+    private List<String> bloggerIdentifiers;
+    
+    private Integer limit; // Posts per blogger; agent.cluster.default-fetch-limit when absent
+}
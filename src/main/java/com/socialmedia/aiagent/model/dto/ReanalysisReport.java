@@ -0,0 +1,32 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the re-analysis to the current analysis version
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReanalysisReport {
+    
+    private String targetVersion;
+    private String status; // RUNNING, PAUSED, DONE, or NONE before the first start
+    private String owner;
+    private Integer total;
+    private Integer analyzed;
+    private Integer failed;
+    private Long remaining;
+    private Long lastContentId;
+    private Double contentsPerMinute; // over the current run
+    private Long etaSeconds; // null until the current run has a rate
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored content matching a search, with its relevance score
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchHit {
+    
+    private ContentListItem content;
+    private Double score;
+}
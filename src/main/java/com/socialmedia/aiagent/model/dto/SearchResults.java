@@ -0,0 +1,23 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results and the total number of matches
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResults {
+    
+    private long totalHits;
+    private int page;
+    private int size;
+    private List<SearchHit> hits;
+}
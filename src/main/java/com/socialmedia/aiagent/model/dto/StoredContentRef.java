@@ -0,0 +1,29 @@
+package com.socialmedia.aiagent.model.dto;
+
+import com.socialmedia.aiagent.model.Sentiment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Id, URL, stored counters and analysis state of a content already in the database; the analysis text
+ * itself is not loaded
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredContentRef {
+    
+    private Long id;
+    private String contentUrl;
+    private Integer likes;
+    private Integer comments;
+    private Integer shares;
+    private Integer views;
+    private Boolean analyzed; // holds a model analysis
+    private String analysisVersion;
+    private Sentiment sentiment;
+    private Double sentimentScore;
+    private String topics;
+    private String hashtags;
+}
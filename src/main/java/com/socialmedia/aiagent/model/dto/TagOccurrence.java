@@ -0,0 +1,23 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored tag with the platform and publish time of its content
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TagOccurrence {
+    
+    private Long id;
+    private String platform;
+    private LocalDateTime publishTime;
+    private String tag;
+}
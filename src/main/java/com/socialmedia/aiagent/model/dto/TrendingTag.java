@@ -0,0 +1,22 @@
+package com.socialmedia.aiagent.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimated use of a hashtag in a trend window, and in the window before it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingTag {
+    
+    private String tag;
+    private String platform; // null when counted across platforms
+    private long count;
+    private Long previousCount; // null when the retention does not cover the previous window
+    private Double growth; // count / previousCount
+}
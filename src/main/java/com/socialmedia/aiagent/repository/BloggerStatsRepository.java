@@ -0,0 +1,21 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.BloggerStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BloggerStatsRepository extends JpaRepository<BloggerStats, Long> {
+    
+    Optional<BloggerStats> findByPlatformAndBloggerName(String platform, String bloggerName);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BloggerStats s WHERE s.platform = :platform AND s.bloggerName = :bloggerName")
+    Optional<BloggerStats> lockByPlatformAndBloggerName(@Param("platform") String platform, @Param("bloggerName") String bloggerName);
+}
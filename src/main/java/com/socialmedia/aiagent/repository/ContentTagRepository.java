@@ -0,0 +1,25 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.ContentTag;
+import com.socialmedia.aiagent.model.TagType;
+import com.socialmedia.aiagent.model.dto.TagOccurrence;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ContentTagRepository extends JpaRepository<ContentTag, Long> {
+    
+    @Query("SELECT new com.socialmedia.aiagent.model.dto.TagOccurrence(t.id, c.platform, c.publishTime, t.tag) " +
+           "FROM ContentTag t JOIN SocialMediaContent c ON c.id = t.contentId " +
+           "WHERE t.tagType = :tagType AND c.publishTime >= :since AND t.id > :afterId ORDER BY t.id")
+    List<TagOccurrence> findOccurrencesSince(@Param("tagType") TagType tagType, @Param("since") LocalDateTime since,
+                                             @Param("afterId") Long afterId, Pageable pageable);
+    
+    List<ContentTag> findByContentId(Long contentId);
+}
@@ -0,0 +1,33 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.EngagementSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EngagementSeriesRepository extends JpaRepository<EngagementSeries, Long> {
+    
+    Optional<EngagementSeries> findByContentId(Long contentId);
+    
+    List<EngagementSeries> findByPlatformAndBloggerName(String platform, String bloggerName);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM EngagementSeries s WHERE s.contentId IN :contentIds")
+    List<EngagementSeries> lockByContentIds(@Param("contentIds") Collection<Long> contentIds);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM EngagementSeries s WHERE s.id IN :ids")
+    List<EngagementSeries> lockByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT s.id FROM EngagementSeries s WHERE s.compactedAt < :before AND s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsDueForCompaction(@Param("before") Long before, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.FetchValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FetchValidatorRepository extends JpaRepository<FetchValidator, String> {
+    
+    /**
+     * Note that the endpoint was found unchanged, keeping the validators it answered with this time
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE FetchValidator v SET v.etag = :etag, v.lastModified = :lastModified, v.checkedAt = :checkedAt " +
+           "WHERE v.endpoint = :endpoint")
+    int markChecked(@Param("endpoint") String endpoint, @Param("etag") String etag,
+                    @Param("lastModified") String lastModified, @Param("checkedAt") LocalDateTime checkedAt);
+}
@@ -0,0 +1,34 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.PlatformRateWindow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PlatformRateWindowRepository extends JpaRepository<PlatformRateWindow, String> {
+    
+    /**
+     * Take one permit of the current window if any are left
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PlatformRateWindow w SET w.permitsUsed = w.permitsUsed + 1 " +
+           "WHERE w.platform = :platform AND w.windowStart = :windowStart AND w.permitsUsed < :permits")
+    int takePermit(@Param("platform") String platform, @Param("windowStart") LocalDateTime windowStart,
+                   @Param("permits") int permits);
+    
+    /**
+     * Start a new window with its first permit taken, if the stored one is older; one node wins the race
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PlatformRateWindow w SET w.windowStart = :windowStart, w.permitsUsed = 1 " +
+           "WHERE w.platform = :platform AND w.windowStart < :windowStart")
+    int openWindow(@Param("platform") String platform, @Param("windowStart") LocalDateTime windowStart);
+}
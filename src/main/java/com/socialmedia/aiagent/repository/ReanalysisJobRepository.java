@@ -0,0 +1,68 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.ReanalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transitions are conditional UPDATEs, as for work tasks: one node wins a claim, and a node that lost the
+ * job, to a pause or to another node taking it over, finds its next checkpoint rejected
+ */
+@Repository
+public interface ReanalysisJobRepository extends JpaRepository<ReanalysisJob, String> {
+    
+    /**
+     * Resume a paused job, or take over a running one whose node stopped checkpointing
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReanalysisJob j SET j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING, " +
+           "j.owner = :owner, j.total = j.analyzed + j.failed + :remaining, j.runStartedAt = :now, j.runProcessed = 0, " +
+           "j.updatedAt = :now " +
+           "WHERE j.targetVersion = :version AND (j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.PAUSED " +
+           "OR (j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING AND j.updatedAt < :staleBefore))")
+    int resume(@Param("version") String version, @Param("owner") String owner, @Param("remaining") int remaining,
+               @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+    
+    /**
+     * Run a finished job again from the first content, e.g. to retry the contents that failed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReanalysisJob j SET j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING, " +
+           "j.owner = :owner, j.lastContentId = 0, j.total = :remaining, j.analyzed = 0, j.failed = 0, " +
+           "j.runStartedAt = :now, j.runProcessed = 0, j.startedAt = :now, j.updatedAt = :now, j.finishedAt = NULL " +
+           "WHERE j.targetVersion = :version AND j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.DONE")
+    int restart(@Param("version") String version, @Param("owner") String owner, @Param("remaining") int remaining,
+                @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReanalysisJob j SET j.lastContentId = :lastContentId, j.analyzed = j.analyzed + :analyzed, " +
+           "j.failed = j.failed + :failed, j.runProcessed = j.runProcessed + :analyzed + :failed, j.updatedAt = :now " +
+           "WHERE j.targetVersion = :version AND j.owner = :owner " +
+           "AND j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING")
+    int checkpoint(@Param("version") String version, @Param("owner") String owner, @Param("lastContentId") long lastContentId,
+                   @Param("analyzed") int analyzed, @Param("failed") int failed, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReanalysisJob j SET j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.DONE, j.owner = NULL, " +
+           "j.updatedAt = :now, j.finishedAt = :now " +
+           "WHERE j.targetVersion = :version AND j.owner = :owner " +
+           "AND j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING")
+    int finish(@Param("version") String version, @Param("owner") String owner, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReanalysisJob j SET j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.PAUSED, j.owner = NULL, " +
+           "j.updatedAt = :now " +
+           "WHERE j.targetVersion = :version AND j.status = com.socialmedia.aiagent.model.ReanalysisJobStatus.RUNNING")
+    int pause(@Param("version") String version, @Param("now") LocalDateTime now);
+}
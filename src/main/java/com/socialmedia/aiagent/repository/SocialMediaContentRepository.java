@@ -1,17 +1,28 @@
 package com.socialmedia.aiagent.repository;
 
+import com.socialmedia.aiagent.model.Sentiment;
 import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.ContentEngagementSummary;
+import com.socialmedia.aiagent.model.dto.ContentListItem;
+import com.socialmedia.aiagent.model.dto.StoredContentRef;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SocialMediaContentRepository extends JpaRepository<SocialMediaContent, Long> {
+public interface SocialMediaContentRepository extends JpaRepository<SocialMediaContent, Long>, SocialMediaContentRepositoryCustom {
+    
+    String LIST_ITEM_SELECT = "SELECT new com.socialmedia.aiagent.model.dto.ContentListItem(c.id, c.platform, c.bloggerName, c.title, " +
+           "SUBSTRING(c.content, 1, " + ContentListItem.PREVIEW_LENGTH + "), c.contentUrl, c.likes, c.comments, c.shares, c.views, " +
+           "c.publishTime, c.sentiment, c.topics) ";
     
     List<SocialMediaContent> findByPlatformAndBloggerNameOrderByPublishTimeDesc(String platform, String bloggerName);
     
@@ -19,12 +30,75 @@ public interface SocialMediaContentRepository extends JpaRepository<SocialMediaC
     
     Optional<SocialMediaContent> findByPlatformAndContentUrl(String platform, String contentUrl);
     
+    List<SocialMediaContent> findByPlatformAndContentUrlIn(String platform, Collection<String> contentUrls);
+    
+    /**
+     * Contents after the given id whose model analysis was made by another model or prompt, in id order
+     */
+    @Query("SELECT c FROM SocialMediaContent c WHERE c.id > :afterId AND c.aiAnalysis IS NOT NULL " +
+           "AND (c.analysisVersion IS NULL OR c.analysisVersion <> :version) ORDER BY c.id")
+    List<SocialMediaContent> findStaleAnalyses(@Param("version") String version, @Param("afterId") long afterId, Pageable pageable);
+    
+    @Query("SELECT COUNT(c) FROM SocialMediaContent c WHERE c.id > :afterId AND c.aiAnalysis IS NOT NULL " +
+           "AND (c.analysisVersion IS NULL OR c.analysisVersion <> :version)")
+    long countStaleAnalyses(@Param("version") String version, @Param("afterId") long afterId);
+    
+    @Query("SELECT new com.socialmedia.aiagent.model.dto.StoredContentRef(c.id, c.contentUrl, c.likes, c.comments, c.shares, c.views, " +
+           "CASE WHEN c.aiAnalysis IS NULL THEN false ELSE true END, c.analysisVersion, c.sentiment, c.sentimentScore, c.topics, c.hashtags) " +
+           "FROM SocialMediaContent c WHERE c.platform = :platform AND c.contentUrl IN :contentUrls")
+    List<StoredContentRef> findStoredRefs(@Param("platform") String platform, @Param("contentUrls") Collection<String> contentUrls);
+    
     @Query("SELECT c FROM SocialMediaContent c WHERE c.platform = :platform AND c.publishTime >= :since ORDER BY c.publishTime DESC")
     List<SocialMediaContent> findRecentContentByPlatform(@Param("platform") String platform, @Param("since") LocalDateTime since);
     
     @Query("SELECT c FROM SocialMediaContent c WHERE c.bloggerName = :bloggerName AND c.publishTime >= :since ORDER BY c.publishTime DESC")
     List<SocialMediaContent> findRecentContentByBlogger(@Param("bloggerName") String bloggerName, @Param("since") LocalDateTime since);
     
-    @Query("SELECT COUNT(c) FROM SocialMediaContent c WHERE c.platform = :platform AND c.bloggerName = :bloggerName")
-    Long countByPlatformAndBloggerName(@Param("platform") String platform, @Param("bloggerName") String bloggerName);
+    @Query(LIST_ITEM_SELECT +
+           "FROM SocialMediaContent c WHERE c.platform = :platform AND c.bloggerName = :bloggerName ORDER BY c.publishTime DESC")
+    List<ContentListItem> findListItemsByBlogger(@Param("platform") String platform, @Param("bloggerName") String bloggerName, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT +
+           "FROM SocialMediaContent c WHERE c.publishTime >= :since ORDER BY c.publishTime DESC")
+    List<ContentListItem> findRecentListItems(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + "FROM SocialMediaContent c WHERE c.id IN :ids")
+    List<ContentListItem> findListItemsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT c.id FROM SocialMediaContent c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.socialmedia.aiagent.model.dto.ContentEngagementSummary(c.title, c.likes, c.comments, c.shares, c.views, c.publishTime, c.topics) " +
+           "FROM SocialMediaContent c WHERE c.platform = :platform AND c.bloggerName = :bloggerName ORDER BY c.publishTime DESC")
+    List<ContentEngagementSummary> findEngagementSummaries(@Param("platform") String platform, @Param("bloggerName") String bloggerName, Pageable pageable);
+    
+    /**
+     * Refresh counters of a stored content without loading its text columns; null keeps the stored value
+     */
+    @Modifying
+    @Query("UPDATE SocialMediaContent c SET c.likes = COALESCE(CAST(:likes AS Integer), c.likes), c.comments = COALESCE(CAST(:comments AS Integer), c.comments), " +
+           "c.shares = COALESCE(CAST(:shares AS Integer), c.shares), c.views = COALESCE(CAST(:views AS Integer), c.views), c.updatedAt = :updatedAt WHERE c.id = :id")
+    int updateEngagement(@Param("id") Long id, @Param("likes") Integer likes, @Param("comments") Integer comments,
+                         @Param("shares") Integer shares, @Param("views") Integer views, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Replace the analysis and classification of a stored content without loading it
+     */
+    @Modifying
+    @Query("UPDATE SocialMediaContent c SET c.aiAnalysis = :aiAnalysis, c.analysisVersion = :analysisVersion, " +
+           "c.sentiment = :sentiment, c.sentimentScore = :sentimentScore, c.topics = :topics, c.hashtags = :hashtags, " +
+           "c.updatedAt = :updatedAt WHERE c.id = :id")
+    int updateAnalysis(@Param("id") Long id, @Param("aiAnalysis") String aiAnalysis, @Param("analysisVersion") String analysisVersion,
+                       @Param("sentiment") Sentiment sentiment, @Param("sentimentScore") Double sentimentScore,
+                       @Param("topics") String topics, @Param("hashtags") String hashtags,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.likes), 0), COALESCE(SUM(c.comments), 0), COALESCE(SUM(c.shares), 0), " +
+           "COALESCE(SUM(c.views), 0), MIN(c.publishTime), MAX(c.publishTime) " +
+           "FROM SocialMediaContent c WHERE c.platform = :platform AND c.bloggerName = :bloggerName")
+    List<Object[]> aggregateByBlogger(@Param("platform") String platform, @Param("bloggerName") String bloggerName);
+    
+    @Query("SELECT HOUR(c.publishTime), COUNT(c) FROM SocialMediaContent c " +
+           "WHERE c.platform = :platform AND c.bloggerName = :bloggerName AND c.publishTime IS NOT NULL GROUP BY HOUR(c.publishTime)")
+    List<Object[]> countByPublishHour(@Param("platform") String platform, @Param("bloggerName") String bloggerName);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.dto.ContentFilter;
+import com.socialmedia.aiagent.model.dto.ContentListItem;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface SocialMediaContentRepositoryCustom {
+    
+    /**
+     * Listing of contents matching every non-null criterion of the filter, newest first
+     */
+    List<ContentListItem> findListItems(ContentFilter filter, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.TagType;
+import com.socialmedia.aiagent.model.dto.ContentFilter;
+import com.socialmedia.aiagent.model.dto.ContentListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the filter query from the criteria present only, so each combination can use its index
+ * instead of one query full of {@code :param IS NULL OR ...} branches
+ */
+class SocialMediaContentRepositoryImpl implements SocialMediaContentRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ContentListItem> findListItems(ContentFilter filter, Pageable pageable) {
+        StringBuilder jpql = new StringBuilder(SocialMediaContentRepository.LIST_ITEM_SELECT)
+                .append("FROM SocialMediaContent c WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        
+        if (filter.getPlatform() != null) {
+            jpql.append(" AND c.platform = :platform");
+            parameters.put("platform", filter.getPlatform());
+        }
+        if (filter.getBloggerName() != null) {
+            jpql.append(" AND c.bloggerName = :bloggerName");
+            parameters.put("bloggerName", filter.getBloggerName());
+        }
+        if (filter.getSentiment() != null) {
+            jpql.append(" AND c.sentiment = :sentiment");
+            parameters.put("sentiment", filter.getSentiment());
+        }
+        if (filter.getMinSentimentScore() != null) {
+            jpql.append(" AND c.sentimentScore >= :minScore");
+            parameters.put("minScore", filter.getMinSentimentScore());
+        }
+        if (filter.getMaxSentimentScore() != null) {
+            jpql.append(" AND c.sentimentScore <= :maxScore");
+            parameters.put("maxScore", filter.getMaxSentimentScore());
+        }
+        if (filter.getSince() != null) {
+            jpql.append(" AND c.publishTime >= :since");
+            parameters.put("since", filter.getSince());
+        }
+        if (filter.getTopic() != null) {
+            jpql.append(" AND c.id IN (SELECT t.contentId FROM ContentTag t WHERE t.tagType = :topicType AND t.tag = :topic)");
+            parameters.put("topicType", TagType.TOPIC);
+            parameters.put("topic", filter.getTopic());
+        }
+        if (filter.getHashtag() != null) {
+            jpql.append(" AND c.id IN (SELECT h.contentId FROM ContentTag h WHERE h.tagType = :hashtagType AND h.tag = :hashtag)");
+            parameters.put("hashtagType", TagType.HASHTAG);
+            parameters.put("hashtag", filter.getHashtag());
+        }
+        jpql.append(" ORDER BY c.publishTime DESC");
+        
+        TypedQuery<ContentListItem> query = entityManager.createQuery(jpql.toString(), ContentListItem.class);
+        parameters.forEach(query::setParameter);
+        return query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.socialmedia.aiagent.repository;
+
+import com.socialmedia.aiagent.model.WorkTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Every transition is one conditional UPDATE that reports whether it applied, so nodes racing for the
+ * same task need no locks: exactly one claim succeeds, and a node whose lease was reclaimed can no
+ * longer renew, complete or fail the task.
+ */
+@Repository
+public interface WorkTaskRepository extends JpaRepository<WorkTask, Long> {
+    
+    boolean existsByDedupeKey(String dedupeKey);
+    
+    @Query("SELECT t.id FROM WorkTask t WHERE t.status = com.socialmedia.aiagent.model.WorkTaskStatus.PENDING ORDER BY t.id")
+    List<Long> findPendingIds(Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED, t.leaseOwner = :owner, " +
+           "t.leaseExpiresAt = :expiresAt, t.attempts = t.attempts + 1, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.status = com.socialmedia.aiagent.model.WorkTaskStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.leaseExpiresAt = :expiresAt WHERE t.id = :id AND t.leaseOwner = :owner " +
+           "AND t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED")
+    int renew(@Param("id") Long id, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.DONE, t.dedupeKey = NULL, " +
+           "t.leaseOwner = NULL, t.leaseExpiresAt = NULL, t.lastError = NULL, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.leaseOwner = :owner AND t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED")
+    int complete(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+    
+    /**
+     * Put a failed task back in the queue unless it has used up its attempts
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.PENDING, t.leaseOwner = NULL, " +
+           "t.leaseExpiresAt = NULL, t.lastError = :error, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.leaseOwner = :owner AND t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED " +
+           "AND t.attempts < :maxAttempts")
+    int retry(@Param("id") Long id, @Param("owner") String owner, @Param("error") String error,
+              @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.FAILED, t.dedupeKey = NULL, " +
+           "t.leaseOwner = NULL, t.leaseExpiresAt = NULL, t.lastError = :error, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.leaseOwner = :owner AND t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED")
+    int fail(@Param("id") Long id, @Param("owner") String owner, @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    /**
+     * Return tasks whose owner stopped renewing to the queue
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.PENDING, t.leaseOwner = NULL, " +
+           "t.leaseExpiresAt = NULL, t.lastError = 'lease expired', t.updatedAt = :now " +
+           "WHERE t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED AND t.leaseExpiresAt < :now " +
+           "AND t.attempts < :maxAttempts")
+    int reclaimExpired(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkTask t SET t.status = com.socialmedia.aiagent.model.WorkTaskStatus.FAILED, t.dedupeKey = NULL, " +
+           "t.leaseOwner = NULL, t.leaseExpiresAt = NULL, t.lastError = 'lease expired', t.updatedAt = :now " +
+           "WHERE t.status = com.socialmedia.aiagent.model.WorkTaskStatus.LEASED AND t.leaseExpiresAt < :now " +
+           "AND t.attempts >= :maxAttempts")
+    int failExpired(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WorkTask t WHERE t.status = com.socialmedia.aiagent.model.WorkTaskStatus.DONE AND t.updatedAt < :before")
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+    
+    @Query("SELECT t.status, COUNT(t) FROM WorkTask t GROUP BY t.status")
+    List<Object[]> countByStatus();
+}
@@ -1,18 +1,41 @@
 package com.socialmedia.aiagent.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.Sentiment;
 import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.BloggerStatsSummary;
+import com.socialmedia.aiagent.model.dto.ContentAnalysisResult;
+import com.socialmedia.aiagent.model.dto.EngagementReport;
+import com.socialmedia.aiagent.service.inference.InferenceGuard;
+import com.socialmedia.aiagent.service.inference.InferencePriority;
+import com.socialmedia.aiagent.service.inference.InferenceTask;
+import com.socialmedia.aiagent.service.inference.InferenceUnavailableException;
+import com.socialmedia.aiagent.service.inference.ModelRouter;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,121 +43,290 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AiAnalysisService {
     
-    private final ChatClient chatClient;
+    private final ModelRouter modelRouter;
     private final AgentConfig agentConfig;
+    private final PipelineMetrics pipelineMetrics;
+    private final Scheduler blockingScheduler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private static final int MAX_TOPICS = 5;
+    private static final int MAX_HASHTAGS = 10;
+    private static final int MAX_INSIGHTS = 5;
+    
+    // Instructions go in a fixed system message and the per-call data in the user message after it, so
+    // every call of a kind starts with the same tokens and Ollama can reuse the evaluated prefix.
+    private static final String BATCH_SYSTEM_PROMPT = """
+        You are an AI agent specialized in analyzing social media content from Chinese platforms.
+        The user message is a batch of posts separated by ---. Analyze the batch as a whole and provide
+        comprehensive insights including:
+        
+        1. Overall content themes and trends
+        2. Sentiment distribution across posts
+        3. Popular hashtags and topics
+        4. Engagement patterns analysis
+        5. Content creator performance insights
+        6. Recommendations for content strategy
+        
+        Please provide a structured analysis with clear sections and actionable insights.
+        """;
+    
+    private static final String RECOMMENDATION_SYSTEM_PROMPT = """
+        You are an AI consultant specializing in social media strategy for Chinese platforms.
+        The user message holds precomputed content performance analytics for one blogger.
+        The numbers are exact; do not recompute them, interpret them.
+        
+        Based on them, provide specific recommendations for the blogger:
+        1. Content strategy recommendations
+        2. Optimal posting times and frequency
+        3. Trending topics to explore
+        4. Engagement improvement tactics
+        5. Platform-specific optimization tips
+        """;
     
     /**
-     * Analyze individual social media content
+     * Analyze individual social media content into typed fields, using Ollama's JSON output mode
      */
-    public Mono<String> analyzeContent(SocialMediaContent content) {
-        return Mono.fromCallable(() -> {
-            try {
-                String contentText = buildContentText(content);
-                
-                PromptTemplate template = new PromptTemplate(agentConfig.getAnalysisPrompt());
-                Prompt prompt = template.create(Map.of("content", contentText));
-                
-                ChatResponse response = chatClient.call(prompt);
-                return response.getResult().getOutput().getContent();
-                
-            } catch (Exception e) {
-                log.error("Error analyzing content: {}", e.getMessage());
-                return "Analysis failed: " + e.getMessage();
-            }
-        });
+    public Mono<ContentAnalysisResult> analyzeContent(SocialMediaContent content) {
+        return callModel("content_analysis", InferenceTask.ANALYSIS, PipelineMetrics.STAGE_INFERENCE, content.getPlatform(), () ->
+            new Prompt(List.of(
+                    new SystemMessage(agentConfig.getAnalysisPrompt()),
+                    new UserMessage(buildContentText(content))),
+                OllamaOptions.create().withFormat("json")))
+        .map(this::parseAnalysis)
+        .doOnError(e -> log.error("Error analyzing content: {}", e.getMessage()));
+    }
+    
+    /**
+     * Model and prompt that {@link #analyzeContent} analyzes with now, e.g. {@code llama3.2#3f9a0c1d2e4b}.
+     * Stored analyses with another version are stale.
+     */
+    public String analysisVersion() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(agentConfig.getAnalysisPrompt().getBytes(StandardCharsets.UTF_8));
+            return modelRouter.primary(InferenceTask.ANALYSIS).model() + "#" + HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Fail with {@link InferenceUnavailableException} while the circuit of the model a call of this kind
+     * would use is open, so that work which depends on that call is not started
+     */
+    public void requireAvailable(InferenceTask task) {
+        InferenceGuard guard = modelRouter.route(task).guard();
+        Duration retryAfter = guard.getRetryAfter();
+        if (!retryAfter.isZero()) {
+            throw new InferenceUnavailableException("Inference circuit '" + guard.getName() + "' is open", retryAfter);
+        }
     }
     
     /**
      * Analyze multiple contents and provide overall insights
      */
     public Mono<String> analyzeBatch(List<SocialMediaContent> contents) {
-        return Mono.fromCallable(() -> {
+        String platform = contents.isEmpty() ? "unknown" : contents.get(0).getPlatform();
+        return callModel("batch_analysis", InferenceTask.BATCH, PipelineMetrics.STAGE_BATCH_INFERENCE, platform, () -> buildBatchPrompt(contents))
+                .doOnError(e -> log.error("Error analyzing batch content: {}", e.getMessage()));
+    }
+    
+    /**
+     * Generate content recommendations from a blogger's aggregates and engagement analytics
+     */
+    public Mono<String> generateRecommendations(String platform, String bloggerName, BloggerStatsSummary stats,
+                                                EngagementReport report) {
+        return callModel("recommendations", InferenceTask.RECOMMENDATIONS, PipelineMetrics.STAGE_INFERENCE, platform, () -> {
+            String bloggerStats = String.format(
+                "Posts: %d | Avg likes: %.1f | Avg comments: %.1f | Avg shares: %.1f | Avg views: %.1f | Most active hours: %s",
+                stats.getPostCount(), stats.getAverageLikes(), stats.getAverageComments(),
+                stats.getAverageShares(), stats.getAverageViews(), stats.getPeakHours());
+            
+            String analytics = "Platform: " + platform + "\n"
+                + "Blogger: " + bloggerName + "\n\n"
+                + "Overall statistics:\n" + bloggerStats + "\n\n"
+                + "Recent content analytics:\n" + formatReport(report);
+            return new Prompt(List.of(new SystemMessage(RECOMMENDATION_SYSTEM_PROMPT), new UserMessage(analytics)));
+        })
+        .doOnError(e -> log.error("Error generating recommendations: {}", e.getMessage()));
+    }
+    
+    /**
+     * Render an engagement report as a few compact lines, independent of how many contents it covers
+     */
+    String formatReport(EngagementReport report) {
+        StringBuilder text = new StringBuilder();
+        text.append("Sample: ").append(report.getSampleSize()).append(" recent posts");
+        if (report.getPostsPerWeek() != null) {
+            text.append(String.format(", %.1f posts/week", report.getPostsPerWeek()));
+        }
+        text.append("\n");
+        if (report.getInteractions() != null) {
+            text.append("Interactions (likes+comments+shares) ").append(formatPercentiles(report.getInteractions(), "%.0f")).append("\n");
+        }
+        if (report.getEngagementRate() != null) {
+            text.append("Engagement rate per view ").append(formatPercentiles(report.getEngagementRate(), "%.4f")).append("\n");
+        }
+        if (!report.getBestSlots().isEmpty()) {
+            text.append("Best posting slots: ").append(formatSlots(report.getBestSlots())).append("\n");
+        }
+        if (!report.getWorstSlots().isEmpty()) {
+            text.append("Weakest posting slots: ").append(formatSlots(report.getWorstSlots())).append("\n");
+        }
+        if (!report.getTopics().isEmpty()) {
+            text.append("Topics by avg interactions: ").append(report.getTopics().stream()
+                    .map(topic -> String.format("%s (%d posts, %.0f)", topic.getTopic(), topic.getPosts(), topic.getAverageInteractions()))
+                    .collect(Collectors.joining("; "))).append("\n");
+        }
+        if (!report.getOverperformers().isEmpty()) {
+            text.append("Overperforming posts: ").append(formatOutliers(report.getOverperformers())).append("\n");
+        }
+        if (!report.getUnderperformers().isEmpty()) {
+            text.append("Underperforming posts: ").append(formatOutliers(report.getUnderperformers())).append("\n");
+        }
+        return text.toString();
+    }
+    
+    private String formatPercentiles(EngagementReport.Percentiles percentiles, String format) {
+        return String.format("p25 " + format + " | p50 " + format + " | p75 " + format + " | p90 " + format,
+            percentiles.getP25(), percentiles.getP50(), percentiles.getP75(), percentiles.getP90());
+    }
+    
+    private String formatSlots(List<EngagementReport.SlotStat> slots) {
+        return slots.stream()
+                .map(slot -> String.format("%s %02d:00 (%d posts, avg %.0f)", slot.getDayOfWeek(), slot.getHour(),
+                    slot.getPosts(), slot.getAverageInteractions()))
+                .collect(Collectors.joining("; "));
+    }
+    
+    private String formatOutliers(List<EngagementReport.Outlier> outliers) {
+        return outliers.stream()
+                .map(outlier -> String.format("\"%s\" (%d)", outlier.getTitle(), outlier.getInteractions()))
+                .collect(Collectors.joining("; "));
+    }
+    
+    /**
+     * Assemble the overall-analysis prompt for a batch of contents
+     */
+    Prompt buildBatchPrompt(List<SocialMediaContent> contents) {
+        String batchContent = contents.stream()
+                .map(this::buildContentText)
+                .collect(Collectors.joining("\n\n---\n\n"));
+        if (batchContent.length() > agentConfig.getMaxContentLength()) {
+            batchContent = batchContent.substring(0, agentConfig.getMaxContentLength()) + "...";
+        }
+        return new Prompt(List.of(new SystemMessage(BATCH_SYSTEM_PROMPT), new UserMessage(batchContent)));
+    }
+    
+    /**
+     * Call the model routed for the task through its inference guard, queued at the priority in the Reactor
+     * context; the chat client supplies the task's model and options. Failures are raised, never returned as text.
+     */
+    private Mono<String> callModel(String operation, InferenceTask task, String stage, String platform,
+                                   Supplier<Prompt> promptBuilder) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+            Prompt prompt = promptBuilder.get();
+            ModelRouter.Route route = modelRouter.route(task);
+            InferencePriority priority = context.getOrDefault(InferencePriority.CONTEXT_KEY,
+                task == InferenceTask.RECOMMENDATIONS ? InferencePriority.RECOMMENDATION : InferencePriority.INTERACTIVE);
+            if (route.fallback()) {
+                pipelineMetrics.recordModelFallback(operation, modelRouter.primary(task).model(), route.model());
+            }
+            long start = System.nanoTime();
+            ChatResponse response = null;
             try {
-                String batchContent = contents.stream()
-                        .map(this::buildContentText)
-                        .collect(Collectors.joining("\n\n---\n\n"));
-                
-                String batchPrompt = """
-                    You are an AI agent specialized in analyzing social media content from Chinese platforms.
-                    Please analyze the following batch of content and provide comprehensive insights including:
-                    
-                    1. Overall content themes and trends
-                    2. Sentiment distribution across posts
-                    3. Popular hashtags and topics
-                    4. Engagement patterns analysis
-                    5. Content creator performance insights
-                    6. Recommendations for content strategy
-                    
-                    Content batch to analyze:
-                    {content}
-                    
-                    Please provide a structured analysis with clear sections and actionable insights.
-                    """;
-                
-                PromptTemplate template = new PromptTemplate(batchPrompt);
-                Prompt prompt = template.create(Map.of("content", 
-                    batchContent.length() > agentConfig.getMaxContentLength() 
-                        ? batchContent.substring(0, agentConfig.getMaxContentLength()) + "..." 
-                        : batchContent));
-                
-                ChatResponse response = chatClient.call(prompt);
-                return response.getResult().getOutput().getContent();
-                
-            } catch (Exception e) {
-                log.error("Error analyzing batch content: {}", e.getMessage());
-                return "Batch analysis failed: " + e.getMessage();
+                response = route.guard().execute(operation, priority, () -> requireOutput(route.chatClient().call(prompt)));
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                Usage usage = usageOf(response);
+                pipelineMetrics.recordStage(platform, stage, elapsed, context);
+                pipelineMetrics.recordInference(operation, platform, elapsed, response != null,
+                    usage != null ? usage.getPromptTokens() : null,
+                    usage != null ? usage.getGenerationTokens() : null);
             }
-        });
+            return response.getResult().getOutput().getContent();
+        }))
+        .subscribeOn(blockingScheduler);
+    }
+    
+    private ChatResponse requireOutput(ChatResponse response) {
+        if (response == null || response.getResult() == null
+                || response.getResult().getOutput().getContent() == null
+                || response.getResult().getOutput().getContent().isBlank()) {
+            throw new IllegalStateException("Model returned an empty response");
+        }
+        return response;
+    }
+    
+    private Usage usageOf(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) {
+            return null;
+        }
+        return response.getMetadata().getUsage();
     }
     
     /**
-     * Generate content recommendations based on analysis
+     * Read the model's JSON analysis leniently: unknown fields are ignored, missing ones stay null,
+     * the score is clamped to [-1, 1] and list fields are capped. Output that is not JSON at all is
+     * kept as a free-text summary.
      */
-    public Mono<String> generateRecommendations(String platform, String bloggerName, List<SocialMediaContent> contents) {
-        return Mono.fromCallable(() -> {
-            try {
-                String contentSummary = contents.stream()
-                        .map(content -> String.format("Title: %s | Likes: %d | Comments: %d", 
-                            content.getTitle(), 
-                            content.getLikes() != null ? content.getLikes() : 0,
-                            content.getComments() != null ? content.getComments() : 0))
-                        .collect(Collectors.joining("\n"));
-                
-                String recommendationPrompt = """
-                    You are an AI consultant specializing in social media strategy for Chinese platforms.
-                    Based on the following content performance data, provide specific recommendations for the blogger.
-                    
-                    Platform: {platform}
-                    Blogger: {blogger}
-                    
-                    Recent content performance:
-                    {contentSummary}
-                    
-                    Please provide:
-                    1. Content strategy recommendations
-                    2. Optimal posting times and frequency
-                    3. Trending topics to explore
-                    4. Engagement improvement tactics
-                    5. Platform-specific optimization tips
-                    """;
-                
-                PromptTemplate template = new PromptTemplate(recommendationPrompt);
-                Prompt prompt = template.create(Map.of(
-                    "platform", platform,
-                    "blogger", bloggerName,
-                    "contentSummary", contentSummary));
-                
-                ChatResponse response = chatClient.call(prompt);
-                return response.getResult().getOutput().getContent();
-                
-            } catch (Exception e) {
-                log.error("Error generating recommendations: {}", e.getMessage());
-                return "Recommendation generation failed: " + e.getMessage();
+    ContentAnalysisResult parseAnalysis(String output) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(output);
+        } catch (JsonProcessingException e) {
+            root = null;
+        }
+        if (root == null || !root.isObject()) {
+            log.warn("Model returned a non-JSON analysis, keeping it as free text");
+            return ContentAnalysisResult.builder().summary(output.strip()).build();
+        }
+        
+        Double score = root.path("sentimentScore").isNumber()
+                ? Math.max(-1.0, Math.min(1.0, root.path("sentimentScore").asDouble()))
+                : null;
+        Sentiment sentiment = parseSentiment(root.path("sentiment").asText(""));
+        if (sentiment == null && score != null) {
+            sentiment = score >= 0.2 ? Sentiment.POSITIVE : score <= -0.2 ? Sentiment.NEGATIVE : Sentiment.NEUTRAL;
+        }
+        return ContentAnalysisResult.builder()
+                .sentiment(sentiment)
+                .sentimentScore(score)
+                .topics(strings(root.path("topics"), MAX_TOPICS))
+                .hashtags(strings(root.path("hashtags"), MAX_HASHTAGS).stream()
+                        .map(tag -> tag.replace("#", "").strip())
+                        .filter(tag -> !tag.isEmpty())
+                        .distinct()
+                        .toList())
+                .summary(root.path("summary").isTextual() ? root.path("summary").asText().strip() : null)
+                .insights(strings(root.path("insights"), MAX_INSIGHTS))
+                .build();
+    }
+    
+    private static Sentiment parseSentiment(String value) {
+        String normalized = value.strip().toUpperCase(Locale.ROOT);
+        for (Sentiment sentiment : Sentiment.values()) {
+            if (sentiment.name().equals(normalized)) {
+                return sentiment;
+            }
+        }
+        return null;
+    }
+    
+    private static List<String> strings(JsonNode node, int limit) {
+        if (!node.isArray()) {
+            return node.isTextual() && !node.asText().isBlank() ? List.of(node.asText().strip()) : List.of();
+        }
+        List<String> values = new ArrayList<>();
+        for (JsonNode element : node) {
+            if (element.isValueNode() && !element.asText().isBlank() && values.size() < limit) {
+                values.add(element.asText().strip());
             }
-        });
+        }
+        return values;
     }
     
-    private String buildContentText(SocialMediaContent content) {
+    String buildContentText(SocialMediaContent content) {
         StringBuilder text = new StringBuilder();
         text.append("Platform: ").append(content.getPlatform()).append("\n");
         text.append("Title: ").append(content.getTitle()).append("\n");
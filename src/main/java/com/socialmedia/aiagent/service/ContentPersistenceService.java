@@ -0,0 +1,210 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.model.ContentTag;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.TagType;
+import com.socialmedia.aiagent.model.dto.StoredContentRef;
+import com.socialmedia.aiagent.repository.ContentTagRepository;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.classify.ContentClassifier;
+import com.socialmedia.aiagent.service.engagement.EngagementSeriesService;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import com.socialmedia.aiagent.service.stats.BloggerStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ContentPersistenceService {
+    
+    private final SocialMediaContentRepository repository;
+    private final ContentTagRepository tagRepository;
+    private final EngagementSeriesService engagementSeriesService;
+    private final BloggerStatsService bloggerStatsService;
+    private final PipelineMetrics pipelineMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    
+    public ContentPersistenceService(SocialMediaContentRepository repository, ContentTagRepository tagRepository,
+                                     EngagementSeriesService engagementSeriesService, BloggerStatsService bloggerStatsService,
+                                     PipelineMetrics pipelineMetrics, ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.tagRepository = tagRepository;
+        this.engagementSeriesService = engagementSeriesService;
+        this.bloggerStatsService = bloggerStatsService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Store a fetch in one transaction: insert contents not stored yet (as JDBC batches), refresh the counters
+     * of stored ones and write back their analysis where it changed, index the tags of new ones, append an engagement snapshot for every content and fold the changes into the
+     * blogger aggregates, then announce the write as a {@link ContentsPersistedEvent}. Stored rows are found with one
+     * IN query per platform instead of one lookup per content. Returns the newly inserted contents.
+     * <p>
+     * Stats rows of new bloggers are created first, outside that transaction, and the transaction locks the
+     * batch's stats rows before it reads the stored counters that the aggregates' deltas are taken against.
+     */
+    public List<SocialMediaContent> saveContents(List<SocialMediaContent> contents) {
+        bloggerStatsService.createMissing(contents);
+        return transactionTemplate.execute(status -> store(contents));
+    }
+    
+    private List<SocialMediaContent> store(List<SocialMediaContent> contents) {
+        bloggerStatsService.lock(contents);
+        Instant fetchedAt = Instant.now();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<SocialMediaContent>> byPlatform = contents.stream()
+                .collect(Collectors.groupingBy(SocialMediaContent::getPlatform));
+        
+        List<SocialMediaContent> toInsert = new ArrayList<>();
+        Map<SocialMediaContent, StoredContentRef> refreshed = new IdentityHashMap<>();
+        byPlatform.forEach((platform, platformContents) -> {
+            Set<String> urls = platformContents.stream()
+                    .map(SocialMediaContent::getContentUrl)
+                    .filter(url -> url != null)
+                    .collect(Collectors.toSet());
+            Map<String, StoredContentRef> storedRefs = urls.isEmpty()
+                    ? Map.of()
+                    : repository.findStoredRefs(platform, urls).stream()
+                        .collect(Collectors.toMap(StoredContentRef::getContentUrl, ref -> ref, (first, second) -> first));
+            
+            Set<String> seen = new HashSet<>();
+            for (SocialMediaContent content : platformContents) {
+                String url = content.getContentUrl();
+                if (url == null) {
+                    toInsert.add(content);
+                    continue;
+                }
+                StoredContentRef stored = storedRefs.get(url);
+                pipelineMetrics.recordCacheLookup("stored_content", stored != null);
+                if (!seen.add(url)) {
+                    continue;
+                }
+                if (stored != null) {
+                    content.setId(stored.getId());
+                    repository.updateEngagement(stored.getId(), content.getLikes(), content.getComments(),
+                        content.getShares(), content.getViews(), now);
+                    refreshed.put(content, stored);
+                } else {
+                    toInsert.add(content);
+                }
+            }
+        });
+        
+        List<SocialMediaContent> saved = repository.saveAll(toInsert);
+        repository.flush(); // content rows must exist before their engagement series reference them
+        
+        tagRepository.saveAll(tagsOf(saved));
+        
+        int reanalyzed = 0;
+        for (Map.Entry<SocialMediaContent, StoredContentRef> entry : refreshed.entrySet()) {
+            SocialMediaContent content = entry.getKey();
+            if (analysisChanged(content, entry.getValue())) {
+                repository.updateAnalysis(content.getId(), content.getAiAnalysis(), content.getAnalysisVersion(),
+                    content.getSentiment(), content.getSentimentScore(), content.getTopics(), content.getHashtags(), now);
+                syncTags(content);
+                reanalyzed++;
+            }
+        }
+        
+        List<SocialMediaContent> snapshotted = new ArrayList<>(saved);
+        snapshotted.addAll(refreshed.keySet());
+        engagementSeriesService.recordSnapshots(snapshotted, fetchedAt);
+        bloggerStatsService.recordSave(saved, refreshed);
+        eventPublisher.publishEvent(new ContentsPersistedEvent(saved, new ArrayList<>(refreshed.keySet())));
+        
+        log.debug("Stored {} new and refreshed {} of {} fetched contents, {} with a new analysis",
+            saved.size(), refreshed.size(), contents.size(), reanalyzed);
+        return saved;
+    }
+    
+    /**
+     * Store a new analysis of a stored content and bring its tags in line with it. Tags that stay keep their
+     * rows, so the trend tracker, which reads tags by ascending id, does not count them twice.
+     */
+    @Transactional
+    public SocialMediaContent saveAnalysis(SocialMediaContent content) {
+        SocialMediaContent saved = repository.save(content);
+        syncTags(saved);
+        return saved;
+    }
+    
+    /**
+     * {@link #saveAnalysis} for a batch of contents, in one transaction
+     */
+    @Transactional
+    public void saveAnalyses(List<SocialMediaContent> contents) {
+        contents.forEach(this::saveAnalysis);
+    }
+    
+    /**
+     * Whether a refreshed content carries an analysis worth writing over the stored one: a model analysis
+     * replaces a missing one or one of another version, and a local classification only replaces another
+     * local classification, never a model analysis
+     */
+    private static boolean analysisChanged(SocialMediaContent content, StoredContentRef stored) {
+        boolean storedAnalyzed = Boolean.TRUE.equals(stored.getAnalyzed());
+        if (content.getAiAnalysis() == null && storedAnalyzed) {
+            return false;
+        }
+        if (content.getAiAnalysis() != null
+                && (!storedAnalyzed || !Objects.equals(content.getAnalysisVersion(), stored.getAnalysisVersion()))) {
+            return true;
+        }
+        return content.getSentiment() != stored.getSentiment()
+            || !Objects.equals(content.getSentimentScore(), stored.getSentimentScore())
+            || !Objects.equals(content.getTopics(), stored.getTopics())
+            || !Objects.equals(content.getHashtags(), stored.getHashtags());
+    }
+    
+    /**
+     * Bring the tag rows of a stored content in line with its topics and hashtags
+     */
+    private void syncTags(SocialMediaContent content) {
+        List<ContentTag> wanted = tagsOf(List.of(content));
+        List<ContentTag> existing = tagRepository.findByContentId(content.getId());
+        Set<String> wantedKeys = wanted.stream().map(ContentPersistenceService::tagKey).collect(Collectors.toSet());
+        Set<String> existingKeys = existing.stream().map(ContentPersistenceService::tagKey).collect(Collectors.toSet());
+        tagRepository.deleteAll(existing.stream().filter(tag -> !wantedKeys.contains(tagKey(tag))).toList());
+        tagRepository.saveAll(wanted.stream().filter(tag -> !existingKeys.contains(tagKey(tag))).toList());
+    }
+    
+    private static String tagKey(ContentTag tag) {
+        return tag.getTagType() + ":" + tag.getTag();
+    }
+    
+    private List<ContentTag> tagsOf(List<SocialMediaContent> contents) {
+        List<ContentTag> tags = new ArrayList<>();
+        for (SocialMediaContent content : contents) {
+            addTags(tags, content.getId(), TagType.TOPIC, content.getTopics());
+            addTags(tags, content.getId(), TagType.HASHTAG, content.getHashtags());
+        }
+        return tags;
+    }
+    
+    private void addTags(List<ContentTag> tags, Long contentId, TagType type, String joined) {
+        ContentClassifier.split(joined).stream()
+                .map(String::strip)
+                .filter(tag -> !tag.isEmpty() && tag.length() <= 255)
+                .distinct()
+                .forEach(tag -> tags.add(ContentTag.builder().contentId(contentId).tagType(type).tag(tag).build()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.model.SocialMediaContent;
+
+import java.util.List;
+
+/**
+ * Published by {@link ContentPersistenceService#saveContents} inside its transaction. Listeners that
+ * maintain derived indexes should use {@code @TransactionalEventListener} so they only see committed rows.
+ *
+ * @param inserted  contents stored for the first time, ids assigned
+ * @param refreshed already stored contents whose counters were updated
+ */
+public record ContentsPersistedEvent(List<SocialMediaContent> inserted, List<SocialMediaContent> refreshed) {
+}
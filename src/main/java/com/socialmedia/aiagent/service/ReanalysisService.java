@@ -0,0 +1,293 @@
+package com.socialmedia.aiagent.service;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.ReanalysisJob;
+import com.socialmedia.aiagent.model.ReanalysisJobStatus;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.ReanalysisReport;
+import com.socialmedia.aiagent.repository.ReanalysisJobRepository;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.cluster.WorkQueueService;
+import com.socialmedia.aiagent.service.inference.InferencePriority;
+import com.socialmedia.aiagent.service.inference.InferenceUnavailableException;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Brings stored model analyses to the current analysis version after the analysis model or prompt changed.
+ * Stale contents are walked in id order, a chunk at a time, at background priority so interactive requests
+ * keep the model first. After each chunk the last id and the counts are checkpointed in reanalysis_job;
+ * a paused job, or one whose node stopped checkpointing, resumes from there on this node or another.
+ */
+@Component
+@Slf4j
+public class ReanalysisService {
+    
+    private final SocialMediaContentRepository contentRepository;
+    private final ReanalysisJobRepository jobRepository;
+    private final SocialMediaAgentService agentService;
+    private final AiAnalysisService aiAnalysisService;
+    private final ContentPersistenceService persistenceService;
+    private final PipelineMetrics pipelineMetrics;
+    private final AgentConfig.Reanalysis config;
+    private final String nodeId;
+    private final Scheduler blockingScheduler;
+    private final Disposable.Swap running = Disposables.swap();
+    
+    private record ChunkResult(List<SocialMediaContent> analyzed, int failed, long lastContentId) {
+    }
+    
+    public ReanalysisService(SocialMediaContentRepository contentRepository, ReanalysisJobRepository jobRepository,
+                             SocialMediaAgentService agentService, AiAnalysisService aiAnalysisService,
+                             ContentPersistenceService persistenceService, PipelineMetrics pipelineMetrics,
+                             AgentConfig agentConfig, WorkQueueService workQueueService, Scheduler blockingScheduler) {
+        this.contentRepository = contentRepository;
+        this.jobRepository = jobRepository;
+        this.agentService = agentService;
+        this.aiAnalysisService = aiAnalysisService;
+        this.persistenceService = persistenceService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.config = agentConfig.getReanalysis();
+        this.nodeId = workQueueService.getNodeId();
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    /**
+     * Start the job for the current analysis version, resume it when paused, or run a finished one again
+     * to retry its failures. A job running on a live node is left alone.
+     */
+    public Mono<ReanalysisReport> start() {
+        String version = aiAnalysisService.analysisVersion();
+        return Mono.fromCallable(() -> claim(version, LocalDateTime.now()))
+                .subscribeOn(blockingScheduler)
+                .doOnNext(claimed -> {
+                    if (claimed) {
+                        run(version);
+                    }
+                })
+                .then(getReport());
+    }
+    
+    /**
+     * Pause the job wherever it runs: another node stops at its next checkpoint, which the pause rejects
+     */
+    public Mono<ReanalysisReport> pause() {
+        String version = aiAnalysisService.analysisVersion();
+        return Mono.fromCallable(() -> jobRepository.pause(version, LocalDateTime.now()))
+                .subscribeOn(blockingScheduler)
+                .doOnNext(paused -> {
+                    if (paused > 0) {
+                        log.info("Paused re-analysis to {}", version);
+                        running.update(null); // stop this node's model calls now rather than at the checkpoint
+                    }
+                })
+                .then(getReport());
+    }
+    
+    public Mono<ReanalysisReport> getReport() {
+        String version = aiAnalysisService.analysisVersion();
+        return Mono.fromCallable(() -> jobRepository.findById(version)
+                    .map(ReanalysisService::report)
+                    .orElseGet(() -> ReanalysisReport.builder()
+                        .targetVersion(version)
+                        .status("NONE")
+                        .remaining(contentRepository.countStaleAnalyses(version, 0))
+                        .build()))
+                .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Take over the current version's job when the node running it stopped checkpointing, e.g. on restart
+     */
+    @Scheduled(fixedDelayString = "${agent.reanalysis.adopt-interval:PT1M}",
+               initialDelayString = "${agent.reanalysis.adopt-interval:PT1M}")
+    public void adoptAbandoned() {
+        if (running.get() != null && !running.get().isDisposed()) {
+            return;
+        }
+        String version = aiAnalysisService.analysisVersion();
+        ReanalysisJob job = jobRepository.findById(version).orElse(null);
+        if (job == null || job.getStatus() != ReanalysisJobStatus.RUNNING) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int remaining = (int) contentRepository.countStaleAnalyses(version, job.getLastContentId());
+        if (jobRepository.resume(version, nodeId, remaining, now, now.minus(config.getStaleAfter())) > 0) {
+            log.info("Taking over re-analysis to {} from node {} at content {}", version, job.getOwner(), job.getLastContentId());
+            run(version);
+        }
+    }
+    
+    private boolean claim(String version, LocalDateTime now) {
+        ReanalysisJob job = jobRepository.findById(version).orElse(null);
+        if (job == null) {
+            int remaining = (int) contentRepository.countStaleAnalyses(version, 0);
+            try {
+                jobRepository.saveAndFlush(ReanalysisJob.builder()
+                        .targetVersion(version)
+                        .status(ReanalysisJobStatus.RUNNING)
+                        .owner(nodeId)
+                        .lastContentId(0L)
+                        .total(remaining)
+                        .analyzed(0)
+                        .failed(0)
+                        .runStartedAt(now)
+                        .runProcessed(0)
+                        .startedAt(now)
+                        .updatedAt(now)
+                        .build());
+                log.info("Starting re-analysis of {} contents to {}", remaining, version);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                return false; // another node started it between the read and the insert
+            }
+        }
+        int remaining = (int) contentRepository.countStaleAnalyses(version,
+            job.getStatus() == ReanalysisJobStatus.DONE ? 0 : job.getLastContentId());
+        boolean claimed = job.getStatus() == ReanalysisJobStatus.DONE
+            ? jobRepository.restart(version, nodeId, remaining, now) > 0
+            : jobRepository.resume(version, nodeId, remaining, now, now.minus(config.getStaleAfter())) > 0;
+        if (claimed) {
+            log.info("Resuming re-analysis to {} at content {}, {} contents left", version,
+                job.getStatus() == ReanalysisJobStatus.DONE ? 0 : job.getLastContentId(), remaining);
+        }
+        return claimed;
+    }
+    
+    private void run(String version) {
+        Disposable disposable = Mono.fromCallable(() -> jobRepository.findById(version).map(ReanalysisJob::getLastContentId).orElse(0L))
+                .subscribeOn(blockingScheduler)
+                .flatMap(afterId -> runFrom(version, afterId))
+                .contextWrite(Context.of(InferencePriority.CONTEXT_KEY, InferencePriority.BACKGROUND))
+                .subscribe(
+                    finished -> { },
+                    e -> log.error("Re-analysis to {} stopped: {}", version, e.getMessage()));
+        running.update(disposable);
+    }
+    
+    /**
+     * Analyze and checkpoint one chunk after {@code afterId}, then the next, until none is left or the
+     * checkpoint is rejected because the job was paused or taken over
+     */
+    private Mono<Void> runFrom(String version, long afterId) {
+        return Mono.fromCallable(() -> contentRepository.findStaleAnalyses(version, afterId, PageRequest.of(0, config.getChunkSize())))
+                .subscribeOn(blockingScheduler)
+                .flatMap(chunk -> {
+                    if (chunk.isEmpty()) {
+                        return Mono.fromRunnable(() -> {
+                            if (jobRepository.finish(version, nodeId, LocalDateTime.now()) > 0) {
+                                log.info("Finished re-analysis to {}", version);
+                            }
+                        }).subscribeOn(blockingScheduler).then();
+                    }
+                    return analyzeChunk(chunk)
+                            .flatMap(result -> writeBack(version, result))
+                            .flatMap(owned -> owned
+                                ? runFrom(version, chunk.get(chunk.size() - 1).getId())
+                                : Mono.fromRunnable(() -> log.info("Re-analysis to {} stopped on this node: paused or taken over", version)));
+                });
+    }
+    
+    /**
+     * A content whose analysis fails keeps its old one and counts as failed. When every content of the chunk
+     * failed because the model is unavailable, the chunk is not a failure of its contents: it is tried again
+     * after {@code retryDelay}, without moving the checkpoint, until the model answers.
+     */
+    private Mono<ChunkResult> analyzeChunk(List<SocialMediaContent> chunk) {
+        return Mono.defer(() -> {
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger unavailable = new AtomicInteger();
+            List<SocialMediaContent> analyzed = Collections.synchronizedList(new ArrayList<>());
+            return Flux.fromIterable(chunk)
+                    .flatMap(content -> aiAnalysisService.analyzeContent(content)
+                        .map(analysis -> agentService.applyAnalysis(content, analysis))
+                        .doOnNext(analyzed::add)
+                        .onErrorResume(e -> {
+                            failed.incrementAndGet();
+                            if (e instanceof InferenceUnavailableException) {
+                                unavailable.incrementAndGet();
+                            }
+                            return Mono.empty();
+                        }), config.getConcurrency())
+                    .then(Mono.defer(() -> {
+                        if (analyzed.isEmpty() && unavailable.get() == chunk.size()) {
+                            return Mono.error(new InferenceUnavailableException("Model unavailable for a whole chunk", config.getRetryDelay()));
+                        }
+                        return Mono.just(new ChunkResult(List.copyOf(analyzed), failed.get(), chunk.get(chunk.size() - 1).getId()));
+                    }));
+        })
+        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, config.getRetryDelay())
+            .filter(InferenceUnavailableException.class::isInstance)
+            .doBeforeRetry(signal -> log.warn("Model unavailable during re-analysis, retrying the chunk in {}", config.getRetryDelay())));
+    }
+    
+    /**
+     * Store the chunk's analyses and move the checkpoint past it; false when this node no longer owns the job.
+     * Analyses stored by a node that just lost the job are still correct, so they are not rolled back.
+     */
+    private Mono<Boolean> writeBack(String version, ChunkResult result) {
+        return Mono.fromCallable(() -> {
+            if (!result.analyzed().isEmpty()) {
+                persistenceService.saveAnalyses(result.analyzed());
+            }
+            pipelineMetrics.recordReanalysis(result.analyzed().size(), result.failed());
+            boolean owned = jobRepository.checkpoint(version, nodeId, result.lastContentId(),
+                result.analyzed().size(), result.failed(), LocalDateTime.now()) == 1;
+            if (owned) {
+                jobRepository.findById(version).map(ReanalysisService::report).ifPresent(report ->
+                    log.info("Re-analysis to {}: {}/{} contents, {} failed, {} per minute, ETA {}",
+                        version, report.getAnalyzed() + report.getFailed(), report.getTotal(), report.getFailed(),
+                        report.getContentsPerMinute() != null ? String.format("%.1f", report.getContentsPerMinute()) : "-",
+                        report.getEtaSeconds() != null ? Duration.ofSeconds(report.getEtaSeconds()) : "-"));
+            }
+            return owned;
+        }).subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Rate and ETA come from the current run only, so time spent paused or on a dead node does not count
+     */
+    private static ReanalysisReport report(ReanalysisJob job) {
+        long remaining = Math.max(0, job.getTotal() - job.getAnalyzed() - job.getFailed());
+        Double perMinute = null;
+        Long eta = null;
+        long runMillis = Duration.between(job.getRunStartedAt(), job.getUpdatedAt()).toMillis();
+        if (job.getStatus() == ReanalysisJobStatus.RUNNING && job.getRunProcessed() > 0 && runMillis > 0) {
+            perMinute = job.getRunProcessed() * 60_000.0 / runMillis;
+            eta = Math.round(remaining * 60.0 / perMinute);
+        }
+        return ReanalysisReport.builder()
+                .targetVersion(job.getTargetVersion())
+                .status(job.getStatus().name())
+                .owner(job.getOwner())
+                .total(job.getTotal())
+                .analyzed(job.getAnalyzed())
+                .failed(job.getFailed())
+                .remaining(remaining)
+                .lastContentId(job.getLastContentId())
+                .contentsPerMinute(perMinute)
+                .etaSeconds(eta)
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
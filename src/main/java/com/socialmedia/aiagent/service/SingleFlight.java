@@ -0,0 +1,59 @@
+package com.socialmedia.aiagent.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs one execution per key at a time: callers asking for a key that is already running attach to that
+ * execution and receive its result. A successful result keeps being served for the freshness window after
+ * it completes, unless it is one the caller chose not to keep; such a result, like a failure, is handed to
+ * the callers that waited for it, and the next caller starts afresh.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, Mono<V>> flights = new ConcurrentHashMap<>();
+    
+    /**
+     * The running or fresh execution for the key, or a new one made by {@code work} whose result stays
+     * fresh for {@code freshness} when {@code keep} accepts it. The work runs once however many callers subscribe.
+     */
+    public Mono<V> execute(K key, Duration freshness, Predicate<? super V> keep, Supplier<Mono<V>> work) {
+        return Mono.defer(() -> {
+            Mono<V> existing = flights.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> flight = Mono.defer(work)
+                    .doOnSuccess(value -> {
+                        if (value == null || freshness.isZero() || !keep.test(value)) {
+                            flights.remove(key, self.get());
+                        } else {
+                            Mono.delay(freshness).subscribe(tick -> flights.remove(key, self.get()));
+                        }
+                    })
+                    .doOnError(error -> flights.remove(key, self.get()))
+                    .cache(value -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+            self.set(flight);
+            Mono<V> winner = flights.putIfAbsent(key, flight);
+            return winner != null ? winner : flight;
+        });
+    }
+    
+    /**
+     * Whether a call for the key would attach to a running or fresh execution
+     */
+    public boolean isShared(K key) {
+        return flights.containsKey(key);
+    }
+    
+    public int size() {
+        return flights.size();
+    }
+}
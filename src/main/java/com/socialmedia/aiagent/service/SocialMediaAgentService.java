@@ -1,19 +1,58 @@
 package com.socialmedia.aiagent.service;
 
+import com.socialmedia.aiagent.config.AgentConfig;
 import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.WorkTaskStatus;
+import com.socialmedia.aiagent.model.WorkTaskType;
 import com.socialmedia.aiagent.model.dto.ContentAnalysisRequest;
+import com.socialmedia.aiagent.model.dto.BloggerStatsSummary;
 import com.socialmedia.aiagent.model.dto.ContentAnalysisResponse;
+import com.socialmedia.aiagent.model.dto.ContentAnalysisResult;
+import com.socialmedia.aiagent.model.dto.ContentEngagementSummary;
+import com.socialmedia.aiagent.model.dto.ContentFilter;
+import com.socialmedia.aiagent.model.dto.ContentListItem;
+import com.socialmedia.aiagent.model.dto.EngagementCurve;
+import com.socialmedia.aiagent.model.dto.EngagementReport;
+import com.socialmedia.aiagent.model.dto.FetchJobRequest;
+import com.socialmedia.aiagent.model.dto.SearchHit;
+import com.socialmedia.aiagent.model.dto.SearchResults;
+import com.socialmedia.aiagent.model.dto.StoredContentRef;
+import com.socialmedia.aiagent.model.dto.TrendingTag;
 import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.analytics.EngagementAnalytics;
+import com.socialmedia.aiagent.service.classify.ContentClassifier;
+import com.socialmedia.aiagent.service.cluster.WorkQueueService;
+import com.socialmedia.aiagent.service.engagement.EngagementSeriesService;
+import com.socialmedia.aiagent.service.fetch.FetchedPage;
+import com.socialmedia.aiagent.service.inference.InferencePriority;
+import com.socialmedia.aiagent.service.inference.InferenceTask;
+import com.socialmedia.aiagent.service.inference.InferenceUnavailableException;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import com.socialmedia.aiagent.service.metrics.StageTimings;
+import com.socialmedia.aiagent.service.search.EmbeddingService;
+import com.socialmedia.aiagent.service.search.FullTextIndex;
+import com.socialmedia.aiagent.service.search.VectorIndex;
+import com.socialmedia.aiagent.service.stats.BloggerStatsService;
+import com.socialmedia.aiagent.service.trends.TrendService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -25,12 +64,76 @@ public class SocialMediaAgentService {
     private final Map<String, SocialMediaService> socialMediaServices;
     private final AiAnalysisService aiAnalysisService;
     private final SocialMediaContentRepository repository;
+    private final ContentPersistenceService persistenceService;
+    private final EngagementSeriesService engagementSeriesService;
+    private final BloggerStatsService bloggerStatsService;
+    private final EngagementAnalytics engagementAnalytics;
+    private final ContentClassifier contentClassifier;
+    private final EmbeddingService embeddingService;
+    private final FullTextIndex fullTextIndex;
+    private final TrendService trendService;
+    private final WorkQueueService workQueue;
+    private final PipelineMetrics pipelineMetrics;
+    private final AgentConfig agentConfig;
+    private final Scheduler blockingScheduler;
+    private final SingleFlight<AnalysisKey, ContentAnalysisResponse> analyses = new SingleFlight<>();
     
     /**
-     * Main method to analyze blogger content across platforms
+     * Summary of a whole fetch, or the note left in its place when the model call failed
+     */
+    private record OverallAnalysis(String text, boolean failed) {
+        
+        static final OverallAnalysis NONE = new OverallAnalysis("", false);
+    }
+    
+    /**
+     * URLs of fetched contents that are already stored, and those stored rows that hold a current model analysis
+     */
+    private record StoredAnalyses(Set<String> urls, Map<String, SocialMediaContent> analyzed) {
+        
+        static final StoredAnalyses NONE = new StoredAnalyses(Set.of(), Map.of());
+    }
+    
+    /**
+     * Requests with equal keys get the same response
+     */
+    private record AnalysisKey(String platform, String bloggerIdentifier, Integer limit, Boolean includeAnalysis,
+                               Boolean background) {
+        
+        static AnalysisKey of(ContentAnalysisRequest request) {
+            String identifier = request.getBloggerIdentifier() != null ? request.getBloggerIdentifier().strip() : null;
+            return new AnalysisKey(request.getPlatform(), identifier, request.getLimit(), request.getIncludeAnalysis(),
+                Boolean.TRUE.equals(request.getBackground()));
+        }
+    }
+    
+    /**
+     * Main method to analyze blogger content across platforms. Identical requests arriving while one runs,
+     * or within the freshness window after it, share its response instead of fetching and analyzing again.
+     * A degraded response goes only to the requests that waited for it.
      */
     public Mono<ContentAnalysisResponse> analyzeBloggerContent(ContentAnalysisRequest request) {
+        if (!agentConfig.getCoalescing().getEnabled()) {
+            return runAnalysis(request);
+        }
+        AnalysisKey key = AnalysisKey.of(request);
+        return Mono.defer(() -> {
+            pipelineMetrics.recordCacheLookup("analysis_flight", analyses.isShared(key));
+            return analyses.execute(key, agentConfig.getCoalescing().getFreshness(),
+                response -> !Boolean.TRUE.equals(response.getDegraded()), () -> runAnalysis(request));
+        });
+    }
+    
+    /**
+     * Whether an analysis of this request would attach to one already running or fresh, costing no model calls
+     */
+    public boolean isAnalysisShared(ContentAnalysisRequest request) {
+        return agentConfig.getCoalescing().getEnabled() && analyses.isShared(AnalysisKey.of(request));
+    }
+    
+    private Mono<ContentAnalysisResponse> runAnalysis(ContentAnalysisRequest request) {
         long startTime = System.currentTimeMillis();
+        StageTimings timings = new StageTimings();
         
         return validateRequest(request)
                 .flatMap(validRequest -> {
@@ -38,32 +141,211 @@ public class SocialMediaAgentService {
                     if (service == null) {
                         return Mono.error(new IllegalArgumentException("Unsupported platform: " + validRequest.getPlatform()));
                     }
+                    if (validRequest.getIncludeAnalysis() && !Boolean.TRUE.equals(validRequest.getBackground())) {
+                        aiAnalysisService.requireAvailable(InferenceTask.BATCH); // no fetch for a caller who would get a 503
+                    }
                     
-                    return fetchAndAnalyzeContent(service, validRequest)
-                            .map(contents -> buildResponse(validRequest, contents, startTime));
+                    List<SocialMediaContent> failedAnalyses = Collections.synchronizedList(new ArrayList<>());
+                    return fetchAndAnalyzeContent(service, validRequest, failedAnalyses)
+                            .flatMap(page -> analyzeOverall(validRequest, page)
+                                    .map(overall -> buildResponse(validRequest, page.contents(), overall,
+                                        !failedAnalyses.isEmpty(), timings, startTime)));
                 })
                 .doOnSuccess(response -> log.info("Completed analysis for {} on {}: {} contents analyzed", 
                     request.getBloggerIdentifier(), request.getPlatform(), response.getTotalContents()))
                 .doOnError(error -> log.error("Analysis failed for {} on {}: {}", 
-                    request.getBloggerIdentifier(), request.getPlatform(), error.getMessage()));
+                    request.getBloggerIdentifier(), request.getPlatform(), error.getMessage()))
+                .contextWrite(Context.of(StageTimings.CONTEXT_KEY, timings,
+                    InferencePriority.CONTEXT_KEY, Boolean.TRUE.equals(request.getBackground())
+                        ? InferencePriority.BACKGROUND : InferencePriority.INTERACTIVE));
+    }
+    
+    /**
+     * Queue fetch-and-analyze work for bloggers in the shared work table, to be run by whichever node leases
+     * it. Bloggers already queued or running are skipped. Returns how many tasks were queued.
+     */
+    public Mono<Integer> queueFetches(FetchJobRequest request) {
+        return Mono.fromCallable(() -> {
+            SocialMediaService service = socialMediaServices.get(request.getPlatform());
+            if (service == null) {
+                throw new IllegalArgumentException("Unsupported platform: " + request.getPlatform());
+            }
+            for (String identifier : request.getBloggerIdentifiers()) {
+                if (!service.isValidBloggerIdentifier(identifier)) {
+                    throw new IllegalArgumentException("Invalid blogger identifier for platform " + request.getPlatform() + ": " + identifier);
+                }
+            }
+            int queued = 0;
+            for (String identifier : request.getBloggerIdentifiers()) {
+                if (workQueue.enqueue(WorkTaskType.FETCH, request.getPlatform(), identifier, request.getLimit())) {
+                    queued++;
+                }
+            }
+            return queued;
+        }).subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Count tasks in the shared work table by status
+     */
+    public Mono<Map<WorkTaskStatus, Long>> getWorkStatus() {
+        return Mono.fromCallable(workQueue::countByStatus)
+            .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Get one page of historical content for a blogger, newest first, without the heavy text columns
+     */
+    public Mono<List<ContentListItem>> getHistoricalContent(String platform, String bloggerName, int page, Integer size) {
+        return Mono.fromCallable(() -> 
+            repository.findListItemsByBlogger(platform, bloggerName, pageRequest(page, size)))
+            .subscribeOn(blockingScheduler);
     }
     
     /**
-     * Get historical content for a blogger
+     * Get one page of recent content across all platforms
      */
-    public Mono<List<SocialMediaContent>> getHistoricalContent(String platform, String bloggerName) {
+    public Mono<List<ContentListItem>> getRecentContent(int hours, int page, Integer size) {
         return Mono.fromCallable(() -> 
-            repository.findByPlatformAndBloggerNameOrderByPublishTimeDesc(platform, bloggerName))
-            .subscribeOn(Schedulers.boundedElastic());
+            repository.findRecentListItems(LocalDateTime.now().minusHours(hours), pageRequest(page, size)))
+            .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Get one page of contents matching a filter, using the indexed sentiment, time and tag columns
+     */
+    public Mono<List<ContentListItem>> findContents(ContentFilter filter, int page, Integer size) {
+        return Mono.fromCallable(() -> repository.findListItems(filter, pageRequest(page, size)))
+            .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Find stored contents closest in meaning to a free-text query, optionally on one platform
+     */
+    public Mono<List<SearchHit>> searchContents(String query, String platform, int k) {
+        return Mono.fromCallable(() -> {
+            // platform is not in the vector index, so over-fetch and filter on the loaded rows
+            List<VectorIndex.Hit> hits = embeddingService.search(query, platform != null ? k * 4 : k, null);
+            Map<Long, ContentListItem> items = repository.findListItemsByIds(
+                    hits.stream().map(VectorIndex.Hit::contentId).toList()).stream()
+                .collect(Collectors.toMap(ContentListItem::getId, Function.identity()));
+            return hits.stream()
+                .map(hit -> {
+                    ContentListItem item = items.get(hit.contentId());
+                    return item != null ? new SearchHit(item, hit.score()) : null;
+                })
+                .filter(Objects::nonNull)
+                .filter(hit -> platform == null || platform.equals(hit.getContent().getPlatform()))
+                .limit(k)
+                .toList();
+        })
+        .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Full-text search over titles and content, ranked by relevance, with optional filters
+     */
+    public Mono<SearchResults> searchText(String query, String platform, String bloggerName, LocalDateTime since,
+                                          int page, Integer size) {
+        return Mono.fromCallable(() -> {
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("Search query must not be blank");
+            }
+            PageRequest pageRequest = pageRequest(page, size);
+            FullTextIndex.Result result = fullTextIndex.search(query.strip(), platform, bloggerName, since,
+                pageRequest.getPageNumber(), pageRequest.getPageSize());
+            Map<Long, ContentListItem> items = result.hits().isEmpty() ? Map.of()
+                : repository.findListItemsByIds(result.hits().stream().map(FullTextIndex.Hit::contentId).toList()).stream()
+                    .collect(Collectors.toMap(ContentListItem::getId, Function.identity()));
+            List<SearchHit> hits = result.hits().stream()
+                .filter(hit -> items.containsKey(hit.contentId()))
+                .map(hit -> new SearchHit(items.get(hit.contentId()), hit.score()))
+                .toList();
+            return new SearchResults(result.totalHits(), pageRequest.getPageNumber(), pageRequest.getPageSize(), hits);
+        })
+        .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Most used hashtags across all crawled bloggers over the last hours, on one platform or all
+     */
+    public Mono<List<TrendingTag>> getTrends(String platform, int hours, int k, boolean rising) {
+        return Mono.fromCallable(() -> trendService.getTrends(platform, Duration.ofHours(hours), k, rising));
     }
     
     /**
-     * Get recent content across all platforms
+     * Get title and engagement counters of a blogger's most recent contents
      */
-    public Mono<List<SocialMediaContent>> getRecentContent(int hours) {
+    public Mono<List<ContentEngagementSummary>> getEngagementSummaries(String platform, String bloggerName) {
         return Mono.fromCallable(() -> 
-            repository.findRecentContentByPlatform("", LocalDateTime.now().minusHours(hours)))
-            .subscribeOn(Schedulers.boundedElastic());
+            repository.findEngagementSummaries(platform, bloggerName,
+                PageRequest.of(0, agentConfig.getRecommendationSampleSize())))
+            .subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Get a blogger's precomputed aggregate statistics
+     */
+    public Mono<BloggerStatsSummary> getBloggerStats(String platform, String bloggerName) {
+        return Mono.fromCallable(() -> bloggerStatsService.getStats(platform, bloggerName))
+            .subscribeOn(blockingScheduler)
+            .flatMap(Mono::justOrEmpty);
+    }
+    
+    /**
+     * Compute engagement analytics over a blogger's most recent contents
+     */
+    public Mono<EngagementReport> getEngagementReport(String platform, String bloggerName) {
+        return getEngagementSummaries(platform, bloggerName)
+            .map(engagementAnalytics::analyze);
+    }
+    
+    /**
+     * Get a single content with its full text and AI analysis
+     */
+    public Mono<SocialMediaContent> getContent(Long id) {
+        return Mono.fromCallable(() -> repository.findById(id))
+            .subscribeOn(blockingScheduler)
+            .flatMap(Mono::justOrEmpty);
+    }
+    
+    /**
+     * Run the model analysis of a stored content and store the result, for an ANALYZE task. A content that
+     * already has an analysis of the current version is left alone. Unlike a fetch, a failed analysis is an
+     * error here, so that the task is retried.
+     */
+    public Mono<SocialMediaContent> reanalyzeContent(Long id) {
+        return getContent(id)
+            .switchIfEmpty(Mono.error(new IllegalArgumentException("Content not found: " + id)))
+            .filter(content -> content.getAiAnalysis() == null
+                || !aiAnalysisService.analysisVersion().equals(content.getAnalysisVersion()))
+            .flatMap(content -> aiAnalysisService.analyzeContent(content)
+                .map(analysis -> applyAnalysis(content, analysis)))
+            .flatMap(content -> Mono.fromCallable(() -> persistenceService.saveAnalysis(content))
+                .subscribeOn(blockingScheduler))
+            .contextWrite(Context.of(InferencePriority.CONTEXT_KEY, InferencePriority.BACKGROUND));
+    }
+    
+    /**
+     * Get the engagement growth curve of a single content
+     */
+    public Mono<EngagementCurve> getContentEngagement(Long contentId) {
+        return Mono.fromCallable(() -> engagementSeriesService.getContentCurve(contentId))
+            .subscribeOn(blockingScheduler)
+            .flatMap(Mono::justOrEmpty);
+    }
+    
+    /**
+     * Get a blogger's summed engagement over the last hours, one point per bucket
+     */
+    public Mono<EngagementCurve> getBloggerEngagement(String platform, String bloggerName, int hours, int bucketHours) {
+        return Mono.fromCallable(() -> engagementSeriesService.getBloggerCurve(platform, bloggerName, hours, bucketHours))
+            .subscribeOn(blockingScheduler);
+    }
+    
+    private PageRequest pageRequest(int page, Integer size) {
+        int pageSize = size != null ? size : agentConfig.getDefaultPageSize();
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(pageSize, 1), agentConfig.getMaxPageSize()));
     }
     
     private Mono<ContentAnalysisRequest> validateRequest(ContentAnalysisRequest request) {
@@ -81,57 +363,243 @@ public class SocialMediaAgentService {
         });
     }
     
-    private Mono<List<SocialMediaContent>> fetchAndAnalyzeContent(SocialMediaService service, ContentAnalysisRequest request) {
+    /**
+     * Escalated contents whose model analysis failed are added to {@code failedAnalyses}
+     */
+    private Mono<FetchedPage> fetchAndAnalyzeContent(SocialMediaService service, ContentAnalysisRequest request,
+                                                     List<SocialMediaContent> failedAnalyses) {
         return service.fetchBloggerContent(request.getBloggerIdentifier(), request.getLimit())
-                .flatMap(content -> {
-                    if (request.getIncludeAnalysis()) {
-                        return aiAnalysisService.analyzeContent(content)
-                                .map(analysis -> {
-                                    content.setAiAnalysis(analysis);
-                                    return content;
-                                })
-                                .onErrorReturn(content); // Continue even if analysis fails
+                .flatMap(page -> {
+                    if (page.unchanged()) {
+                        return completeAnalyses(request, page, failedAnalyses);
                     }
-                    return Mono.just(content);
-                })
-                .collectList()
-                .flatMap(contents -> saveContents(contents).thenReturn(contents));
+                    return classifyAndAnalyze(request, page.contents(), failedAnalyses)
+                            .flatMap(analyzed -> saveContents(analyzed)
+                                    .then(queueAnalyses(request.getPlatform(), failedAnalyses))
+                                    .thenReturn(FetchedPage.changed(analyzed)));
+                });
     }
     
-    private Mono<Void> saveContents(List<SocialMediaContent> contents) {
+    /**
+     * In a cluster, contents stored without the model analysis they were escalated for are queued as
+     * ANALYZE tasks, so that whichever node leases them retries the model call, up to max-attempts times
+     */
+    private Mono<Void> queueAnalyses(String platform, List<SocialMediaContent> failedAnalyses) {
+        if (!agentConfig.getCluster().getEnabled() || failedAnalyses.isEmpty()) {
+            return Mono.empty();
+        }
         return Mono.fromRunnable(() -> {
-            try {
-                for (SocialMediaContent content : contents) {
-                    // Check if content already exists
-                    if (content.getContentUrl() != null) {
-                        var existing = repository.findByPlatformAndContentUrl(
-                            content.getPlatform(), content.getContentUrl());
-                        if (existing.isEmpty()) {
-                            repository.save(content);
-                        }
-                    } else {
-                        repository.save(content);
-                    }
+            int queued = 0;
+            for (SocialMediaContent content : List.copyOf(failedAnalyses)) {
+                if (content.getId() != null
+                        && workQueue.enqueue(WorkTaskType.ANALYZE, platform, content.getId().toString(), null)) {
+                    queued++;
                 }
-            } catch (Exception e) {
-                log.warn("Failed to save some contents: {}", e.getMessage());
             }
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+            log.info("Queued {} analyses that failed on {} for retry", queued, platform);
+        }).subscribeOn(blockingScheduler).then();
     }
     
-    private ContentAnalysisResponse buildResponse(ContentAnalysisRequest request, 
-                                                  List<SocialMediaContent> contents, 
-                                                  long startTime) {
+    /**
+     * An unchanged page is already classified and saved, but contents stored without a model analysis, by a
+     * sync without includeAnalysis or while the model was unavailable, still get one when it is asked for.
+     * The page counts as changed when any of them did, so the overall summary is not skipped.
+     */
+    private Mono<FetchedPage> completeAnalyses(ContentAnalysisRequest request, FetchedPage page,
+                                               List<SocialMediaContent> failedAnalyses) {
+        List<SocialMediaContent> pending = page.contents().stream()
+                .filter(content -> content.getAiAnalysis() == null)
+                .toList();
+        if (!request.getIncludeAnalysis() || pending.isEmpty()) {
+            return Mono.just(page);
+        }
+        return classifyAndAnalyze(request, pending, failedAnalyses)
+                .map(analyzed -> analyzed.stream().filter(content -> content.getAiAnalysis() != null).toList())
+                .flatMap(analyzed -> {
+                    Mono<Void> queued = queueAnalyses(request.getPlatform(), failedAnalyses);
+                    if (analyzed.isEmpty()) {
+                        return queued.thenReturn(page);
+                    }
+                    return Mono.fromRunnable(() -> persistenceService.saveAnalyses(analyzed))
+                            .subscribeOn(blockingScheduler)
+                            .then(queued)
+                            .thenReturn(FetchedPage.changed(page.contents()));
+                });
+    }
+    
+    /**
+     * Classify every content locally and send only the escalated ones to the model. Contents whose model
+     * call failed are kept without an analysis and added to {@code failed}.
+     */
+    private Mono<List<SocialMediaContent>> classifyAndAnalyze(ContentAnalysisRequest request, List<SocialMediaContent> contents,
+                                                              List<SocialMediaContent> failed) {
+        if (contents.isEmpty()) {
+            return Mono.just(contents);
+        }
+        String platform = request.getPlatform();
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            Set<SocialMediaContent> escalated = Collections.newSetFromMap(new IdentityHashMap<>());
+            escalated.addAll(contentClassifier.classifyBatch(contents));
+            pipelineMetrics.recordStage(platform, PipelineMetrics.STAGE_CLASSIFY, System.nanoTime() - start, context);
+            contents.forEach(content -> pipelineMetrics.recordClassification(platform,
+                request.getIncludeAnalysis() && escalated.contains(content)));
+            
+            if (!request.getIncludeAnalysis()) {
+                return Mono.just(contents);
+            }
+            return findStoredAnalyses(platform, escalated)
+                    .flatMap(stored -> Flux.fromIterable(contents)
+                            .flatMap(content -> {
+                                if (!escalated.contains(content)) {
+                                    return Mono.just(content);
+                                }
+                                return reusableAnalysis(content, stored)
+                                        .map(previous -> reuseAnalysis(content, previous))
+                                        .switchIfEmpty(Mono.defer(() -> aiAnalysisService.analyzeContent(content)
+                                                .map(analysis -> applyAnalysis(content, analysis))
+                                                .onErrorResume(e -> { // Continue even if analysis fails
+                                                    failed.add(content);
+                                                    return Mono.just(content);
+                                                })));
+                            })
+                            .collectList());
+        });
+    }
+    
+    /**
+     * Which of the contents are already stored, by URL, and the stored rows among them whose model analysis
+     * is of the current version. Contents read back from the store are known to be stored and not looked up.
+     */
+    private Mono<StoredAnalyses> findStoredAnalyses(String platform, Collection<SocialMediaContent> contents) {
+        Set<String> urls = contents.stream()
+                .filter(content -> content.getId() == null)
+                .map(SocialMediaContent::getContentUrl)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (urls.isEmpty()) {
+            return Mono.just(StoredAnalyses.NONE);
+        }
+        return Mono.fromCallable(() -> {
+            String version = aiAnalysisService.analysisVersion();
+            List<StoredContentRef> refs = repository.findStoredRefs(platform, urls);
+            List<Long> current = refs.stream()
+                    .filter(ref -> Boolean.TRUE.equals(ref.getAnalyzed()) && version.equals(ref.getAnalysisVersion()))
+                    .map(StoredContentRef::getId)
+                    .toList();
+            Map<String, SocialMediaContent> analyzed = current.isEmpty() ? Map.of() : repository.findAllById(current).stream()
+                    .collect(Collectors.toMap(SocialMediaContent::getContentUrl, Function.identity(), (first, second) -> first));
+            return new StoredAnalyses(refs.stream().map(StoredContentRef::getContentUrl).collect(Collectors.toSet()), analyzed);
+        }).subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * A model analysis that can stand in for one of the content's own. A stored content can only reuse its
+     * own analysis, and only one of the current version; it is not embedded, as its nearest neighbour would
+     * be itself. Any other content reuses the analysis of a near-duplicate, if one is stored.
+     */
+    private Mono<SocialMediaContent> reusableAnalysis(SocialMediaContent content, StoredAnalyses stored) {
+        String url = content.getContentUrl();
+        if (content.getId() != null || (url != null && stored.urls().contains(url))) {
+            SocialMediaContent previous = url != null ? stored.analyzed().get(url) : null;
+            pipelineMetrics.recordCacheLookup("stored_analysis", previous != null);
+            return Mono.justOrEmpty(previous);
+        }
+        return findAnalyzedDuplicate(content);
+    }
+    
+    /**
+     * A stored content with a model analysis whose embedding is near-identical: the same post cross-posted
+     * to another platform, or reposted
+     */
+    private Mono<SocialMediaContent> findAnalyzedDuplicate(SocialMediaContent content) {
+        return embeddingService.findNearDuplicate(content)
+                .flatMap(this::getContent)
+                .filter(stored -> stored.getAiAnalysis() != null);
+    }
+    
+    private SocialMediaContent reuseAnalysis(SocialMediaContent content, SocialMediaContent duplicate) {
+        log.debug("Reusing analysis of content {} for {}", duplicate.getId(), content.getContentUrl());
+        content.setAiAnalysis(duplicate.getAiAnalysis());
+        content.setAnalysisVersion(duplicate.getAnalysisVersion());
+        if (duplicate.getSentiment() != null) {
+            content.setSentiment(duplicate.getSentiment());
+            content.setSentimentScore(duplicate.getSentimentScore());
+        }
+        if (duplicate.getTopics() != null) {
+            content.setTopics(duplicate.getTopics());
+        }
+        if (duplicate.getHashtags() != null) {
+            content.setHashtags(duplicate.getHashtags());
+        }
+        return content;
+    }
+    
+    /**
+     * The model's reading wins over the local classifier wherever it produced a value
+     */
+    SocialMediaContent applyAnalysis(SocialMediaContent content, ContentAnalysisResult analysis) {
+        content.setAiAnalysis(analysis.toText());
+        content.setAnalysisVersion(aiAnalysisService.analysisVersion());
+        if (analysis.getSentiment() != null) {
+            content.setSentiment(analysis.getSentiment());
+            content.setSentimentScore(analysis.getSentimentScore());
+        }
+        if (analysis.getTopics() != null && !analysis.getTopics().isEmpty()) {
+            content.setTopics(ContentClassifier.join(analysis.getTopics()));
+        }
+        if (analysis.getHashtags() != null && !analysis.getHashtags().isEmpty()) {
+            content.setHashtags(ContentClassifier.join(analysis.getHashtags()));
+        }
+        return content;
+    }
+    
+    Mono<Void> saveContents(List<SocialMediaContent> contents) {
+        if (contents.isEmpty()) {
+            return Mono.empty();
+        }
+        String platform = contents.get(0).getPlatform();
         
-        String overallAnalysis = "";
-        if (request.getIncludeAnalysis() && !contents.isEmpty()) {
+        return Mono.deferContextual(context -> Mono.fromRunnable(() -> {
+            long start = System.nanoTime();
+            int written = 0;
             try {
-                overallAnalysis = aiAnalysisService.analyzeBatch(contents).block();
+                written = persistenceService.saveContents(contents).size();
             } catch (Exception e) {
-                log.warn("Failed to generate overall analysis: {}", e.getMessage());
-                overallAnalysis = "Overall analysis failed: " + e.getMessage();
+                log.warn("Failed to save contents: {}", e.getMessage());
+            } finally {
+                pipelineMetrics.recordBatchSize(platform, written);
+                pipelineMetrics.recordStage(platform, PipelineMetrics.STAGE_PERSISTENCE, System.nanoTime() - start, context);
             }
+        })).subscribeOn(blockingScheduler).then();
+    }
+    
+    /**
+     * The overall summary is what an interactive analysis with includeAnalysis is for, so an unavailable
+     * model fails the request instead of answering without it. Other failures, and any failure of a
+     * background sync, whose contents are stored either way, leave a note in its place.
+     */
+    private Mono<OverallAnalysis> analyzeOverall(ContentAnalysisRequest request, FetchedPage page) {
+        if (!request.getIncludeAnalysis() || page.contents().isEmpty()) {
+            return Mono.just(OverallAnalysis.NONE);
+        }
+        if (Boolean.TRUE.equals(request.getBackground()) && page.unchanged()) {
+            return Mono.just(OverallAnalysis.NONE); // a background sync of an unchanged page has nothing new to summarize
         }
+        return aiAnalysisService.analyzeBatch(page.contents())
+                .map(text -> new OverallAnalysis(text, false))
+                .onErrorResume(e -> !(e instanceof InferenceUnavailableException) || Boolean.TRUE.equals(request.getBackground()), e -> {
+                    log.warn("Failed to generate overall analysis: {}", e.getMessage());
+                    return Mono.just(new OverallAnalysis("Overall analysis failed: " + e.getMessage(), true));
+                });
+    }
+    
+    private ContentAnalysisResponse buildResponse(ContentAnalysisRequest request, 
+                                                  List<SocialMediaContent> contents, 
+                                                  OverallAnalysis overallAnalysis,
+                                                  boolean itemAnalysisFailed,
+                                                  StageTimings timings,
+                                                  long startTime) {
         
         String bloggerName = contents.isEmpty() ? "Unknown" : contents.get(0).getBloggerName();
         
@@ -140,8 +608,29 @@ public class SocialMediaAgentService {
                 .bloggerName(bloggerName)
                 .totalContents(contents.size())
                 .contents(contents)
-                .overallAnalysis(overallAnalysis)
+                .summaries(contents.stream().map(this::summarize).toList())
+                .overallAnalysis(overallAnalysis.text())
+                .degraded(itemAnalysisFailed || overallAnalysis.failed())
                 .processingTimeMs(System.currentTimeMillis() - startTime)
+                .stageTimingsMs(timings.toMillis())
+                .build();
+    }
+    
+    private ContentAnalysisResponse.ContentSummary summarize(SocialMediaContent content) {
+        String text = content.getContent();
+        return ContentAnalysisResponse.ContentSummary.builder()
+                .id(content.getId())
+                .title(content.getTitle())
+                .contentPreview(text != null && text.length() > ContentListItem.PREVIEW_LENGTH
+                    ? text.substring(0, ContentListItem.PREVIEW_LENGTH) : text)
+                .engagement((content.getLikes() != null ? content.getLikes() : 0)
+                    + (content.getComments() != null ? content.getComments() : 0)
+                    + (content.getShares() != null ? content.getShares() : 0))
+                .sentiment(content.getSentiment() != null ? content.getSentiment().name() : null)
+                .sentimentScore(content.getSentimentScore())
+                .topics(ContentClassifier.split(content.getTopics()))
+                .hashtags(ContentClassifier.split(content.getHashtags()))
+                .aiInsights(content.getAiAnalysis())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package com.socialmedia.aiagent.service;
 
-import com.socialmedia.aiagent.model.SocialMediaContent;
-import reactor.core.publisher.Flux;
+import com.socialmedia.aiagent.service.fetch.FetchedPage;
 import reactor.core.publisher.Mono;
 
 public interface SocialMediaService {
@@ -12,9 +11,9 @@ public interface SocialMediaService {
     String getPlatform();
     
     /**
-     * Fetch content from a blogger
+     * Fetch content from a blogger; an empty page when the platform could not be read
      */
-    Flux<SocialMediaContent> fetchBloggerContent(String bloggerIdentifier, int limit);
+    Mono<FetchedPage> fetchBloggerContent(String bloggerIdentifier, int limit);
     
     /**
      * Get blogger information
@@ -0,0 +1,113 @@
+package com.socialmedia.aiagent.service.admission;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.dto.ContentAnalysisRequest;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits or sheds API requests before they reach the pipeline, by their estimated number of model calls.
+ * A request must fit both the server-wide budget of admitted, unfinished cost and the token bucket of its
+ * client. Clients are the API keys listed under {@code agent.admission.keys}; requests without a listed key
+ * share the anonymous bucket, so inventing keys does not buy quota.
+ */
+@Service
+@Slf4j
+public class AdmissionControl {
+    
+    public static final String ANONYMOUS = "anonymous";
+    
+    private final AgentConfig.Admission config;
+    private final PipelineMetrics pipelineMetrics;
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+    private final AtomicInteger outstandingCost = new AtomicInteger();
+    
+    /**
+     * Admitted cost, returned to the server budget on {@link #release()}; releasing twice is harmless
+     */
+    public final class Permit {
+        
+        private final int cost;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Permit(int cost) {
+            this.cost = cost;
+        }
+        
+        public void release() {
+            if (cost > 0 && released.compareAndSet(false, true)) {
+                outstandingCost.addAndGet(-cost);
+            }
+        }
+    }
+    
+    public AdmissionControl(AgentConfig agentConfig, PipelineMetrics pipelineMetrics) {
+        this.config = agentConfig.getAdmission();
+        this.pipelineMetrics = pipelineMetrics;
+        long now = System.nanoTime();
+        config.getKeys().forEach((key, quota) -> buckets.put(key, bucket(quota, config.getKeyQuota(), now)));
+        buckets.put(ANONYMOUS, bucket(config.getAnonymousQuota(), config.getAnonymousQuota(), now));
+        pipelineMetrics.bindAdmission(this);
+    }
+    
+    public int analyzeCost(ContentAnalysisRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+        return 1 + (Boolean.FALSE.equals(request.getIncludeAnalysis()) ? 0 : Math.max(limit, 0));
+    }
+    
+    public int recommendationCost() {
+        return config.getRecommendationCost();
+    }
+    
+    /**
+     * Admit a request of the given cost for an API key (null for none), or throw
+     * {@link AdmissionRejectedException}. The caller releases the permit when the request finishes.
+     */
+    public Permit admit(String endpoint, String apiKey, int cost) {
+        if (!config.getEnabled()) {
+            return new Permit(0);
+        }
+        String client = apiKey != null && buckets.containsKey(apiKey) ? apiKey : ANONYMOUS;
+        TokenBucket bucket = buckets.get(client);
+        if (cost > bucket.getCapacity()) {
+            pipelineMetrics.recordAdmission(endpoint, "too_large");
+            throw new IllegalArgumentException("Request cost " + cost + " exceeds the quota of "
+                + bucket.getCapacity() + "; lower the limit");
+        }
+        
+        int outstanding = outstandingCost.addAndGet(cost);
+        if (outstanding > config.getMaxOutstandingCost() && outstanding != cost) { // a lone request always fits
+            outstandingCost.addAndGet(-cost);
+            pipelineMetrics.recordAdmission(endpoint, "overloaded");
+            throw new AdmissionRejectedException("Server is at capacity, retry later", config.getOverloadRetryAfter());
+        }
+        long waitNanos = bucket.tryTake(cost, System.nanoTime());
+        if (waitNanos > 0) {
+            outstandingCost.addAndGet(-cost);
+            pipelineMetrics.recordAdmission(endpoint, "quota_exceeded");
+            log.debug("Quota of {} exhausted for a request of cost {}", client, cost);
+            throw new AdmissionRejectedException("Quota exceeded for " + (client.equals(ANONYMOUS)
+                ? "requests without an API key" : "this API key"), Duration.ofNanos(waitNanos));
+        }
+        pipelineMetrics.recordAdmission(endpoint, "admitted");
+        return new Permit(cost);
+    }
+    
+    public int getOutstandingCost() {
+        return outstandingCost.get();
+    }
+    
+    private static TokenBucket bucket(AgentConfig.Quota quota, AgentConfig.Quota defaults, long now) {
+        AgentConfig.Quota effective = quota != null ? quota : defaults;
+        int capacity = effective.getCapacity() != null ? effective.getCapacity() : defaults.getCapacity();
+        int refill = effective.getRefillPerMinute() != null ? effective.getRefillPerMinute() : defaults.getRefillPerMinute();
+        return new TokenBucket(capacity, refill, now);
+    }
+}
@@ -0,0 +1,20 @@
+package com.socialmedia.aiagent.service.admission;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Raised before any work starts when a request would exceed its client's quota or the server's
+ * outstanding cost; answered with 429 and Retry-After
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
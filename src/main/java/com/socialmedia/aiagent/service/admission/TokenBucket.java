@@ -0,0 +1,37 @@
+package com.socialmedia.aiagent.service.admission;
+
+/**
+ * Token bucket refilled continuously at a fixed rate, up to its capacity. Starts full.
+ */
+class TokenBucket {
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+    
+    TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60e9;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+    
+    int getCapacity() {
+        return (int) capacity;
+    }
+    
+    /**
+     * Take {@code cost} tokens if the bucket holds them. Returns 0 when taken, otherwise the nanoseconds
+     * until it will; nothing is taken in that case.
+     */
+    synchronized long tryTake(int cost, long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        return tokensPerNano > 0 ? (long) Math.ceil((cost - tokens) / tokensPerNano) : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,223 @@
+package com.socialmedia.aiagent.service.analytics;
+
+import com.socialmedia.aiagent.model.dto.ContentEngagementSummary;
+import com.socialmedia.aiagent.model.dto.EngagementReport;
+import com.socialmedia.aiagent.service.classify.ContentClassifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Engagement analytics computed in Java so the model gets numbers instead of raw rows.
+ * Works on primitive arrays indexed by position in the input list.
+ */
+@Component
+@RequiredArgsConstructor
+public class EngagementAnalytics {
+    
+    private static final int DAYS = 7;
+    private static final int HOURS = 24;
+    private static final int MIN_SLOT_POSTS = 2;
+    private static final int MIN_TOPIC_POSTS = 2;
+    private static final int TOP_SLOTS = 3;
+    private static final int TOP_TOPICS = 5;
+    private static final int TOP_OUTLIERS = 3;
+    private static final double OUTLIER_IQR_FACTOR = 1.5;
+    
+    private final ContentClassifier contentClassifier;
+    
+    public EngagementReport analyze(List<ContentEngagementSummary> contents) {
+        int n = contents.size();
+        long[] interactions = new long[n];
+        double[] rates = new double[n];
+        int rated = 0;
+        for (int i = 0; i < n; i++) {
+            ContentEngagementSummary content = contents.get(i);
+            interactions[i] = orZero(content.getLikes()) + orZero(content.getComments()) + orZero(content.getShares());
+            long views = orZero(content.getViews());
+            if (views > 0) {
+                rates[rated++] = (double) interactions[i] / views;
+            }
+        }
+        
+        double[] sortedInteractions = new double[n];
+        for (int i = 0; i < n; i++) {
+            sortedInteractions[i] = interactions[i];
+        }
+        Arrays.sort(sortedInteractions);
+        double[] sortedRates = Arrays.copyOf(rates, rated);
+        Arrays.sort(sortedRates);
+        
+        List<EngagementReport.SlotStat> slots = heatmap(contents, interactions);
+        return EngagementReport.builder()
+                .sampleSize(n)
+                .postsPerWeek(postsPerWeek(contents))
+                .interactions(n > 0 ? percentiles(sortedInteractions) : null)
+                .engagementRate(rated > 0 ? percentiles(sortedRates) : null)
+                .bestSlots(slots.stream()
+                        .sorted(Comparator.comparingDouble(EngagementReport.SlotStat::getAverageInteractions).reversed())
+                        .limit(TOP_SLOTS)
+                        .toList())
+                .worstSlots(slots.size() > TOP_SLOTS
+                        ? slots.stream()
+                            .sorted(Comparator.comparingDouble(EngagementReport.SlotStat::getAverageInteractions))
+                            .limit(TOP_SLOTS)
+                            .toList()
+                        : List.of())
+                .topics(topics(contents, interactions))
+                .overperformers(outliers(contents, interactions, true))
+                .underperformers(outliers(contents, interactions, false))
+                .build();
+    }
+    
+    /**
+     * Average interactions per day-of-week and hour cell; cells with too few posts are left out
+     */
+    private List<EngagementReport.SlotStat> heatmap(List<ContentEngagementSummary> contents, long[] interactions) {
+        long[] sums = new long[DAYS * HOURS];
+        int[] counts = new int[DAYS * HOURS];
+        for (int i = 0; i < contents.size(); i++) {
+            LocalDateTime publishTime = contents.get(i).getPublishTime();
+            if (publishTime != null) {
+                int cell = (publishTime.getDayOfWeek().getValue() - 1) * HOURS + publishTime.getHour();
+                sums[cell] += interactions[i];
+                counts[cell]++;
+            }
+        }
+        List<EngagementReport.SlotStat> slots = new ArrayList<>();
+        for (int cell = 0; cell < sums.length; cell++) {
+            if (counts[cell] >= MIN_SLOT_POSTS) {
+                slots.add(EngagementReport.SlotStat.builder()
+                        .dayOfWeek(DayOfWeek.of(cell / HOURS + 1).getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+                        .hour(cell % HOURS)
+                        .posts(counts[cell])
+                        .averageInteractions((double) sums[cell] / counts[cell])
+                        .build());
+            }
+        }
+        return slots;
+    }
+    
+    private List<EngagementReport.TopicStat> topics(List<ContentEngagementSummary> contents, long[] interactions) {
+        Map<String, long[]> byTopic = new HashMap<>(); // topic -> {posts, interaction sum}
+        for (int i = 0; i < contents.size(); i++) {
+            for (String topic : topicsOf(contents.get(i))) {
+                long[] totals = byTopic.computeIfAbsent(topic, key -> new long[2]);
+                totals[0]++;
+                totals[1] += interactions[i];
+            }
+        }
+        return byTopic.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] >= MIN_TOPIC_POSTS)
+                .map(entry -> EngagementReport.TopicStat.builder()
+                        .topic(entry.getKey())
+                        .posts((int) entry.getValue()[0])
+                        .averageInteractions((double) entry.getValue()[1] / entry.getValue()[0])
+                        .build())
+                .sorted(Comparator.comparingDouble(EngagementReport.TopicStat::getAverageInteractions).reversed())
+                .limit(TOP_TOPICS)
+                .toList();
+    }
+    
+    /**
+     * Tukey fences on log(1 + interactions); engagement is heavy-tailed, so fences on raw counts
+     * would flag nearly every popular post
+     */
+    private List<EngagementReport.Outlier> outliers(List<ContentEngagementSummary> contents, long[] interactions, boolean high) {
+        int n = interactions.length;
+        if (n < 4) {
+            return List.of();
+        }
+        double[] logs = new double[n];
+        for (int i = 0; i < n; i++) {
+            logs[i] = Math.log1p(interactions[i]);
+        }
+        double[] sorted = logs.clone();
+        Arrays.sort(sorted);
+        double q1 = percentile(sorted, 0.25);
+        double q3 = percentile(sorted, 0.75);
+        double fence = high ? q3 + OUTLIER_IQR_FACTOR * (q3 - q1) : q1 - OUTLIER_IQR_FACTOR * (q3 - q1);
+        
+        List<Integer> flagged = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (high ? logs[i] > fence : logs[i] < fence) {
+                flagged.add(i);
+            }
+        }
+        Comparator<Integer> byInteractions = Comparator.comparingLong(i -> interactions[i]);
+        return flagged.stream()
+                .sorted(high ? byInteractions.reversed() : byInteractions)
+                .limit(TOP_OUTLIERS)
+                .map(i -> EngagementReport.Outlier.builder()
+                        .title(contents.get(i).getTitle())
+                        .interactions(interactions[i])
+                        .publishTime(contents.get(i).getPublishTime())
+                        .build())
+                .toList();
+    }
+    
+    private Double postsPerWeek(List<ContentEngagementSummary> contents) {
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        int dated = 0;
+        for (ContentEngagementSummary content : contents) {
+            LocalDateTime publishTime = content.getPublishTime();
+            if (publishTime != null) {
+                dated++;
+                first = first == null || publishTime.isBefore(first) ? publishTime : first;
+                last = last == null || publishTime.isAfter(last) ? publishTime : last;
+            }
+        }
+        if (dated < 2) {
+            return null;
+        }
+        double weeks = Math.max(Duration.between(first, last).toHours(), 1) / (24.0 * 7);
+        return dated / weeks;
+    }
+    
+    /**
+     * Topics stored by the classifier, or extracted from the title for contents stored before it existed
+     */
+    private List<String> topicsOf(ContentEngagementSummary content) {
+        return content.getTopics() != null
+                ? ContentClassifier.split(content.getTopics())
+                : contentClassifier.extractTopics(content.getTitle());
+    }
+    
+    private static EngagementReport.Percentiles percentiles(double[] sorted) {
+        return EngagementReport.Percentiles.builder()
+                .p25(percentile(sorted, 0.25))
+                .p50(percentile(sorted, 0.50))
+                .p75(percentile(sorted, 0.75))
+                .p90(percentile(sorted, 0.90))
+                .build();
+    }
+    
+    /**
+     * Linear interpolation between closest ranks of an ascending array
+     */
+    static double percentile(double[] sorted, double quantile) {
+        if (sorted.length == 1) {
+            return sorted[0];
+        }
+        double rank = quantile * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+    
+    private static long orZero(Integer value) {
+        return value != null ? value : 0L;
+    }
+}
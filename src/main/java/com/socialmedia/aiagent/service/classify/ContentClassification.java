@@ -0,0 +1,21 @@
+package com.socialmedia.aiagent.service.classify;
+
+import com.socialmedia.aiagent.model.Sentiment;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of the local first-pass classification of one content
+ */
+@Data
+@Builder
+public class ContentClassification {
+    
+    private Sentiment sentiment;
+    private double sentimentScore;
+    private boolean ambiguous;
+    private List<String> topics;
+    private List<String> hashtags;
+}
@@ -0,0 +1,132 @@
+package com.socialmedia.aiagent.service.classify;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-process first pass over every content: lexicon sentiment, hashtags and topics. Decides which
+ * contents are worth a model call, namely the ambiguous ones and the batch's most engaging ones.
+ */
+@Component
+@Slf4j
+public class ContentClassifier {
+    
+    public static final String LIST_SEPARATOR = ",";
+    
+    private final AgentConfig.Classifier config;
+    private final SentimentScorer sentimentScorer = new SentimentScorer();
+    private final TopicExtractor topicExtractor = new TopicExtractor();
+    
+    public ContentClassifier(AgentConfig agentConfig) {
+        this.config = agentConfig.getClassifier();
+    }
+    
+    /**
+     * Classify a content and store the result on its sentiment, topics and hashtags fields. Hashtags the
+     * content already has, such as those a platform parser took from its markup, are kept ahead of the
+     * ones found in its text.
+     */
+    public ContentClassification classify(SocialMediaContent content) {
+        String text = content.getContent() != null && !content.getContent().equals(content.getTitle())
+                ? content.getTitle() + "\n" + content.getContent()
+                : content.getTitle();
+        SentimentScorer.Result sentiment = sentimentScorer.score(text);
+        List<String> hashtags = merge(split(content.getHashtags()), topicExtractor.hashtags(text));
+        List<String> topics = topicExtractor.topics(hashtags.isEmpty() ? text : text + "\n" + String.join(" ", hashtags));
+        boolean ambiguous = sentiment.ambiguousCue()
+                || (sentiment.positiveTerms() > 0 && sentiment.negativeTerms() > 0
+                    && Math.abs(sentiment.score()) < config.getAmbiguityThreshold());
+        
+        content.setSentiment(sentiment.sentiment());
+        content.setSentimentScore(sentiment.score());
+        content.setTopics(join(topics));
+        content.setHashtags(join(hashtags));
+        return ContentClassification.builder()
+                .sentiment(sentiment.sentiment())
+                .sentimentScore(sentiment.score())
+                .ambiguous(ambiguous)
+                .topics(topics)
+                .hashtags(hashtags)
+                .build();
+    }
+    
+    /**
+     * Classify a fetched batch and return the contents that still need the model: ambiguous ones and
+     * the top {@code modelTopFraction} by interactions. With the classifier disabled every content does.
+     */
+    public List<SocialMediaContent> classifyBatch(List<SocialMediaContent> contents) {
+        List<ContentClassification> classifications = contents.stream().map(this::classify).toList();
+        if (!config.getEnabled()) {
+            return contents;
+        }
+        
+        long[] interactions = new long[contents.size()];
+        for (int i = 0; i < interactions.length; i++) {
+            interactions[i] = interactions(contents.get(i));
+        }
+        long threshold = highEngagementThreshold(interactions);
+        
+        List<SocialMediaContent> escalated = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            boolean highEngagement = interactions[i] > 0 && interactions[i] >= threshold;
+            if (highEngagement || classifications.get(i).isAmbiguous()) {
+                escalated.add(contents.get(i));
+            }
+        }
+        log.debug("Classified {} contents locally, {} need the model", contents.size(), escalated.size());
+        return escalated;
+    }
+    
+    /**
+     * Topic categories mentioned in a text, for contents stored without topics
+     */
+    public List<String> extractTopics(String text) {
+        return topicExtractor.topics(text);
+    }
+    
+    public static List<String> split(String joined) {
+        return joined == null || joined.isEmpty() ? List.of() : Arrays.asList(joined.split(LIST_SEPARATOR));
+    }
+    
+    private static List<String> merge(List<String> existing, List<String> found) {
+        if (existing.isEmpty()) {
+            return found;
+        }
+        Set<String> merged = new LinkedHashSet<>();
+        existing.stream().map(String::strip).filter(tag -> !tag.isEmpty()).forEach(merged::add);
+        merged.addAll(found);
+        return new ArrayList<>(merged);
+    }
+    
+    private long highEngagementThreshold(long[] interactions) {
+        int escalate = (int) Math.ceil(interactions.length * config.getModelTopFraction());
+        if (escalate <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long[] sorted = interactions.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length - escalate];
+    }
+    
+    private static long interactions(SocialMediaContent content) {
+        return orZero(content.getLikes()) + orZero(content.getComments()) + orZero(content.getShares());
+    }
+    
+    private static long orZero(Integer value) {
+        return value != null ? value : 0L;
+    }
+    
+    public static String join(List<String> values) {
+        return values.isEmpty() ? null : String.join(LIST_SEPARATOR, values.stream()
+                .map(value -> value.replace(LIST_SEPARATOR, " "))
+                .toList());
+    }
+}
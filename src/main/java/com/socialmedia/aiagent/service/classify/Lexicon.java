@@ -0,0 +1,95 @@
+package com.socialmedia.aiagent.service.classify;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Character trie of terms for longest-match scanning of unsegmented Chinese text.
+ * Terms made only of ASCII letters and digits match on word boundaries only.
+ */
+class Lexicon {
+    
+    enum Kind { SENTIMENT, NEGATOR, INTENSIFIER, CONTRAST, AMBIGUOUS, KEYWORD }
+    
+    record Entry(String term, Kind kind, double value, String label) {
+    }
+    
+    private static class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        Entry entry;
+    }
+    
+    private final Node root = new Node();
+    private int size;
+    
+    void add(Entry entry) {
+        String term = entry.term().toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        if (node.entry == null) {
+            size++;
+        }
+        node.entry = entry;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Longest entry starting at {@code start} of already lower-cased text, or null
+     */
+    Entry longestMatch(String text, int start) {
+        if (start > 0 && isWordChar(text.charAt(start)) && isWordChar(text.charAt(start - 1))) {
+            return null;
+        }
+        Node node = root;
+        Entry match = null;
+        for (int i = start; i < text.length(); i++) {
+            node = node.children.get(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null && (i + 1 == text.length() || !isWordChar(node.entry.term().charAt(node.entry.term().length() - 1))
+                    || !isWordChar(text.charAt(i + 1)))) {
+                match = node.entry;
+            }
+        }
+        return match;
+    }
+    
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+    
+    /**
+     * Read a classpath resource line by line, skipping blank lines and # comments
+     */
+    static void readLines(String resource, Consumer<String> consumer) {
+        InputStream in = Lexicon.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing lexicon resource " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    consumer.accept(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read lexicon resource " + resource, e);
+        }
+    }
+}
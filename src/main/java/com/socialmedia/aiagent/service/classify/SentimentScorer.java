@@ -0,0 +1,115 @@
+package com.socialmedia.aiagent.service.classify;
+
+import com.socialmedia.aiagent.model.Sentiment;
+
+import java.util.Locale;
+
+/**
+ * Lexicon sentiment scorer in the style of VADER, adapted to unsegmented Chinese: terms are found by
+ * longest match, negators and intensifiers modify the next sentiment term within a short window,
+ * a contrast word discounts what came before it, and the sum is squashed into [-1, 1].
+ */
+class SentimentScorer {
+    
+    private static final String RESOURCE = "classify/sentiment.txt";
+    private static final int MODIFIER_WINDOW = 3; // characters a negator or intensifier reaches past
+    private static final double BEFORE_CONTRAST = 0.5;
+    private static final double AFTER_CONTRAST = 1.5;
+    private static final double EXCLAMATION_BOOST = 0.1;
+    private static final int MAX_EXCLAMATIONS = 3;
+    private static final double NORMALIZATION_ALPHA = 8.0;
+    private static final double LABEL_THRESHOLD = 0.2;
+    
+    record Result(Sentiment sentiment, double score, int positiveTerms, int negativeTerms, boolean ambiguousCue) {
+    }
+    
+    private final Lexicon lexicon = new Lexicon();
+    
+    SentimentScorer() {
+        Lexicon.readLines(RESOURCE, line -> {
+            String[] parts = line.split("\\s+");
+            String term = parts[0];
+            String spec = parts[1];
+            if (spec.equals("NEG")) {
+                lexicon.add(new Lexicon.Entry(term, Lexicon.Kind.NEGATOR, -1, null));
+            } else if (spec.equals("BUT")) {
+                lexicon.add(new Lexicon.Entry(term, Lexicon.Kind.CONTRAST, 0, null));
+            } else if (spec.equals("AMB")) {
+                lexicon.add(new Lexicon.Entry(term, Lexicon.Kind.AMBIGUOUS, 0, null));
+            } else if (spec.startsWith("INT:")) {
+                lexicon.add(new Lexicon.Entry(term, Lexicon.Kind.INTENSIFIER, Double.parseDouble(spec.substring(4)), null));
+            } else {
+                lexicon.add(new Lexicon.Entry(term, Lexicon.Kind.SENTIMENT, Double.parseDouble(spec), null));
+            }
+        });
+    }
+    
+    Result score(String text) {
+        if (text == null || text.isEmpty()) {
+            return new Result(Sentiment.NEUTRAL, 0, 0, 0, false);
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        double total = 0;
+        double contrastFactor = 1;
+        double modifier = 1;
+        int sinceModifier = Integer.MAX_VALUE;
+        int positive = 0;
+        int negative = 0;
+        int exclamations = 0;
+        boolean ambiguousCue = false;
+        
+        int i = 0;
+        while (i < normalized.length()) {
+            Lexicon.Entry entry = lexicon.longestMatch(normalized, i);
+            if (entry == null) {
+                char c = normalized.charAt(i);
+                if (c == '!' || c == '！') {
+                    exclamations++;
+                }
+                if (isClauseBreak(c) || ++sinceModifier > MODIFIER_WINDOW) {
+                    modifier = 1;
+                    sinceModifier = Integer.MAX_VALUE;
+                }
+                i++;
+                continue;
+            }
+            switch (entry.kind()) {
+                case NEGATOR, INTENSIFIER -> {
+                    modifier *= entry.value();
+                    sinceModifier = 0;
+                }
+                case CONTRAST -> {
+                    total *= BEFORE_CONTRAST;
+                    contrastFactor = AFTER_CONTRAST;
+                    modifier = 1;
+                }
+                case AMBIGUOUS -> ambiguousCue = true;
+                case SENTIMENT -> {
+                    double value = entry.value() * modifier * contrastFactor;
+                    if (value > 0) {
+                        positive++;
+                    } else if (value < 0) {
+                        negative++;
+                    }
+                    total += value;
+                    modifier = 1;
+                    sinceModifier = Integer.MAX_VALUE;
+                }
+                default -> {
+                }
+            }
+            i += entry.term().length();
+        }
+        
+        total *= 1 + EXCLAMATION_BOOST * Math.min(exclamations, MAX_EXCLAMATIONS);
+        double score = total / Math.sqrt(total * total + NORMALIZATION_ALPHA);
+        Sentiment sentiment = score >= LABEL_THRESHOLD ? Sentiment.POSITIVE
+                : score <= -LABEL_THRESHOLD ? Sentiment.NEGATIVE : Sentiment.NEUTRAL;
+        return new Result(sentiment, score, positive, negative, ambiguousCue);
+    }
+    
+    private static boolean isClauseBreak(char c) {
+        return c == '，' || c == '。' || c == '！' || c == '？' || c == '；' || c == ','
+            || c == '.' || c == '!' || c == '?' || c == ';' || c == '\n';
+    }
+}
@@ -0,0 +1,90 @@
+package com.socialmedia.aiagent.service.classify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashtag and topic extraction. Hashtags are Weibo {@code #话题#} and Douyin/Bilibili {@code #tag} markers;
+ * topics are categories whose keywords occur in the text, most mentioned first.
+ */
+class TopicExtractor {
+    
+    private static final String RESOURCE = "classify/topics.txt";
+    private static final int MAX_HASHTAG_LENGTH = 40;
+    private static final int MAX_TOPICS = 3;
+    
+    private final Lexicon keywords = new Lexicon();
+    
+    TopicExtractor() {
+        Lexicon.readLines(RESOURCE, line -> {
+            int colon = line.indexOf(':');
+            String topic = line.substring(0, colon).strip();
+            for (String keyword : line.substring(colon + 1).split(",")) {
+                if (!keyword.isBlank()) {
+                    keywords.add(new Lexicon.Entry(keyword.strip(), Lexicon.Kind.KEYWORD, 1, topic));
+                }
+            }
+        });
+    }
+    
+    List<String> hashtags(String text) {
+        if (text == null || text.indexOf('#') < 0) {
+            return List.of();
+        }
+        Set<String> hashtags = new LinkedHashSet<>();
+        int i = 0;
+        while (i < text.length()) {
+            if (text.charAt(i) != '#') {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < text.length() && end - i <= MAX_HASHTAG_LENGTH && text.charAt(end) != '#'
+                    && !Character.isWhitespace(text.charAt(end))) {
+                end++;
+            }
+            if (end < text.length() && text.charAt(end) == '#' && end > i + 1) {
+                hashtags.add(text.substring(i + 1, end)); // #话题#
+                i = end + 1;
+            } else {
+                int wordEnd = i + 1;
+                while (wordEnd < end && (Character.isLetterOrDigit(text.charAt(wordEnd)) || text.charAt(wordEnd) == '_')) {
+                    wordEnd++;
+                }
+                if (wordEnd > i + 1) {
+                    hashtags.add(text.substring(i + 1, wordEnd)); // #tag
+                }
+                i = Math.max(wordEnd, i + 1);
+            }
+        }
+        return new ArrayList<>(hashtags);
+    }
+    
+    List<String> topics(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        Map<String, Integer> mentions = new HashMap<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            Lexicon.Entry entry = keywords.longestMatch(normalized, i);
+            if (entry == null) {
+                i++;
+            } else {
+                mentions.merge(entry.label(), 1, Integer::sum);
+                i += entry.term().length();
+            }
+        }
+        return mentions.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_TOPICS)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
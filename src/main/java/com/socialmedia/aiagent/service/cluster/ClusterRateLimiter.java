@@ -0,0 +1,83 @@
+package com.socialmedia.aiagent.service.cluster;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.PlatformRateWindow;
+import com.socialmedia.aiagent.repository.PlatformRateWindowRepository;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Fixed-window limit on upstream requests per platform, counted in the shared database so that all
+ * nodes together stay under {@code agent.cluster.requests-per-window}. A request that finds the window
+ * used up waits for the next one without holding a thread.
+ */
+@Component
+public class ClusterRateLimiter {
+    
+    private final PlatformRateWindowRepository repository;
+    private final PipelineMetrics pipelineMetrics;
+    private final AgentConfig.Cluster config;
+    private final Scheduler blockingScheduler;
+    
+    public ClusterRateLimiter(PlatformRateWindowRepository repository, PipelineMetrics pipelineMetrics,
+                              AgentConfig agentConfig, Scheduler blockingScheduler) {
+        this.repository = repository;
+        this.pipelineMetrics = pipelineMetrics;
+        this.config = agentConfig.getCluster();
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    /**
+     * Completes once this node may send one request to the platform; at once when clustering is off or
+     * the platform has no limit
+     */
+    public Mono<Void> acquire(String platform) {
+        Integer permits = config.getRequestsPerWindow().get(platform);
+        if (!config.getEnabled() || permits == null || permits <= 0) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt(platform, permits)
+                    .doOnSuccess(ignored -> pipelineMetrics.recordRateLimitWait(platform, System.nanoTime() - start));
+        });
+    }
+    
+    private Mono<Void> attempt(String platform, int permits) {
+        return Mono.fromCallable(() -> tryAcquire(platform, permits))
+                .subscribeOn(blockingScheduler)
+                .flatMap(wait -> wait.isZero() ? Mono.<Void>empty() : Mono.delay(wait).then(attempt(platform, permits)));
+    }
+    
+    /**
+     * Zero when a permit was taken, otherwise the time left in the current window
+     */
+    Duration tryAcquire(String platform, int permits) {
+        long windowMillis = config.getRateWindow().toMillis();
+        long nowMillis = System.currentTimeMillis();
+        long startMillis = nowMillis - nowMillis % windowMillis;
+        LocalDateTime windowStart = LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), ZoneOffset.UTC);
+        
+        if (repository.takePermit(platform, windowStart, permits) == 1
+                || repository.openWindow(platform, windowStart) == 1) {
+            return Duration.ZERO;
+        }
+        if (!repository.existsById(platform)) {
+            try {
+                repository.saveAndFlush(new PlatformRateWindow(platform, windowStart, 1));
+                return Duration.ZERO;
+            } catch (DataIntegrityViolationException e) {
+                return Duration.ofMillis(1); // another node created the row first; take a permit from it
+            }
+        }
+        return Duration.ofMillis(Math.max(1, startMillis + windowMillis - nowMillis));
+    }
+}
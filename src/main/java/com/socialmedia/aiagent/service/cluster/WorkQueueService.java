@@ -0,0 +1,168 @@
+package com.socialmedia.aiagent.service.cluster;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.WorkTask;
+import com.socialmedia.aiagent.model.WorkTaskStatus;
+import com.socialmedia.aiagent.model.WorkTaskType;
+import com.socialmedia.aiagent.repository.WorkTaskRepository;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The work table as seen by one node: queue tasks, lease them under this node's id, renew and finish
+ * the leases, and reclaim leases of nodes that stopped renewing.
+ */
+@Service
+@Slf4j
+public class WorkQueueService {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final WorkTaskRepository repository;
+    private final PipelineMetrics pipelineMetrics;
+    private final AgentConfig.Cluster config;
+    private final String nodeId;
+    
+    public WorkQueueService(WorkTaskRepository repository, PipelineMetrics pipelineMetrics, AgentConfig agentConfig) {
+        this.repository = repository;
+        this.pipelineMetrics = pipelineMetrics;
+        this.config = agentConfig.getCluster();
+        this.nodeId = config.getNodeId() != null && !config.getNodeId().isBlank()
+                ? config.getNodeId() : defaultNodeId();
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Queue a task unless the same one is already pending or running. Returns whether it was queued.
+     */
+    public boolean enqueue(WorkTaskType type, String platform, String subject, Integer itemLimit) {
+        String dedupeKey = type + ":" + platform + ":" + subject;
+        if (repository.existsByDedupeKey(dedupeKey)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            repository.saveAndFlush(WorkTask.builder()
+                    .taskType(type)
+                    .platform(platform)
+                    .subject(subject)
+                    .itemLimit(itemLimit)
+                    .dedupeKey(dedupeKey)
+                    .status(WorkTaskStatus.PENDING)
+                    .attempts(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // another node queued it between the check and the insert
+        }
+    }
+    
+    /**
+     * Lease up to {@code max} pending tasks, oldest first. Candidates are shuffled so nodes polling at the
+     * same moment mostly try different rows instead of all racing for the first one.
+     */
+    public List<WorkTask> lease(int max) {
+        List<Long> candidates = new ArrayList<>(repository.findPendingIds(PageRequest.of(0, max * 4)));
+        Collections.shuffle(candidates);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(config.getLeaseDuration());
+        List<Long> claimed = new ArrayList<>();
+        for (Long id : candidates) {
+            if (claimed.size() >= max) {
+                break;
+            }
+            if (repository.claim(id, nodeId, expiresAt, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed.isEmpty() ? List.of() : repository.findAllById(claimed);
+    }
+    
+    /**
+     * Extend this node's lease on a running task; false once the lease was lost to the reaper
+     */
+    public boolean renew(Long taskId) {
+        return repository.renew(taskId, nodeId, LocalDateTime.now().plus(config.getLeaseDuration())) == 1;
+    }
+    
+    public void complete(WorkTask task) {
+        if (repository.complete(task.getId(), nodeId, LocalDateTime.now()) == 1) {
+            pipelineMetrics.recordWorkTask(task.getTaskType().name(), "done");
+        } else {
+            log.warn("Finished {} task {} after its lease was reclaimed", task.getTaskType(), task.getId());
+            pipelineMetrics.recordWorkTask(task.getTaskType().name(), "lease_lost");
+        }
+    }
+    
+    /**
+     * Give a failed task back for another attempt, on any node, or fail it for good after the last one
+     */
+    public void fail(WorkTask task, Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.retry(task.getId(), nodeId, message, config.getMaxAttempts(), now) == 1) {
+            log.info("{} task {} failed, queued again: {}", task.getTaskType(), task.getId(), message);
+            pipelineMetrics.recordWorkTask(task.getTaskType().name(), "retried");
+        } else if (repository.fail(task.getId(), nodeId, message, now) == 1) {
+            log.warn("{} task {} failed after {} attempts: {}", task.getTaskType(), task.getId(), config.getMaxAttempts(), message);
+            pipelineMetrics.recordWorkTask(task.getTaskType().name(), "failed");
+        }
+    }
+    
+    /**
+     * Requeue tasks whose lease expired, fail those out of attempts and drop old finished ones.
+     * Safe to run on every node at once.
+     */
+    public void reapExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int reclaimed = repository.reclaimExpired(now, config.getMaxAttempts());
+        int failed = repository.failExpired(now, config.getMaxAttempts());
+        repository.deleteDoneBefore(now.minus(config.getDoneRetention()));
+        if (reclaimed > 0 || failed > 0) {
+            log.info("Reclaimed {} expired leases, failed {} tasks out of attempts", reclaimed, failed);
+            pipelineMetrics.recordExpiredLeases(reclaimed, failed);
+        }
+    }
+    
+    public Map<WorkTaskStatus, Long> countByStatus() {
+        Map<WorkTaskStatus, Long> counts = new EnumMap<>(WorkTaskStatus.class);
+        for (WorkTaskStatus status : WorkTaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : repository.countByStatus()) {
+            counts.put((WorkTaskStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
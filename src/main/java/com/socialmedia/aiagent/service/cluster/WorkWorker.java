@@ -0,0 +1,111 @@
+package com.socialmedia.aiagent.service.cluster;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.WorkTask;
+import com.socialmedia.aiagent.model.dto.ContentAnalysisRequest;
+import com.socialmedia.aiagent.service.SocialMediaAgentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs leased work on this node while {@code agent.cluster.enabled} is set: polls for pending tasks up to
+ * its concurrency, renews the leases of running ones, and reclaims expired leases of nodes that died.
+ * Model calls of leased work queue as background inference, behind interactive requests.
+ */
+@Component
+@Slf4j
+public class WorkWorker {
+    
+    private final WorkQueueService workQueue;
+    private final SocialMediaAgentService agentService;
+    private final AgentConfig.Cluster config;
+    private final Scheduler blockingScheduler;
+    private final Map<Long, Disposable> running = new ConcurrentHashMap<>();
+    
+    public WorkWorker(WorkQueueService workQueue, SocialMediaAgentService agentService, AgentConfig agentConfig,
+                      Scheduler blockingScheduler) {
+        this.workQueue = workQueue;
+        this.agentService = agentService;
+        this.config = agentConfig.getCluster();
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    @Scheduled(fixedDelayString = "${agent.cluster.poll-interval:PT2S}")
+    public void poll() {
+        int free = config.getWorkerConcurrency() - running.size();
+        if (!config.getEnabled() || free <= 0) {
+            return;
+        }
+        for (WorkTask task : workQueue.lease(free)) {
+            log.info("Leased {} task {} ({})", task.getTaskType(), task.getId(), task.getSubject());
+            start(task);
+        }
+    }
+    
+    /**
+     * Renew the lease of every running task; work whose lease was already reclaimed is cancelled, since
+     * another node may be running it now
+     */
+    @Scheduled(fixedDelayString = "${agent.cluster.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        running.forEach((taskId, work) -> {
+            if (!workQueue.renew(taskId)) {
+                log.warn("Lost the lease on task {}, cancelling it", taskId);
+                running.remove(taskId);
+                work.dispose();
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${agent.cluster.reaper-interval:PT30S}")
+    public void reap() {
+        if (config.getEnabled()) {
+            workQueue.reapExpired();
+        }
+    }
+    
+    public int getRunning() {
+        return running.size();
+    }
+    
+    private void start(WorkTask task) {
+        Mono<?> work = switch (task.getTaskType()) {
+            case FETCH -> agentService.analyzeBloggerContent(ContentAnalysisRequest.builder()
+                    .platform(task.getPlatform())
+                    .bloggerIdentifier(task.getSubject())
+                    .limit(task.getItemLimit() != null ? task.getItemLimit() : config.getDefaultFetchLimit())
+                    .includeAnalysis(true)
+                    .background(true)
+                    .build());
+            case ANALYZE -> agentService.reanalyzeContent(Long.valueOf(task.getSubject()));
+        };
+        // registered before subscribing, so a task that finishes at once is not left behind as running
+        Disposable.Swap handle = Disposables.swap();
+        running.put(task.getId(), handle);
+        handle.update(work
+                .publishOn(blockingScheduler) // finishing writes to the database
+                .subscribe(
+                    result -> { },
+                    error -> finish(task, error),
+                    () -> finish(task, null)));
+    }
+    
+    private void finish(WorkTask task, Throwable error) {
+        if (running.remove(task.getId()) == null) {
+            return; // cancelled after losing the lease
+        }
+        if (error == null) {
+            workQueue.complete(task);
+        } else {
+            workQueue.fail(task, error);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.socialmedia.aiagent.service.engagement;
+
+import java.util.Arrays;
+
+/**
+ * Decoded engagement snapshots held in parallel primitive arrays, ordered by time
+ */
+public class EngagementPoints {
+    
+    private long[] times;
+    private long[] likes;
+    private long[] comments;
+    private long[] shares;
+    private long[] views;
+    private int size;
+    
+    public EngagementPoints(int capacity) {
+        int initial = Math.max(capacity, 4);
+        times = new long[initial];
+        likes = new long[initial];
+        comments = new long[initial];
+        shares = new long[initial];
+        views = new long[initial];
+    }
+    
+    public void add(long time, long likeCount, long commentCount, long shareCount, long viewCount) {
+        if (size == times.length) {
+            int grown = size * 2;
+            times = Arrays.copyOf(times, grown);
+            likes = Arrays.copyOf(likes, grown);
+            comments = Arrays.copyOf(comments, grown);
+            shares = Arrays.copyOf(shares, grown);
+            views = Arrays.copyOf(views, grown);
+        }
+        times[size] = time;
+        likes[size] = likeCount;
+        comments[size] = commentCount;
+        shares[size] = shareCount;
+        views[size] = viewCount;
+        size++;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long time(int index) {
+        return times[index];
+    }
+    
+    public long likes(int index) {
+        return likes[index];
+    }
+    
+    public long comments(int index) {
+        return comments[index];
+    }
+    
+    public long shares(int index) {
+        return shares[index];
+    }
+    
+    public long views(int index) {
+        return views[index];
+    }
+    
+    /**
+     * Keep every point newer than {@code rawSince}, the last point of each hour back to {@code hourlySince}
+     * and the last point of each day before that. Counters are cumulative, so the last point of a bucket
+     * preserves the curve. The first point is always kept so growth since the first fetch stays visible.
+     */
+    public EngagementPoints downsample(long rawSince, long hourlySince) {
+        EngagementPoints kept = new EngagementPoints(size);
+        for (int i = 0; i < size; i++) {
+            boolean last = i == size - 1;
+            if (i == 0 || last || times[i] >= rawSince
+                    || bucketOf(times[i], rawSince, hourlySince) != bucketOf(times[i + 1], rawSince, hourlySince)) {
+                kept.add(times[i], likes[i], comments[i], shares[i], views[i]);
+            }
+        }
+        return kept;
+    }
+    
+    private static long bucketOf(long time, long rawSince, long hourlySince) {
+        if (time >= rawSince) {
+            return Long.MAX_VALUE - time; // raw points are never merged
+        }
+        return time >= hourlySince ? Math.floorDiv(time, 3600L) : -1 - Math.floorDiv(time, 86400L);
+    }
+}
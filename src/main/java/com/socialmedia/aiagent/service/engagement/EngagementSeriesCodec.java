@@ -0,0 +1,88 @@
+package com.socialmedia.aiagent.service.engagement;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Packs engagement snapshots as consecutive points of five zigzag varints: the time delta in seconds and
+ * the deltas of likes, comments, shares and views from the previous point (the first point is relative to zero).
+ * Steady counters cost one byte each, so a typical snapshot takes 5-12 bytes.
+ */
+public final class EngagementSeriesCodec {
+    
+    private EngagementSeriesCodec() {
+    }
+    
+    public static byte[] encode(EngagementPoints points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points.size() * 8);
+        long time = 0, likes = 0, comments = 0, shares = 0, views = 0;
+        for (int i = 0; i < points.size(); i++) {
+            writePoint(out, points.time(i) - time, points.likes(i) - likes, points.comments(i) - comments,
+                points.shares(i) - shares, points.views(i) - views);
+            time = points.time(i);
+            likes = points.likes(i);
+            comments = points.comments(i);
+            shares = points.shares(i);
+            views = points.views(i);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Append one point to already encoded data, given the last point it holds
+     */
+    public static byte[] append(byte[] data, long lastTime, long lastLikes, long lastComments, long lastShares, long lastViews,
+                                long time, long likes, long comments, long shares, long views) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 16);
+        out.writeBytes(data);
+        writePoint(out, time - lastTime, likes - lastLikes, comments - lastComments, shares - lastShares, views - lastViews);
+        return out.toByteArray();
+    }
+    
+    public static EngagementPoints decode(byte[] data, int expectedPoints) {
+        EngagementPoints points = new EngagementPoints(expectedPoints);
+        int[] position = {0};
+        long time = 0, likes = 0, comments = 0, shares = 0, views = 0;
+        while (position[0] < data.length) {
+            time += readVarLong(data, position);
+            likes += readVarLong(data, position);
+            comments += readVarLong(data, position);
+            shares += readVarLong(data, position);
+            views += readVarLong(data, position);
+            points.add(time, likes, comments, shares, views);
+        }
+        return points;
+    }
+    
+    private static void writePoint(ByteArrayOutputStream out, long timeDelta, long likesDelta, long commentsDelta,
+                                   long sharesDelta, long viewsDelta) {
+        writeVarLong(out, timeDelta);
+        writeVarLong(out, likesDelta);
+        writeVarLong(out, commentsDelta);
+        writeVarLong(out, sharesDelta);
+        writeVarLong(out, viewsDelta);
+    }
+    
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+    
+    private static long readVarLong(byte[] data, int[] position) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position[0] >= data.length || shift > 63) {
+                throw new IllegalStateException("Corrupt engagement series data");
+            }
+            b = data[position[0]++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
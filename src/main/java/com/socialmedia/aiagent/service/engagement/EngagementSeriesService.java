@@ -0,0 +1,254 @@
+package com.socialmedia.aiagent.service.engagement;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.EngagementSeries;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.EngagementCurve;
+import com.socialmedia.aiagent.repository.EngagementSeriesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only engagement snapshots, one packed series per content, with periodic downsampling of old points
+ */
+@Service
+@Slf4j
+public class EngagementSeriesService {
+    
+    private final EngagementSeriesRepository repository;
+    private final AgentConfig.Engagement config;
+    private final TransactionTemplate transactionTemplate;
+    
+    public EngagementSeriesService(EngagementSeriesRepository repository, AgentConfig agentConfig,
+                                   PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.config = agentConfig.getEngagement();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Append one snapshot per stored content, joining the caller's transaction. Counters the platform
+     * did not report carry the previous value forward.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSnapshots(List<SocialMediaContent> contents, Instant fetchedAt) {
+        Map<Long, SocialMediaContent> byContentId = contents.stream()
+                .filter(content -> content.getId() != null)
+                .collect(Collectors.toMap(SocialMediaContent::getId, Function.identity(), (first, second) -> first));
+        if (byContentId.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, EngagementSeries> existing = repository.lockByContentIds(byContentId.keySet()).stream()
+                .collect(Collectors.toMap(EngagementSeries::getContentId, Function.identity()));
+        long time = fetchedAt.getEpochSecond();
+        
+        List<EngagementSeries> changed = new ArrayList<>(byContentId.size());
+        byContentId.forEach((contentId, content) -> {
+            EngagementSeries series = existing.get(contentId);
+            if (series == null) {
+                changed.add(newSeries(content, time));
+            } else if (time > series.getLastTime()) {
+                append(series, content, time);
+                changed.add(series);
+            }
+        });
+        repository.saveAll(changed);
+    }
+    
+    /**
+     * Growth curve of one content, or empty when it has no snapshots
+     */
+    @Transactional(readOnly = true)
+    public Optional<EngagementCurve> getContentCurve(Long contentId) {
+        return repository.findByContentId(contentId).map(series -> {
+            EngagementPoints points = EngagementSeriesCodec.decode(series.getPoints(), series.getPointCount());
+            int from = Math.max(0, points.size() - config.getMaxCurvePoints());
+            List<EngagementCurve.Point> curve = new ArrayList<>(points.size() - from);
+            for (int i = from; i < points.size(); i++) {
+                curve.add(toPoint(points, i, i > from ? i - 1 : -1));
+            }
+            return EngagementCurve.builder()
+                    .contentId(contentId)
+                    .platform(series.getPlatform())
+                    .bloggerName(series.getBloggerName())
+                    .seriesCount(1)
+                    .points(curve)
+                    .build();
+        });
+    }
+    
+    /**
+     * Engagement summed over all of a blogger's contents at fixed bucket boundaries. Each content contributes
+     * its latest snapshot at or before the boundary.
+     */
+    @Transactional(readOnly = true)
+    public EngagementCurve getBloggerCurve(String platform, String bloggerName, int hours, int bucketHours) {
+        long bucket = Math.max(1, bucketHours) * 3600L;
+        long end = Instant.now().getEpochSecond();
+        int buckets = (int) Math.min(config.getMaxCurvePoints(), Math.max(1, Math.max(1, hours) * 3600L / bucket));
+        long start = end - (buckets - 1) * bucket;
+        
+        long[] likes = new long[buckets];
+        long[] comments = new long[buckets];
+        long[] shares = new long[buckets];
+        long[] views = new long[buckets];
+        List<EngagementSeries> seriesList = repository.findByPlatformAndBloggerName(platform, bloggerName);
+        for (EngagementSeries series : seriesList) {
+            EngagementPoints points = EngagementSeriesCodec.decode(series.getPoints(), series.getPointCount());
+            int cursor = -1;
+            for (int b = 0; b < buckets; b++) {
+                long boundary = start + b * bucket;
+                while (cursor + 1 < points.size() && points.time(cursor + 1) <= boundary) {
+                    cursor++;
+                }
+                if (cursor >= 0) {
+                    likes[b] += points.likes(cursor);
+                    comments[b] += points.comments(cursor);
+                    shares[b] += points.shares(cursor);
+                    views[b] += points.views(cursor);
+                }
+            }
+        }
+        
+        EngagementPoints totals = new EngagementPoints(buckets);
+        for (int b = 0; b < buckets; b++) {
+            totals.add(start + b * bucket, likes[b], comments[b], shares[b], views[b]);
+        }
+        List<EngagementCurve.Point> curve = new ArrayList<>(buckets);
+        for (int b = 0; b < buckets; b++) {
+            curve.add(toPoint(totals, b, b - 1));
+        }
+        return EngagementCurve.builder()
+                .platform(platform)
+                .bloggerName(bloggerName)
+                .seriesCount(seriesList.size())
+                .points(curve)
+                .build();
+    }
+    
+    /**
+     * Downsample points that fell out of the raw and hourly retention windows. Each series is compacted
+     * at most once per day, in chunks that each run in their own transaction.
+     */
+    @Scheduled(fixedDelayString = "${agent.engagement.compaction-interval:PT1H}",
+               initialDelayString = "${agent.engagement.compaction-interval:PT1H}")
+    public void compact() {
+        long now = Instant.now().getEpochSecond();
+        long rawSince = now - config.getRawRetention().toSeconds();
+        long hourlySince = now - config.getHourlyRetention().toSeconds();
+        long due = now - 86400L;
+        
+        long afterId = 0;
+        int compacted = 0;
+        while (true) {
+            List<Long> ids = repository.findIdsDueForCompaction(due, afterId, PageRequest.of(0, config.getCompactionBatchSize()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            try {
+                compacted += transactionTemplate.execute(status -> compactChunk(ids, now, rawSince, hourlySince));
+            } catch (Exception e) {
+                log.warn("Failed to compact engagement series after id {}: {}", afterId, e.getMessage());
+            }
+        }
+        if (compacted > 0) {
+            log.info("Compacted {} engagement series", compacted);
+        }
+    }
+    
+    private int compactChunk(List<Long> ids, long now, long rawSince, long hourlySince) {
+        List<EngagementSeries> seriesList = repository.lockByIds(ids);
+        for (EngagementSeries series : seriesList) {
+            EngagementPoints points = EngagementSeriesCodec.decode(series.getPoints(), series.getPointCount());
+            EngagementPoints kept = points.downsample(rawSince, hourlySince);
+            if (kept.size() < points.size()) {
+                series.setPoints(EngagementSeriesCodec.encode(kept));
+                series.setPointCount(kept.size());
+            }
+            series.setCompactedAt(now);
+        }
+        return seriesList.size();
+    }
+    
+    private EngagementSeries newSeries(SocialMediaContent content, long time) {
+        long likes = orZero(content.getLikes());
+        long comments = orZero(content.getComments());
+        long shares = orZero(content.getShares());
+        long views = orZero(content.getViews());
+        EngagementPoints first = new EngagementPoints(1);
+        first.add(time, likes, comments, shares, views);
+        return EngagementSeries.builder()
+                .contentId(content.getId())
+                .platform(content.getPlatform())
+                .bloggerName(content.getBloggerName())
+                .pointCount(1)
+                .firstTime(time)
+                .lastTime(time)
+                .lastLikes(likes)
+                .lastComments(comments)
+                .lastShares(shares)
+                .lastViews(views)
+                .points(EngagementSeriesCodec.encode(first))
+                .compactedAt(time)
+                .build();
+    }
+    
+    private void append(EngagementSeries series, SocialMediaContent content, long time) {
+        long likes = orLast(content.getLikes(), series.getLastLikes());
+        long comments = orLast(content.getComments(), series.getLastComments());
+        long shares = orLast(content.getShares(), series.getLastShares());
+        long views = orLast(content.getViews(), series.getLastViews());
+        series.setPoints(EngagementSeriesCodec.append(series.getPoints(),
+            series.getLastTime(), series.getLastLikes(), series.getLastComments(), series.getLastShares(), series.getLastViews(),
+            time, likes, comments, shares, views));
+        series.setPointCount(series.getPointCount() + 1);
+        series.setLastTime(time);
+        series.setLastLikes(likes);
+        series.setLastComments(comments);
+        series.setLastShares(shares);
+        series.setLastViews(views);
+    }
+    
+    private EngagementCurve.Point toPoint(EngagementPoints points, int index, int previous) {
+        EngagementCurve.Point.PointBuilder point = EngagementCurve.Point.builder()
+                .time(LocalDateTime.ofInstant(Instant.ofEpochSecond(points.time(index)), ZoneId.systemDefault()))
+                .likes(points.likes(index))
+                .comments(points.comments(index))
+                .shares(points.shares(index))
+                .views(points.views(index));
+        if (previous >= 0 && points.time(index) > points.time(previous)) {
+            double hours = (points.time(index) - points.time(previous)) / 3600.0;
+            point.likesPerHour((points.likes(index) - points.likes(previous)) / hours)
+                 .commentsPerHour((points.comments(index) - points.comments(previous)) / hours)
+                 .sharesPerHour((points.shares(index) - points.shares(previous)) / hours)
+                 .viewsPerHour((points.views(index) - points.views(previous)) / hours);
+        }
+        return point.build();
+    }
+    
+    private static long orZero(Integer value) {
+        return value != null ? value : 0L;
+    }
+    
+    private static long orLast(Integer value, long last) {
+        return value != null ? value : last;
+    }
+}
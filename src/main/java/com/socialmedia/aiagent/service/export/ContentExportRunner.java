@@ -0,0 +1,78 @@
+package com.socialmedia.aiagent.service.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Command-line export: started with {@code --export=<file>}, the application runs without its web server
+ * and scheduled jobs, writes the export to the file and exits. Not to stdout, which carries the log. The
+ * startup jobs, such as the trend warm-up and the full-text rebuild, wait for the application to be ready,
+ * which happens only after this runner, so they never start either. {@code --platform}, {@code --since} and
+ * {@code --until} filter as on GET /export, e.g.
+ * <pre>
+ * java -jar ai-social-agent.jar --export=weibo.csv.gz --platform=weibo --since=2024-06-01T00:00:00
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentExportRunner implements ApplicationRunner {
+    
+    public static final String EXPORT_OPTION = "export";
+    
+    private final ContentExporter exporter;
+    private final ConfigurableApplicationContext context;
+    
+    public static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + EXPORT_OPTION) || arg.startsWith("--" + EXPORT_OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(EXPORT_OPTION)) {
+            return;
+        }
+        String target = option(args, EXPORT_OPTION);
+        if (target == null) {
+            throw new IllegalArgumentException("--export needs a file name");
+        }
+        String since = option(args, "since");
+        String until = option(args, "until");
+        ContentExporter.Filter filter = new ContentExporter.Filter(option(args, "platform"),
+            since != null ? LocalDateTime.parse(since) : null,
+            until != null ? LocalDateTime.parse(until) : null);
+        
+        int exitCode = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(target)))) {
+            long rows = exporter.export(filter, out);
+            log.info("Wrote {} contents to {}", rows, target);
+        } catch (Exception e) {
+            log.error("Export failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code)); // pool threads would keep the JVM up
+    }
+    
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() || values.get(0).isBlank() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,196 @@
+package com.socialmedia.aiagent.service.export;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes social_media_content as gzipped CSV straight from a JDBC cursor: rows are fetched
+ * {@code fetchSize} at a time and written as they arrive, so memory stays flat however many rows match.
+ * Rows come in table order, not sorted, so the database needs no sort to start streaming.
+ */
+@Component
+@Slf4j
+public class ContentExporter {
+    
+    public static final String CONTENT_TYPE = "application/gzip";
+    
+    private static final String[] COLUMNS = {
+        "id", "platform", "blogger_name", "blogger_url", "title", "content", "content_url",
+        "likes", "comments", "shares", "views", "sentiment", "sentiment_score", "topics", "hashtags",
+        "mentions", "links", "ai_analysis", "analysis_version", "publish_time", "created_at", "updated_at"
+    };
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final AgentConfig.Export config;
+    
+    /**
+     * Rows to export; every null bound is left out. The time range is on publish time, end exclusive.
+     */
+    public record Filter(String platform, LocalDateTime since, LocalDateTime until) {
+    }
+    
+    public ContentExporter(DataSource dataSource, AgentConfig agentConfig) {
+        this.config = agentConfig.getExport();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    /**
+     * Write the matching rows to {@code out} as one gzip member and return how many there were. The
+     * transaction is read-only so that drivers which only stream inside one, like PostgreSQL, use a cursor.
+     */
+    @Transactional(readOnly = true)
+    public long export(Filter filter, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS))
+                .append(" FROM social_media_content WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        if (filter.platform() != null) {
+            sql.append(" AND platform = ?");
+            parameters.add(filter.platform());
+        }
+        if (filter.since() != null) {
+            sql.append(" AND publish_time >= ?");
+            parameters.add(Timestamp.valueOf(filter.since()));
+        }
+        if (filter.until() != null) {
+            sql.append(" AND publish_time < ?");
+            parameters.add(Timestamp.valueOf(filter.until()));
+        }
+        
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(config.getCompressionLevel());
+            }
+        };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeRecord(writer, COLUMNS);
+        long rows;
+        try {
+            rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                streamRows(connection, sql.toString(), parameters, writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // the client went away mid-export
+        }
+        writer.flush();
+        gzip.finish();
+        log.info("Exported {} contents {} in {} ms", rows, filter, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+    
+    /**
+     * H2 materializes a whole result before returning the first row unless lazy execution is on, so it is
+     * switched on for this query only
+     */
+    private long streamRows(Connection connection, String sql, List<Object> parameters, Writer writer) throws SQLException {
+        boolean h2 = connection.getMetaData().getDatabaseProductName().equals("H2");
+        if (h2) {
+            execute(connection, "SET LAZY_QUERY_EXECUTION TRUE");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(config.getFetchSize());
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            long rows = 0;
+            String[] values = new String[COLUMNS.length];
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    readRow(resultSet, values);
+                    writeRecord(writer, values);
+                    rows++;
+                }
+            }
+            return rows;
+        } finally {
+            if (h2) {
+                execute(connection, "SET LAZY_QUERY_EXECUTION FALSE"); // the connection goes back to the pool
+            }
+        }
+    }
+    
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+    
+    private static void readRow(ResultSet resultSet, String[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = resultSet.getObject(i + 1);
+            if (value instanceof Timestamp timestamp) {
+                values[i] = timestamp.toLocalDateTime().toString(); // ISO-8601, no zone, as stored
+            } else if (value instanceof java.sql.Clob) {
+                values[i] = resultSet.getString(i + 1);
+            } else {
+                values[i] = value != null ? value.toString() : null;
+            }
+        }
+    }
+    
+    /**
+     * RFC 4180: a field with a comma, quote or line break is quoted and its quotes doubled; null is empty
+     */
+    private static void writeRecord(Writer writer, String[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (needsQuotes(value)) {
+                    writer.write('"');
+                    for (int c = 0; c < value.length(); c++) {
+                        char ch = value.charAt(c);
+                        if (ch == '"') {
+                            writer.write('"');
+                        }
+                        writer.write(ch);
+                    }
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
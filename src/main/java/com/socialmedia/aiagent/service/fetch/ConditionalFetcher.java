@@ -0,0 +1,237 @@
+package com.socialmedia.aiagent.service.fetch;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.FetchValidator;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.repository.FetchValidatorRepository;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches platform pages conditionally. The last response of each endpoint is kept in fetch_validator:
+ * its ETag and Last-Modified go out as If-None-Match and If-Modified-Since, and a SHA-256 of its body
+ * recognizes a repeat when the platform ignores them. An unchanged page is not parsed; its contents are
+ * read back from the store and returned as an {@link FetchedPage#unchanged unchanged} page. Validators are
+ * written when a page is fetched, before its contents are saved, so a 304 for a page whose contents did
+ * not all reach the store is fetched again without them.
+ */
+@Component
+@Slf4j
+public class ConditionalFetcher {
+    
+    private static final String URL_SEPARATOR = "\n";
+    
+    private final FetchValidatorRepository validatorRepository;
+    private final SocialMediaContentRepository contentRepository;
+    private final PipelineMetrics pipelineMetrics;
+    private final Scheduler blockingScheduler;
+    private final boolean enabled;
+    
+    private record Response(HttpStatus status, HttpHeaders headers, String body) {
+    }
+    
+    public ConditionalFetcher(FetchValidatorRepository validatorRepository, SocialMediaContentRepository contentRepository,
+                              PipelineMetrics pipelineMetrics, AgentConfig agentConfig, Scheduler blockingScheduler) {
+        this.validatorRepository = validatorRepository;
+        this.contentRepository = contentRepository;
+        this.pipelineMetrics = pipelineMetrics;
+        this.blockingScheduler = blockingScheduler;
+        this.enabled = agentConfig.getConditionalFetch().getEnabled();
+    }
+    
+    /**
+     * Send the request, timed as the fetch stage, and parse the body, timed as the parse stage, unless the
+     * page is the one last seen at this URL and limit; then return the stored contents of that page instead
+     */
+    public Mono<FetchedPage> fetch(String platform, String url, int limit, WebClient.RequestHeadersSpec<?> request,
+                                   Function<String, List<SocialMediaContent>> parser) {
+        if (!enabled) {
+            Mono<String> body = request.retrieve().bodyToMono(String.class);
+            return pipelineMetrics.timeStage(platform, PipelineMetrics.STAGE_FETCH, body)
+                    .flatMap(text -> pipelineMetrics.timeParse(platform, () -> parser.apply(text)).collectList())
+                    .map(FetchedPage::changed)
+                    .defaultIfEmpty(FetchedPage.empty());
+        }
+        String endpoint = url + "#" + limit;
+        return Mono.fromCallable(() -> validatorRepository.findById(endpoint))
+                .subscribeOn(blockingScheduler)
+                .flatMap(previous -> {
+                    FetchValidator validator = previous.orElse(null);
+                    return exchange(platform, withValidators(request, validator))
+                            .flatMap(fetched -> handle(platform, endpoint, validator, fetched, request, parser));
+                })
+                .defaultIfEmpty(FetchedPage.empty());
+    }
+    
+    /**
+     * Send the request, timed as the fetch stage; a 304 comes back without a body
+     */
+    private Mono<Response> exchange(String platform, WebClient.RequestHeadersSpec<?> request) {
+        Mono<Response> response = request.exchangeToMono(exchange -> {
+            HttpStatus status = HttpStatus.resolve(exchange.statusCode().value());
+            if (status == HttpStatus.NOT_MODIFIED) {
+                return exchange.releaseBody().thenReturn(new Response(status, exchange.headers().asHttpHeaders(), null));
+            }
+            if (exchange.statusCode().isError()) {
+                return exchange.createError();
+            }
+            return exchange.bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .map(body -> new Response(status, exchange.headers().asHttpHeaders(), body));
+        });
+        return pipelineMetrics.timeStage(platform, PipelineMetrics.STAGE_FETCH, response);
+    }
+    
+    private WebClient.RequestHeadersSpec<?> withValidators(WebClient.RequestHeadersSpec<?> request, FetchValidator validator) {
+        if (validator == null) {
+            return request;
+        }
+        if (validator.getEtag() != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, validator.getEtag());
+        }
+        if (validator.getLastModified() != null) {
+            request = request.header(HttpHeaders.IF_MODIFIED_SINCE, validator.getLastModified());
+        }
+        return request;
+    }
+    
+    private static WebClient.RequestHeadersSpec<?> withoutValidators(WebClient.RequestHeadersSpec<?> request) {
+        return request.headers(headers -> {
+            headers.remove(HttpHeaders.IF_NONE_MATCH);
+            headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        });
+    }
+    
+    private Mono<FetchedPage> handle(String platform, String endpoint, FetchValidator validator, Response response,
+                                     WebClient.RequestHeadersSpec<?> request,
+                                     Function<String, List<SocialMediaContent>> parser) {
+        if (response.status() == HttpStatus.NOT_MODIFIED) {
+            if (validator == null) {
+                return Mono.just(FetchedPage.empty()); // nothing was asked to be validated; treat as an empty page
+            }
+            return storedContents(validator)
+                    .flatMap(stored -> {
+                        if (stored.size() < urls(validator).size()) {
+                            // some rows were never saved, so the stored page is short; fetch the body again
+                            log.debug("Stored page of {} is missing {} contents, fetching it whole",
+                                endpoint, urls(validator).size() - stored.size());
+                            return forget(endpoint)
+                                    .then(exchange(platform, withoutValidators(request)))
+                                    .flatMap(fetched -> handle(platform, endpoint, null, fetched, request, parser));
+                        }
+                        pipelineMetrics.recordCacheLookup("upstream_unchanged", true);
+                        return markChecked(endpoint, validator, response).thenReturn(FetchedPage.unchanged(stored));
+                    });
+        }
+        
+        String fingerprint = sha256(response.body());
+        Mono<List<SocialMediaContent>> unchanged = validator != null && fingerprint.equals(validator.getBodySha256())
+            ? storedContents(validator).filter(stored -> stored.size() == urls(validator).size())
+            : Mono.empty();
+        return unchanged
+                .flatMap(stored -> {
+                    pipelineMetrics.recordCacheLookup("upstream_unchanged", true);
+                    return markChecked(endpoint, validator, response).thenReturn(FetchedPage.unchanged(stored));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    pipelineMetrics.recordCacheLookup("upstream_unchanged", false);
+                    return pipelineMetrics.timeParse(platform, () -> parser.apply(response.body()))
+                            .collectList()
+                            .flatMap(parsed -> remember(platform, endpoint, response, fingerprint, parsed)
+                                    .thenReturn(FetchedPage.changed(parsed)));
+                }));
+    }
+    
+    /**
+     * Stored contents of the remembered page, in page order; fewer than remembered if some were never saved
+     */
+    private Mono<List<SocialMediaContent>> storedContents(FetchValidator validator) {
+        return Mono.fromCallable(() -> {
+            List<String> urls = urls(validator);
+            Map<String, SocialMediaContent> byUrl = contentRepository
+                    .findByPlatformAndContentUrlIn(validator.getPlatform(), urls).stream()
+                    .collect(Collectors.toMap(SocialMediaContent::getContentUrl, Function.identity(), (first, second) -> first));
+            return urls.stream().map(byUrl::get).filter(Objects::nonNull).toList();
+        }).subscribeOn(blockingScheduler);
+    }
+    
+    /**
+     * Keep the validators of a page whose contents can be found again by URL; an empty page is usually an
+     * error payload and is not worth remembering
+     */
+    private Mono<Void> remember(String platform, String endpoint, Response response, String fingerprint,
+                                List<SocialMediaContent> parsed) {
+        List<String> urls = parsed.stream().map(SocialMediaContent::getContentUrl).filter(Objects::nonNull).toList();
+        if (urls.isEmpty() || urls.size() < parsed.size()) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                validatorRepository.save(FetchValidator.builder()
+                        .endpoint(endpoint)
+                        .platform(platform)
+                        .etag(response.headers().getETag())
+                        .lastModified(response.headers().getFirst(HttpHeaders.LAST_MODIFIED))
+                        .bodySha256(fingerprint)
+                        .contentUrls(String.join(URL_SEPARATOR, urls))
+                        .checkedAt(now)
+                        .changedAt(now)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Validators of {} written concurrently by another node", endpoint);
+            }
+        }).subscribeOn(blockingScheduler).then();
+    }
+    
+    /**
+     * A 304 may leave out validators the server sent before, so missing ones are kept; a repeated 200 body
+     * may come with validators for the first time
+     */
+    private Mono<Void> markChecked(String endpoint, FetchValidator validator, Response response) {
+        String etag = response.headers().getETag();
+        String lastModified = response.headers().getFirst(HttpHeaders.LAST_MODIFIED);
+        return Mono.fromRunnable(() -> validatorRepository.markChecked(endpoint,
+                    etag != null ? etag : validator.getEtag(),
+                    lastModified != null ? lastModified : validator.getLastModified(),
+                    LocalDateTime.now()))
+                .subscribeOn(blockingScheduler).then();
+    }
+    
+    private Mono<Void> forget(String endpoint) {
+        return Mono.fromRunnable(() -> validatorRepository.deleteById(endpoint))
+                .subscribeOn(blockingScheduler).then();
+    }
+    
+    private static List<String> urls(FetchValidator validator) {
+        return List.of(validator.getContentUrls().split(URL_SEPARATOR));
+    }
+    
+    static String sha256(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
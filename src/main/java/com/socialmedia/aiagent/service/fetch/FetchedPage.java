@@ -0,0 +1,24 @@
+package com.socialmedia.aiagent.service.fetch;
+
+import com.socialmedia.aiagent.model.SocialMediaContent;
+
+import java.util.List;
+
+/**
+ * Contents of one fetched platform page. An unchanged page is the one last seen at the same URL and limit;
+ * its contents were read back from the store as they were saved, analysis included or not.
+ */
+public record FetchedPage(List<SocialMediaContent> contents, boolean unchanged) {
+    
+    public static FetchedPage changed(List<SocialMediaContent> contents) {
+        return new FetchedPage(contents, false);
+    }
+    
+    public static FetchedPage unchanged(List<SocialMediaContent> contents) {
+        return new FetchedPage(contents, true);
+    }
+    
+    public static FetchedPage empty() {
+        return new FetchedPage(List.of(), false);
+    }
+}
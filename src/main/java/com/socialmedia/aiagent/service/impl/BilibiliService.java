@@ -5,16 +5,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.socialmedia.aiagent.config.SocialMediaConfig;
 import com.socialmedia.aiagent.model.SocialMediaContent;
 import com.socialmedia.aiagent.service.SocialMediaService;
+import com.socialmedia.aiagent.service.fetch.ConditionalFetcher;
+import com.socialmedia.aiagent.service.fetch.FetchedPage;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 @Service
@@ -24,6 +28,7 @@ public class BilibiliService implements SocialMediaService {
     
     private final WebClient webClient;
     private final SocialMediaConfig socialMediaConfig;
+    private final ConditionalFetcher conditionalFetcher;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     private static final Pattern BILIBILI_USER_PATTERN = Pattern.compile("^(\\d+|space\\.bilibili\\.com/\\d+)$");
@@ -34,12 +39,12 @@ public class BilibiliService implements SocialMediaService {
     }
     
     @Override
-    public Flux<SocialMediaContent> fetchBloggerContent(String bloggerIdentifier, int limit) {
+    public Mono<FetchedPage> fetchBloggerContent(String bloggerIdentifier, int limit) {
         return getBloggerUID(bloggerIdentifier)
-                .flatMapMany(uid -> fetchUserVideos(uid, limit))
+                .flatMap(uid -> fetchUserVideos(uid, limit))
                 .onErrorResume(error -> {
                     log.error("Error fetching Bilibili content for {}: {}", bloggerIdentifier, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
@@ -75,6 +80,7 @@ public class BilibiliService implements SocialMediaService {
         return webClient.get()
                 .uri(url)
                 .header("User-Agent", socialMediaConfig.getBilibili().getUserAgent())
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform())
                 .retrieve()
                 .bodyToMono(String.class)
                 .map(this::parseJson)
@@ -85,28 +91,33 @@ public class BilibiliService implements SocialMediaService {
                 });
     }
     
-    private Flux<SocialMediaContent> fetchUserVideos(String uid, int limit) {
+    private Mono<FetchedPage> fetchUserVideos(String uid, int limit) {
         String url = socialMediaConfig.getBilibili().getBaseUrl() + "/x/space/arc/search?mid=" + uid + "&ps=" + Math.min(limit, 50);
         
-        return webClient.get()
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
                 .uri(url)
                 .header("User-Agent", socialMediaConfig.getBilibili().getUserAgent())
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(this::parseJson)
-                .flatMapMany(response -> {
-                    JsonNode videos = response.path("data").path("list").path("vlist");
-                    return Flux.fromIterable(videos)
-                            .cast(JsonNode.class)
-                            .take(limit)
-                            .map(video -> convertToSocialMediaContent(video, uid));
-                })
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform());
+        
+        return conditionalFetcher.fetch(getPlatform(), url, limit, request, json -> parseVideos(json, uid, limit))
                 .onErrorResume(error -> {
                     log.warn("Failed to fetch Bilibili videos for UID {}: {}", uid, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
+    List<SocialMediaContent> parseVideos(String json, String uid, int limit) {
+        JsonNode videos = parseJson(json).path("data").path("list").path("vlist");
+        List<SocialMediaContent> contents = new ArrayList<>();
+        for (JsonNode video : videos) {
+            if (contents.size() >= limit) {
+                break;
+            }
+            contents.add(convertToSocialMediaContent(video, uid));
+        }
+        return contents;
+    }
+    
     private SocialMediaContent convertToSocialMediaContent(JsonNode video, String uid) {
         try {
             return SocialMediaContent.builder()
@@ -3,6 +3,9 @@ package com.socialmedia.aiagent.service.impl;
 import com.socialmedia.aiagent.config.SocialMediaConfig;
 import com.socialmedia.aiagent.model.SocialMediaContent;
 import com.socialmedia.aiagent.service.SocialMediaService;
+import com.socialmedia.aiagent.service.fetch.ConditionalFetcher;
+import com.socialmedia.aiagent.service.fetch.FetchedPage;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
@@ -11,10 +14,11 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,6 +29,7 @@ public class DouyinService implements SocialMediaService {
     
     private final WebClient webClient;
     private final SocialMediaConfig socialMediaConfig;
+    private final ConditionalFetcher conditionalFetcher;
     
     private static final Pattern DOUYIN_USER_PATTERN = Pattern.compile("^(https?://)?(www\\.)?douyin\\.com/user/([\\w\\-]+).*$");
     private static final Pattern DOUYIN_SHORT_PATTERN = Pattern.compile("^@([\\w\\-]+)$");
@@ -35,12 +40,12 @@ public class DouyinService implements SocialMediaService {
     }
     
     @Override
-    public Flux<SocialMediaContent> fetchBloggerContent(String bloggerIdentifier, int limit) {
+    public Mono<FetchedPage> fetchBloggerContent(String bloggerIdentifier, int limit) {
         return getUserUrl(bloggerIdentifier)
-                .flatMapMany(userUrl -> fetchUserPage(userUrl, limit))
+                .flatMap(userUrl -> fetchUserPage(userUrl, limit))
                 .onErrorResume(error -> {
                     log.error("Error fetching Douyin content for {}: {}", bloggerIdentifier, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
@@ -64,7 +69,7 @@ public class DouyinService implements SocialMediaService {
         
         if (DOUYIN_SHORT_PATTERN.matcher(bloggerIdentifier).matches()) {
             String username = bloggerIdentifier.substring(1);
-            return Mono.just("https://www.douyin.com/user/" + username);
+            return Mono.just(socialMediaConfig.getDouyin().getBaseUrl() + "/user/" + username);
         }
         
         return Mono.error(new IllegalArgumentException("Invalid Douyin blogger identifier: " + bloggerIdentifier));
@@ -74,6 +79,7 @@ public class DouyinService implements SocialMediaService {
         return webClient.get()
                 .uri(userUrl)
                 .header("User-Agent", socialMediaConfig.getDouyin().getUserAgent())
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform())
                 .retrieve()
                 .bodyToMono(String.class)
                 .map(html -> {
@@ -95,20 +101,21 @@ public class DouyinService implements SocialMediaService {
                 });
     }
     
-    private Flux<SocialMediaContent> fetchUserPage(String userUrl, int limit) {
-        return webClient.get()
+    private Mono<FetchedPage> fetchUserPage(String userUrl, int limit) {
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
                 .uri(userUrl)
                 .header("User-Agent", socialMediaConfig.getDouyin().getUserAgent())
-                .retrieve()
-                .bodyToMono(String.class)
-                .flatMapMany(html -> parseUserContent(html, userUrl, limit))
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform());
+        
+        return conditionalFetcher.fetch(getPlatform(), userUrl, limit, request, html -> parseUserContent(html, userUrl, limit))
                 .onErrorResume(error -> {
                     log.warn("Failed to fetch Douyin user page {}: {}", userUrl, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
-    private Flux<SocialMediaContent> parseUserContent(String html, String userUrl, int limit) {
+    List<SocialMediaContent> parseUserContent(String html, String userUrl, int limit) {
+        List<SocialMediaContent> contents = new ArrayList<>();
         try {
             Document doc = Jsoup.parse(html);
             
@@ -127,20 +134,17 @@ public class DouyinService implements SocialMediaService {
             // For production use, you would need to use a JavaScript-capable browser automation tool
             
             Elements videoElements = doc.select("a[href*='/video/']");
-            final String finalBloggerName = bloggerName;
-            
-            return Flux.fromIterable(videoElements)
-                    .take(limit)
-                    .map(element -> createDouyinContent(element, finalBloggerName, userUrl))
-                    .onErrorResume(error -> {
-                        log.warn("Error parsing Douyin content: {}", error.getMessage());
-                        return Flux.empty();
-                    });
+            for (Element element : videoElements) {
+                if (contents.size() >= limit) {
+                    break;
+                }
+                contents.add(createDouyinContent(element, bloggerName, userUrl));
+            }
             
         } catch (Exception e) {
             log.error("Error parsing Douyin HTML: {}", e.getMessage());
-            return Flux.empty();
         }
+        return contents;
     }
     
     private SocialMediaContent createDouyinContent(Element element, String bloggerName, String userUrl) {
@@ -5,18 +5,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.socialmedia.aiagent.config.SocialMediaConfig;
 import com.socialmedia.aiagent.model.SocialMediaContent;
 import com.socialmedia.aiagent.service.SocialMediaService;
+import com.socialmedia.aiagent.service.classify.ContentClassifier;
+import com.socialmedia.aiagent.service.fetch.ConditionalFetcher;
+import com.socialmedia.aiagent.service.fetch.FetchedPage;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 @Service
@@ -26,10 +28,12 @@ public class WeiboService implements SocialMediaService {
     
     private final WebClient webClient;
     private final SocialMediaConfig socialMediaConfig;
+    private final ConditionalFetcher conditionalFetcher;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     private static final Pattern WEIBO_USER_PATTERN = Pattern.compile("^(https?://)?(m\\.|www\\.)?weibo\\.(cn|com)/(u/)?([\\w\\-]+).*$");
     private static final Pattern WEIBO_UID_PATTERN = Pattern.compile("^\\d+$");
+    private static final int TITLE_LENGTH = 100;
     
     @Override
     public String getPlatform() {
@@ -37,12 +41,12 @@ public class WeiboService implements SocialMediaService {
     }
     
     @Override
-    public Flux<SocialMediaContent> fetchBloggerContent(String bloggerIdentifier, int limit) {
+    public Mono<FetchedPage> fetchBloggerContent(String bloggerIdentifier, int limit) {
         return getUserId(bloggerIdentifier)
-                .flatMapMany(userId -> fetchUserWeibos(userId, limit))
+                .flatMap(userId -> fetchUserWeibos(userId, limit))
                 .onErrorResume(error -> {
                     log.error("Error fetching Weibo content for {}: {}", bloggerIdentifier, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
@@ -90,6 +94,7 @@ public class WeiboService implements SocialMediaService {
                 .uri(url)
                 .header("User-Agent", socialMediaConfig.getWeibo().getUserAgent())
                 .header("Referer", "https://m.weibo.cn/")
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform())
                 .retrieve()
                 .bodyToMono(String.class)
                 .map(this::parseJson)
@@ -100,30 +105,36 @@ public class WeiboService implements SocialMediaService {
                 });
     }
     
-    private Flux<SocialMediaContent> fetchUserWeibos(String userId, int limit) {
+    private Mono<FetchedPage> fetchUserWeibos(String userId, int limit) {
         String url = socialMediaConfig.getWeibo().getBaseUrl() + "/api/container/getIndex?type=uid&value=" + userId;
         
-        return webClient.get()
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
                 .uri(url)
                 .header("User-Agent", socialMediaConfig.getWeibo().getUserAgent())
                 .header("Referer", "https://m.weibo.cn/")
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(this::parseJson)
-                .flatMapMany(response -> {
-                    JsonNode cards = response.path("data").path("cards");
-                    return Flux.fromIterable(cards)
-                            .cast(JsonNode.class)
-                            .filter(card -> card.path("card_type").asInt() == 9) // Weibo posts
-                            .take(limit)
-                            .map(card -> convertToSocialMediaContent(card.path("mblog"), userId));
-                })
+                .attribute(PipelineMetrics.PLATFORM_ATTRIBUTE, getPlatform());
+        
+        return conditionalFetcher.fetch(getPlatform(), url, limit, request, json -> parseWeibos(json, userId, limit))
                 .onErrorResume(error -> {
                     log.warn("Failed to fetch Weibo posts for user ID {}: {}", userId, error.getMessage());
-                    return Flux.empty();
+                    return Mono.just(FetchedPage.empty());
                 });
     }
     
+    List<SocialMediaContent> parseWeibos(String json, String userId, int limit) {
+        JsonNode cards = parseJson(json).path("data").path("cards");
+        List<SocialMediaContent> contents = new ArrayList<>();
+        for (JsonNode card : cards) {
+            if (contents.size() >= limit) {
+                break;
+            }
+            if (card.path("card_type").asInt() == 9) { // Weibo posts
+                contents.add(convertToSocialMediaContent(card.path("mblog"), userId));
+            }
+        }
+        return contents;
+    }
+    
     private SocialMediaContent convertToSocialMediaContent(JsonNode mblog, String userId) {
         try {
             // Parse publish time
@@ -139,16 +150,17 @@ public class WeiboService implements SocialMediaService {
                 log.debug("Could not parse Weibo publish time: {}", e.getMessage());
             }
             
-            // Clean HTML content
-            String rawText = mblog.path("text").asText();
-            String cleanText = cleanHtmlContent(rawText);
+            WeiboTextScanner.Result text = WeiboTextScanner.scan(mblog.path("text").asText());
             
             return SocialMediaContent.builder()
                     .platform(getPlatform())
                     .bloggerName(mblog.path("user").path("screen_name").asText("Unknown"))
                     .bloggerUrl("https://m.weibo.cn/u/" + userId)
-                    .title(truncateTitle(cleanText))
-                    .content(cleanText)
+                    .title(WeiboTextScanner.truncate(text.text(), TITLE_LENGTH))
+                    .content(text.text())
+                    .hashtags(joinOrNull(text.hashtags(), ContentClassifier.LIST_SEPARATOR))
+                    .mentions(joinOrNull(text.mentions(), ContentClassifier.LIST_SEPARATOR))
+                    .links(joinOrNull(text.links(), " "))
                     .contentUrl("https://m.weibo.cn/status/" + mblog.path("id").asText())
                     .likes(mblog.path("attitudes_count").asInt(0))
                     .comments(mblog.path("comments_count").asInt(0))
@@ -168,20 +180,15 @@ public class WeiboService implements SocialMediaService {
         }
     }
     
-    private String cleanHtmlContent(String htmlContent) {
-        try {
-            Document doc = Jsoup.parse(htmlContent);
-            return doc.text();
-        } catch (Exception e) {
-            return htmlContent;
-        }
+    /**
+     * Plain text of a post's HTML {@code text} field
+     */
+    String cleanHtmlContent(String htmlContent) {
+        return WeiboTextScanner.scan(htmlContent).text();
     }
     
-    private String truncateTitle(String content) {
-        if (content.length() <= 100) {
-            return content;
-        }
-        return content.substring(0, 97) + "...";
+    private static String joinOrNull(List<String> values, String separator) {
+        return values.isEmpty() ? null : String.join(separator, values);
     }
     
     private JsonNode parseJson(String jsonString) {
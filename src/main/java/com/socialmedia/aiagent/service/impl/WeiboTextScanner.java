@@ -0,0 +1,271 @@
+package com.socialmedia.aiagent.service.impl;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One pass over the HTML of a Weibo post's {@code text} field. Tags are stripped, entities decoded and
+ * whitespace collapsed the way Jsoup's {@code text()} does, emoticon images are kept as their {@code [心]}
+ * alt text, and the links Weibo wraps around {@code #话题#}, {@code @mentions} and URLs are collected on the way.
+ */
+final class WeiboTextScanner {
+    
+    private static final String ELLIPSIS = "...";
+    private static final int MAX_ENTITY_LENGTH = 10;
+    private static final Map<String, Integer> ENTITIES = Map.of(
+        "nbsp", (int) ' ', "amp", (int) '&', "lt", (int) '<', "gt", (int) '>', "quot", (int) '"', "apos", (int) '\'');
+    
+    record Result(String text, List<String> hashtags, List<String> mentions, List<String> links) {
+    }
+    
+    private final String html;
+    private final StringBuilder text;
+    private final Set<String> hashtags = new LinkedHashSet<>();
+    private final Set<String> mentions = new LinkedHashSet<>();
+    private final Set<String> links = new LinkedHashSet<>();
+    private boolean pendingSpace;
+    private int anchorStart = -1; // text offset where the open <a> began
+    private String anchorTarget;
+    
+    private WeiboTextScanner(String html) {
+        this.html = html;
+        this.text = new StringBuilder(html.length() / 2); // markup is most of a post's HTML
+    }
+    
+    static Result scan(String html) {
+        if (html == null || html.isEmpty()) {
+            return new Result("", List.of(), List.of(), List.of());
+        }
+        return new WeiboTextScanner(html).run();
+    }
+    
+    /**
+     * Cut text longer than {@code maxLength} chars, ellipsis included, without splitting a surrogate pair,
+     * a base character from its combining marks, or an emoji sequence joined by ZWJ, modifiers or flags
+     */
+    static String truncate(String text, int maxLength) {
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        int end = maxLength - ELLIPSIS.length();
+        while (end > 0 && !isGraphemeBoundary(text, end)) {
+            end--;
+        }
+        return text.substring(0, end) + ELLIPSIS;
+    }
+    
+    private Result run() {
+        int i = 0;
+        int length = html.length();
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int end = tagEnd(i + 1);
+                if (end < 0) {
+                    append(c);
+                    i++;
+                } else {
+                    tag(i + 1, end);
+                    i = end + 1;
+                }
+            } else if (c == '&') {
+                i = entity(i);
+            } else {
+                append(c);
+                i++;
+            }
+        }
+        return new Result(text.toString(), List.copyOf(hashtags), List.copyOf(mentions), List.copyOf(links));
+    }
+    
+    /**
+     * Index of the '>' closing a tag whose name starts at {@code from}, skipping quoted attribute values;
+     * -1 when this '<' does not open a tag
+     */
+    private int tagEnd(int from) {
+        if (from >= html.length() || !(Character.isLetter(html.charAt(from)) || html.charAt(from) == '/')) {
+            return -1;
+        }
+        char quote = 0;
+        for (int i = from; i < html.length(); i++) {
+            char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void tag(int from, int end) {
+        boolean closing = html.charAt(from) == '/';
+        int nameStart = closing ? from + 1 : from;
+        int nameEnd = nameStart;
+        while (nameEnd < end && Character.isLetterOrDigit(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (isName(nameStart, nameEnd, "a")) {
+            if (closing) {
+                closeAnchor();
+            } else {
+                anchorStart = text.length();
+                String href = attribute(nameEnd, end, "href");
+                anchorTarget = href != null && href.startsWith("http") ? href : attribute(nameEnd, end, "data-url");
+            }
+        } else if (isName(nameStart, nameEnd, "img")) {
+            String alt = attribute(nameEnd, end, "alt");
+            if (alt != null && alt.length() > 2 && alt.startsWith("[") && alt.endsWith("]")) {
+                alt.chars().forEach(this::append); // emoticon, e.g. [微笑], which the classifier reads as a cue
+            }
+        } else if (isName(nameStart, nameEnd, "br") || isName(nameStart, nameEnd, "p")
+                || isName(nameStart, nameEnd, "div") || isName(nameStart, nameEnd, "li")) {
+            pendingSpace = text.length() > 0;
+        }
+    }
+    
+    private boolean isName(int start, int end, String name) {
+        return end - start == name.length() && html.regionMatches(true, start, name, 0, name.length());
+    }
+    
+    /**
+     * The anchor's text decides what it is: {@code #话题#} search links, {@code @name} profile links, or a URL
+     */
+    private void closeAnchor() {
+        if (anchorStart < 0) {
+            return;
+        }
+        String label = text.substring(anchorStart).strip();
+        if (label.length() > 2 && label.charAt(0) == '#' && label.charAt(label.length() - 1) == '#') {
+            hashtags.add(label.substring(1, label.length() - 1));
+        } else if (label.length() > 1 && label.charAt(0) == '@') {
+            mentions.add(label.substring(1));
+        } else if (anchorTarget != null && anchorTarget.startsWith("http")) {
+            links.add(anchorTarget.replace("&amp;", "&"));
+        }
+        anchorStart = -1;
+        anchorTarget = null;
+    }
+    
+    /**
+     * Value of a quoted or bare attribute inside the tag, or null
+     */
+    private String attribute(int from, int end, String name) {
+        int i = from;
+        while (i < end) {
+            int at = html.indexOf(name, i);
+            if (at < 0 || at >= end) {
+                return null;
+            }
+            int equals = at + name.length();
+            if (Character.isWhitespace(html.charAt(at - 1)) && equals < end && html.charAt(equals) == '=') {
+                int start = equals + 1;
+                char quote = start < end ? html.charAt(start) : 0;
+                if (quote == '"' || quote == '\'') {
+                    int close = html.indexOf(quote, start + 1);
+                    return html.substring(start + 1, close < 0 || close > end ? end : close);
+                }
+                int stop = start;
+                while (stop < end && !Character.isWhitespace(html.charAt(stop)) && html.charAt(stop) != '/') {
+                    stop++;
+                }
+                return html.substring(start, stop);
+            }
+            i = at + name.length();
+        }
+        return null;
+    }
+    
+    /**
+     * Decode a named or numeric entity at {@code at} and return the index after it; an unknown one is kept as text
+     */
+    private int entity(int at) {
+        int semicolon = html.indexOf(';', at + 1);
+        if (semicolon > at + 1 && semicolon - at <= MAX_ENTITY_LENGTH) {
+            String name = html.substring(at + 1, semicolon);
+            Integer codePoint = ENTITIES.get(name);
+            if (codePoint == null && name.charAt(0) == '#') {
+                codePoint = numericEntity(name);
+            }
+            if (codePoint != null) {
+                appendCodePoint(codePoint);
+                return semicolon + 1;
+            }
+        }
+        append('&');
+        return at + 1;
+    }
+    
+    private static Integer numericEntity(String name) {
+        try {
+            boolean hex = name.length() > 1 && (name.charAt(1) == 'x' || name.charAt(1) == 'X');
+            int codePoint = hex ? Integer.parseInt(name.substring(2), 16) : Integer.parseInt(name.substring(1));
+            return Character.isValidCodePoint(codePoint) ? codePoint : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void appendCodePoint(int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            append((char) codePoint);
+        } else {
+            flushSpace();
+            text.appendCodePoint(codePoint);
+        }
+    }
+    
+    private void append(int c) {
+        if (Character.isWhitespace(c) || c == '\u00a0') {
+            pendingSpace = text.length() > 0;
+            return;
+        }
+        flushSpace();
+        text.append((char) c);
+    }
+    
+    private void flushSpace() {
+        if (pendingSpace) {
+            text.append(' ');
+            pendingSpace = false;
+        }
+    }
+    
+    private static boolean isGraphemeBoundary(String text, int index) {
+        char c = text.charAt(index);
+        if (Character.isLowSurrogate(c) && Character.isHighSurrogate(text.charAt(index - 1))) {
+            return false;
+        }
+        int codePoint = text.codePointAt(index);
+        int type = Character.getType(codePoint);
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.COMBINING_SPACING_MARK
+                || codePoint == 0x200D // zero-width joiner
+                || (codePoint >= 0xFE00 && codePoint <= 0xFE0F) // variation selectors
+                || (codePoint >= 0x1F3FB && codePoint <= 0x1F3FF) // skin tone modifiers
+                || (codePoint >= 0xE0020 && codePoint <= 0xE007F)) { // emoji tag sequences
+            return false;
+        }
+        int before = text.codePointBefore(index);
+        if (before == 0x200D) {
+            return false;
+        }
+        if (isRegionalIndicator(codePoint) && isRegionalIndicator(before)) {
+            int preceding = 0; // flags are pairs of regional indicators; only cut between pairs
+            for (int i = index; i > 0 && isRegionalIndicator(text.codePointBefore(i)); i -= 2) {
+                preceding++;
+            }
+            return preceding % 2 == 0;
+        }
+        return true;
+    }
+    
+    private static boolean isRegionalIndicator(int codePoint) {
+        return codePoint >= 0x1F1E6 && codePoint <= 0x1F1FF;
+    }
+}
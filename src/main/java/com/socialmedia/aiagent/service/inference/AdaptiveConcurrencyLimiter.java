@@ -0,0 +1,204 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter driven by observed inference latency.
+ * The limit grows additively while latency stays close to the best latency seen in the
+ * current window and shrinks multiplicatively once latency inflates or calls fail.
+ * Freed slots are handed to waiters in the order the {@link InferenceScheduler} picks.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final int SAMPLE_WINDOW = 50;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final InferenceScheduler scheduler;
+    
+    private double limit;
+    private int inFlight;
+    private long minLatencyNanos;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double latencyTolerance, double backoffRatio, AgentConfig.Priorities priorities) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.scheduler = new InferenceScheduler(priorities);
+    }
+    
+    /**
+     * Wait up to the given timeout for an in-flight slot, queued in the given priority class
+     */
+    public boolean acquire(InferencePriority priority, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            InferenceScheduler.Waiter waiter = scheduler.enqueue(priority, lock.newCondition(), System.nanoTime());
+            dispatch();
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        scheduler.remove(waiter);
+                        return false;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    release(priority);
+                } else {
+                    scheduler.remove(waiter);
+                }
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Release a slot after a successful call and adjust the limit from its latency
+     */
+    public void onSuccess(InferencePriority priority, long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            recordLatency(latencyNanos);
+            
+            if (latencyNanos > minLatencyNanos * latencyTolerance) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (saturated) {
+                // Only grow when the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            release(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Release a slot after a failed call and back off
+     */
+    public void onFailure(InferencePriority priority) {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            release(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Release a slot without feeding a sample into the limit
+     */
+    public void onIgnored(InferencePriority priority) {
+        lock.lock();
+        try {
+            release(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Callers currently blocked in {@link #acquire} waiting for a slot
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return scheduler.queued();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getWaiting(InferencePriority priority) {
+        lock.lock();
+        try {
+            return scheduler.queued(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight(InferencePriority priority) {
+        lock.lock();
+        try {
+            return scheduler.inFlight(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void release(InferencePriority priority) {
+        inFlight--;
+        scheduler.release(priority);
+        dispatch();
+    }
+    
+    /**
+     * Hand free slots to the waiters the scheduler picks, waking only those
+     */
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (inFlight < (int) limit) {
+            InferenceScheduler.Waiter next = scheduler.next(now);
+            if (next == null) {
+                return;
+            }
+            inFlight++;
+            next.condition.signal();
+        }
+    }
+    
+    private void recordLatency(long latencyNanos) {
+        if (minLatencyNanos == 0 || latencyNanos < minLatencyNanos) {
+            minLatencyNanos = latencyNanos;
+        }
+        windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+        
+        // Re-baseline periodically so a model reload or prompt change doesn't pin an obsolete minimum
+        if (++windowSamples >= SAMPLE_WINDOW) {
+            minLatencyNanos = windowMinLatencyNanos;
+            windowMinLatencyNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.socialmedia.aiagent.service.inference;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker. While open, calls are rejected without touching the model;
+ * after the open period a single probe call decides whether to close again.
+ */
+public class InferenceCircuitBreaker {
+    
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+    
+    public InferenceCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+    
+    /**
+     * Whether a call may proceed right now
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+    
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+    
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Give back a permission that was granted but never used for a call
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    /**
+     * Time until the breaker will allow a probe call again
+     */
+    public synchronized Duration getRetryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAtNanos);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+}
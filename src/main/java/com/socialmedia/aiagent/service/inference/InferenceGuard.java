@@ -0,0 +1,155 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps blocking model calls with a circuit breaker and an adaptive concurrency limit, queued by
+ * {@link InferencePriority}. Any rejection or failure surfaces as {@link InferenceUnavailableException}.
+ */
+@Slf4j
+public class InferenceGuard {
+    
+    private final String name;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final InferenceCircuitBreaker circuitBreaker;
+    private final AgentConfig.Priorities priorities;
+    private final Duration acquireTimeout;
+    private volatile ObjLongConsumer<InferencePriority> queueWaitListener = (priority, nanos) -> { };
+    
+    public InferenceGuard(String name, AgentConfig.Inference settings) {
+        this.name = name;
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                settings.getInitialConcurrency(),
+                settings.getMinConcurrency(),
+                settings.getMaxConcurrency(),
+                settings.getLatencyTolerance(),
+                settings.getBackoffRatio(),
+                settings.getPriorities());
+        this.circuitBreaker = new InferenceCircuitBreaker(
+                settings.getFailureThreshold(),
+                settings.getOpenDuration());
+        this.priorities = settings.getPriorities();
+        this.acquireTimeout = settings.getAcquireTimeout();
+    }
+    
+    /**
+     * Run a blocking model call as interactive work
+     */
+    public <T> T execute(String operation, Supplier<T> call) {
+        return execute(operation, InferencePriority.INTERACTIVE, call);
+    }
+    
+    /**
+     * Run a blocking model call under the breaker and the concurrency limit, queued in its priority class
+     */
+    public <T> T execute(String operation, InferencePriority priority, Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new InferenceUnavailableException(
+                    "Inference circuit '" + name + "' is open", circuitBreaker.getRetryAfter());
+        }
+        
+        Duration timeout = acquireTimeout(priority);
+        long queued = System.nanoTime();
+        boolean acquired = acquirePermit(priority, timeout);
+        queueWaitListener.accept(priority, System.nanoTime() - queued);
+        if (!acquired) {
+            circuitBreaker.onIgnored();
+            throw new InferenceUnavailableException(
+                    "Inference concurrency limit reached for '" + name + "' (" + limiter.getLimit() + ")",
+                    timeout);
+        }
+        
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        T result = null;
+        RuntimeException failure = null;
+        try {
+            result = call.get();
+            succeeded = true;
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            // also on an Error, so the permit and a half-open probe are always returned
+            if (succeeded) {
+                limiter.onSuccess(priority, System.nanoTime() - start);
+                circuitBreaker.onSuccess();
+            } else {
+                limiter.onFailure(priority);
+                circuitBreaker.onFailure();
+            }
+        }
+        if (failure != null) {
+            log.warn("{} failed on '{}' (circuit {}, limit {}): {}",
+                operation, name, circuitBreaker.getState(), limiter.getLimit(), failure.getMessage());
+            throw new InferenceUnavailableException(
+                    operation + " failed: " + failure.getMessage(), circuitBreaker.getRetryAfter(), failure);
+        }
+        return result;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public InferenceCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    /**
+     * Time until an open circuit lets a probe call through; zero while calls may go ahead
+     */
+    public Duration getRetryAfter() {
+        return circuitBreaker.getRetryAfter();
+    }
+    
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+    
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+    
+    public int getQueued() {
+        return limiter.getWaiting();
+    }
+    
+    public int getQueued(InferencePriority priority) {
+        return limiter.getWaiting(priority);
+    }
+    
+    public int getInFlight(InferencePriority priority) {
+        return limiter.getInFlight(priority);
+    }
+    
+    /**
+     * Called with the time every call spent waiting for a slot, admitted or not
+     */
+    public void setQueueWaitListener(ObjLongConsumer<InferencePriority> queueWaitListener) {
+        this.queueWaitListener = queueWaitListener;
+    }
+    
+    private Duration acquireTimeout(InferencePriority priority) {
+        AgentConfig.PriorityClass priorityClass = switch (priority) {
+            case INTERACTIVE -> priorities.getInteractive();
+            case RECOMMENDATION -> priorities.getRecommendation();
+            case BACKGROUND -> priorities.getBackground();
+        };
+        return priorityClass.getAcquireTimeout() != null ? priorityClass.getAcquireTimeout() : acquireTimeout;
+    }
+    
+    private boolean acquirePermit(InferencePriority priority, Duration timeout) {
+        try {
+            return limiter.acquire(priority, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.socialmedia.aiagent.service.inference;
+
+/**
+ * Scheduling class of a model call. Callers put one in the Reactor context under {@link #CONTEXT_KEY};
+ * calls without one are interactive, except recommendations.
+ */
+public enum InferencePriority {
+    INTERACTIVE,
+    RECOMMENDATION,
+    BACKGROUND;
+    
+    public static final String CONTEXT_KEY = InferencePriority.class.getName();
+}
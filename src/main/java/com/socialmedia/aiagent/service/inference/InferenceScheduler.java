@@ -0,0 +1,123 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Decides which waiting call gets the next free concurrency slot, using weighted fair queuing across
+ * priority classes: each waiter is tagged max(virtual time, its class's last tag) + 1 / weight on
+ * arrival, and the lowest tag goes first, so a class with weight 8 gets eight slots for every one of a
+ * class with weight 1 while both have work queued. A class whose oldest waiter has waited longer than
+ * the class's max wait goes first regardless of weight, and a class at its in-flight cap is skipped.
+ * <p>
+ * Not thread-safe: {@link AdaptiveConcurrencyLimiter} calls it under its lock.
+ */
+class InferenceScheduler {
+    
+    static final class Waiter {
+        final InferencePriority priority;
+        final Condition condition;
+        final long enqueuedNanos;
+        final double tag;
+        boolean granted;
+        
+        private Waiter(InferencePriority priority, Condition condition, long enqueuedNanos, double tag) {
+            this.priority = priority;
+            this.condition = condition;
+            this.enqueuedNanos = enqueuedNanos;
+            this.tag = tag;
+        }
+    }
+    
+    private static final class PriorityClass {
+        final double weight;
+        final int maxInFlight;
+        final long maxWaitNanos;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        double lastTag;
+        int inFlight;
+        
+        PriorityClass(AgentConfig.PriorityClass settings) {
+            this.weight = Math.max(1, settings.getWeight());
+            this.maxInFlight = settings.getMaxInFlight() != null && settings.getMaxInFlight() > 0
+                    ? settings.getMaxInFlight() : Integer.MAX_VALUE;
+            this.maxWaitNanos = settings.getMaxWait().toNanos();
+        }
+    }
+    
+    private final Map<InferencePriority, PriorityClass> classes = new EnumMap<>(InferencePriority.class);
+    private double virtualTime;
+    
+    InferenceScheduler(AgentConfig.Priorities settings) {
+        classes.put(InferencePriority.INTERACTIVE, new PriorityClass(settings.getInteractive()));
+        classes.put(InferencePriority.RECOMMENDATION, new PriorityClass(settings.getRecommendation()));
+        classes.put(InferencePriority.BACKGROUND, new PriorityClass(settings.getBackground()));
+    }
+    
+    Waiter enqueue(InferencePriority priority, Condition condition, long nowNanos) {
+        PriorityClass priorityClass = classes.get(priority);
+        double tag = Math.max(virtualTime, priorityClass.lastTag) + 1.0 / priorityClass.weight;
+        priorityClass.lastTag = tag;
+        Waiter waiter = new Waiter(priority, condition, nowNanos, tag);
+        priorityClass.queue.addLast(waiter);
+        return waiter;
+    }
+    
+    /**
+     * Withdraw a waiter that gave up before it was granted a slot
+     */
+    void remove(Waiter waiter) {
+        classes.get(waiter.priority).queue.remove(waiter);
+    }
+    
+    /**
+     * Take the waiter that should run next and count it in flight, or null if none is eligible
+     */
+    Waiter next(long nowNanos) {
+        Waiter best = null;
+        long mostOverdue = 0;
+        for (PriorityClass priorityClass : classes.values()) {
+            Waiter head = priorityClass.queue.peekFirst();
+            if (head == null || priorityClass.inFlight >= priorityClass.maxInFlight) {
+                continue;
+            }
+            long overdue = nowNanos - head.enqueuedNanos - priorityClass.maxWaitNanos;
+            if (overdue > mostOverdue || (mostOverdue == 0 && (best == null || head.tag < best.tag))) {
+                best = head;
+                mostOverdue = Math.max(overdue, 0);
+            }
+        }
+        if (best != null) {
+            PriorityClass priorityClass = classes.get(best.priority);
+            priorityClass.queue.pollFirst();
+            priorityClass.inFlight++;
+            virtualTime = Math.max(virtualTime, best.tag);
+            best.granted = true;
+        }
+        return best;
+    }
+    
+    void release(InferencePriority priority) {
+        classes.get(priority).inFlight--;
+    }
+    
+    int queued(InferencePriority priority) {
+        return classes.get(priority).queue.size();
+    }
+    
+    int queued() {
+        int queued = 0;
+        for (PriorityClass priorityClass : classes.values()) {
+            queued += priorityClass.queue.size();
+        }
+        return queued;
+    }
+    
+    int inFlight(InferencePriority priority) {
+        return classes.get(priority).inFlight;
+    }
+}
@@ -0,0 +1,10 @@
+package com.socialmedia.aiagent.service.inference;
+
+/**
+ * Kinds of model call, each with its own model and options under {@code agent.calls}
+ */
+public enum InferenceTask {
+    ANALYSIS,
+    BATCH,
+    RECOMMENDATIONS
+}
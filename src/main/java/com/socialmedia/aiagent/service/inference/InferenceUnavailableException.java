@@ -0,0 +1,24 @@
+package com.socialmedia.aiagent.service.inference;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Raised when an LLM call is rejected or fails, so callers never mistake error text for analysis output
+ */
+@Getter
+public class InferenceUnavailableException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public InferenceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public InferenceUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,107 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.ollama.OllamaChatClient;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each kind of model call to a chat client preset with that kind's model and options. Kinds that
+ * resolve to the same model share one {@link InferenceGuard}, since they queue on the same runner.
+ * <p>
+ * Batch and recommendation calls fall back to the analysis model while their own model has at least
+ * {@code fallbackQueueDepth} calls waiting, so a backlog on the large model does not become user-facing
+ * latency. The fallback keeps the call's temperature and output cap but uses the analysis context
+ * size, which keeps the small model's runner loaded.
+ */
+@Slf4j
+public class ModelRouter {
+    
+    public record Route(InferenceTask task, String model, ChatClient chatClient, InferenceGuard guard, boolean fallback) {
+    }
+    
+    private final Map<InferenceTask, Route> routes = new EnumMap<>(InferenceTask.class);
+    private final Map<InferenceTask, Route> fallbacks = new EnumMap<>(InferenceTask.class);
+    private final Map<String, InferenceGuard> guards = new LinkedHashMap<>();
+    private final int fallbackQueueDepth;
+    
+    public ModelRouter(OllamaApi ollamaApi, String defaultModel, AgentConfig.Calls calls, AgentConfig.Inference inference) {
+        this.fallbackQueueDepth = calls.getFallbackQueueDepth();
+        for (InferenceTask task : InferenceTask.values()) {
+            AgentConfig.ModelCall call = settings(calls, task);
+            String model = call.getModel() != null ? call.getModel() : defaultModel;
+            routes.put(task, new Route(task, model, chatClient(ollamaApi, model, call, call.getNumCtx()),
+                guard(model, inference), false));
+        }
+        
+        Route small = routes.get(InferenceTask.ANALYSIS);
+        for (InferenceTask task : List.of(InferenceTask.BATCH, InferenceTask.RECOMMENDATIONS)) {
+            if (calls.getFallbackEnabled() && !routes.get(task).model().equals(small.model())) {
+                AgentConfig.ModelCall call = settings(calls, task);
+                fallbacks.put(task, new Route(task, small.model(),
+                    chatClient(ollamaApi, small.model(), call, calls.getAnalysis().getNumCtx()), small.guard(), true));
+            }
+        }
+        routes.values().forEach(route -> log.info("{} calls use model {}{}", route.task(), route.model(),
+            fallbacks.containsKey(route.task()) ? ", falling back to " + small.model() + " when saturated" : ""));
+    }
+    
+    /**
+     * The route for the next call of a kind: its own model, or the analysis model while that one is
+     * backed up and the analysis model is not
+     */
+    public Route route(InferenceTask task) {
+        Route primary = routes.get(task);
+        Route fallback = fallbacks.get(task);
+        if (fallback != null
+                && primary.guard().getQueued() >= fallbackQueueDepth
+                && fallback.guard().getQueued() < fallbackQueueDepth
+                && fallback.guard().getCircuitState() != InferenceCircuitBreaker.State.OPEN) {
+            return fallback;
+        }
+        return primary;
+    }
+    
+    /**
+     * Route a kind of call always takes when its model has capacity
+     */
+    public Route primary(InferenceTask task) {
+        return routes.get(task);
+    }
+    
+    /**
+     * One guard per distinct model
+     */
+    public Collection<InferenceGuard> getGuards() {
+        return new ArrayList<>(guards.values());
+    }
+    
+    private InferenceGuard guard(String model, AgentConfig.Inference inference) {
+        return guards.computeIfAbsent(model, name -> new InferenceGuard("ollama-" + name, inference));
+    }
+    
+    private static ChatClient chatClient(OllamaApi ollamaApi, String model, AgentConfig.ModelCall call, Integer numCtx) {
+        return new OllamaChatClient(ollamaApi).withDefaultOptions(OllamaOptions.create()
+                .withModel(model)
+                .withTemperature(call.getTemperature())
+                .withNumCtx(numCtx)
+                .withNumPredict(call.getNumPredict()));
+    }
+    
+    private static AgentConfig.ModelCall settings(AgentConfig.Calls calls, InferenceTask task) {
+        return switch (task) {
+            case ANALYSIS -> calls.getAnalysis();
+            case BATCH -> calls.getBatch();
+            case RECOMMENDATIONS -> calls.getRecommendations();
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.socialmedia.aiagent.service.metrics;
+
+import com.socialmedia.aiagent.service.admission.AdmissionControl;
+import com.socialmedia.aiagent.service.inference.InferenceGuard;
+import com.socialmedia.aiagent.service.inference.InferencePriority;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the fetch, parse, inference and persistence stages.
+ * Stage timings are also added to the request's {@link StageTimings} when one is in the Reactor context.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+    
+    public static final String PLATFORM_ATTRIBUTE = "agent.platform";
+    
+    public static final String STAGE_FETCH = "fetch";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_CLASSIFY = "classify";
+    public static final String STAGE_INFERENCE = "inference";
+    public static final String STAGE_BATCH_INFERENCE = "batch_inference";
+    public static final String STAGE_PERSISTENCE = "persistence";
+    
+    private final MeterRegistry registry;
+    
+    /**
+     * Record a stage duration globally and on the current request
+     */
+    public void recordStage(String platform, String stage, long nanos, ContextView context) {
+        Timer.builder("agent.stage.duration")
+                .description("Time spent per pipeline stage")
+                .tag("platform", platform)
+                .tag("stage", stage)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        context.<StageTimings>getOrEmpty(StageTimings.CONTEXT_KEY)
+                .ifPresent(timings -> timings.record(stage, nanos));
+    }
+    
+    /**
+     * Time a reactive stage from subscription until it terminates
+     */
+    public <T> Mono<T> timeStage(String platform, String stage, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            return source.doOnTerminate(() -> recordStage(platform, stage, System.nanoTime() - start, context));
+        });
+    }
+    
+    /**
+     * Run a synchronous parser as the parse stage and emit its results
+     */
+    public <T> Flux<T> timeParse(String platform, Supplier<List<T>> parser) {
+        return Flux.deferContextual(context -> {
+            long start = System.nanoTime();
+            List<T> parsed = parser.get();
+            recordStage(platform, STAGE_PARSE, System.nanoTime() - start, context);
+            return Flux.fromIterable(parsed);
+        });
+    }
+    
+    public void recordInference(String operation, String platform, long nanos, boolean success,
+                                Long promptTokens, Long completionTokens) {
+        Timer.builder("agent.inference.duration")
+                .description("Latency of LLM calls")
+                .tag("operation", operation)
+                .tag("platform", platform)
+                .tag("outcome", success ? "success" : "failure")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        
+        if (promptTokens != null && promptTokens > 0) {
+            tokenSummary(operation, "prompt").record(promptTokens);
+        }
+        if (completionTokens != null && completionTokens > 0) {
+            tokenSummary(operation, "completion").record(completionTokens);
+        }
+    }
+    
+    /**
+     * Count a call moved off its configured model because that model's queue was saturated
+     */
+    public void recordModelFallback(String task, String fromModel, String toModel) {
+        registry.counter("agent.inference.fallbacks", "task", task, "from", fromModel, "to", toModel).increment();
+    }
+    
+    /**
+     * Count admission decisions per endpoint: admitted, quota_exceeded, overloaded or too_large
+     */
+    public void recordAdmission(String endpoint, String outcome) {
+        registry.counter("agent.admission.requests", "endpoint", endpoint, "outcome", outcome).increment();
+    }
+    
+    public void bindAdmission(AdmissionControl admissionControl) {
+        Gauge.builder("agent.admission.outstanding.cost", admissionControl, AdmissionControl::getOutstandingCost)
+                .description("Estimated model calls of admitted requests that have not finished")
+                .register(registry);
+    }
+    
+    /**
+     * Count how a leased work task ended on this node: done, retried, failed or lease_lost
+     */
+    public void recordWorkTask(String type, String outcome) {
+        registry.counter("agent.cluster.tasks", "type", type, "outcome", outcome).increment();
+    }
+    
+    /**
+     * Count contents of a re-analysis chunk that got a new analysis, and those that kept their old one
+     */
+    public void recordReanalysis(int analyzed, int failed) {
+        registry.counter("agent.reanalysis.contents", "outcome", "analyzed").increment(analyzed);
+        registry.counter("agent.reanalysis.contents", "outcome", "failed").increment(failed);
+    }
+    
+    /**
+     * Count leases of other (or stalled) nodes that expired, by whether the task was requeued or out of attempts
+     */
+    public void recordExpiredLeases(int requeued, int failed) {
+        registry.counter("agent.cluster.leases.expired", "outcome", "requeued").increment(requeued);
+        registry.counter("agent.cluster.leases.expired", "outcome", "failed").increment(failed);
+    }
+    
+    /**
+     * Time a node waited for a cluster-wide upstream rate-limit permit
+     */
+    public void recordRateLimitWait(String platform, long nanos) {
+        Timer.builder("agent.cluster.rate.limit.wait")
+                .description("Time spent waiting for a cluster-wide upstream request permit")
+                .tag("platform", platform)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordUpstreamResponse(String platform, String status) {
+        registry.counter("agent.upstream.responses", "platform", platform, "status", status).increment();
+    }
+    
+    public void recordCacheLookup(String cache, boolean hit) {
+        registry.counter("agent.cache.requests", "cache", cache, "result", hit ? "hit" : "miss").increment();
+    }
+    
+    /**
+     * Count where the local classifier routed a content: kept local, or escalated to the model
+     */
+    public void recordClassification(String platform, boolean escalated) {
+        registry.counter("agent.classifier.decisions", "platform", platform, "route", escalated ? "model" : "local").increment();
+    }
+    
+    public void recordBatchSize(String platform, int size) {
+        DistributionSummary.builder("agent.db.batch.size")
+                .description("Rows written per persistence batch")
+                .tag("platform", platform)
+                .register(registry)
+                .record(size);
+    }
+    
+    /**
+     * Expose the concurrency limit, in-flight calls, circuit state and per-priority queues of an inference guard
+     */
+    public void bindInferenceGuard(InferenceGuard guard) {
+        Gauge.builder("agent.inference.concurrency.limit", guard, InferenceGuard::getConcurrencyLimit)
+                .tag("guard", guard.getName())
+                .register(registry);
+        Gauge.builder("agent.inference.in.flight", guard, InferenceGuard::getInFlight)
+                .tag("guard", guard.getName())
+                .register(registry);
+        for (InferencePriority priority : InferencePriority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("agent.inference.queued", guard, g -> g.getQueued(priority))
+                    .description("Calls waiting for a concurrency slot")
+                    .tag("guard", guard.getName())
+                    .tag("priority", tag)
+                    .register(registry);
+            Gauge.builder("agent.inference.in.flight.by.priority", guard, g -> g.getInFlight(priority))
+                    .tag("guard", guard.getName())
+                    .tag("priority", tag)
+                    .register(registry);
+        }
+        guard.setQueueWaitListener((priority, nanos) -> Timer.builder("agent.inference.queue.wait")
+                .description("Time model calls waited for a concurrency slot")
+                .tag("guard", guard.getName())
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+        Gauge.builder("agent.inference.circuit.open", guard, g -> g.getCircuitState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .tag("guard", guard.getName())
+                .register(registry);
+    }
+    
+    private DistributionSummary tokenSummary(String operation, String type) {
+        return DistributionSummary.builder("agent.inference.tokens")
+                .description("Prompt and completion tokens per LLM call")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.socialmedia.aiagent.service.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request accumulator of time spent in each pipeline stage.
+ * Carried through the reactive pipeline in the Reactor context under {@link #CONTEXT_KEY}.
+ * Stages that run concurrently (per-item inference) report their summed time.
+ */
+public class StageTimings {
+    
+    public static final String CONTEXT_KEY = StageTimings.class.getName();
+    
+    private final Map<String, Long> nanosByStage = new LinkedHashMap<>();
+    
+    public synchronized void record(String stage, long nanos) {
+        nanosByStage.merge(stage, nanos, Long::sum);
+    }
+    
+    public synchronized Map<String, Long> toMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        nanosByStage.forEach((stage, nanos) -> millis.put(stage, nanos / 1_000_000));
+        return millis;
+    }
+}
@@ -0,0 +1,80 @@
+package com.socialmedia.aiagent.service.search;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.ContentsPersistedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps the vector index in step with the content table: new contents are embedded once their transaction
+ * commits, and a periodic backfill walks the table by id for anything missed (model down, older rows).
+ */
+@Component
+@Slf4j
+public class EmbeddingIndexer {
+    
+    private final EmbeddingService embeddingService;
+    private final SocialMediaContentRepository repository;
+    private final AgentConfig.Embedding config;
+    private long backfillCursor;
+    
+    public EmbeddingIndexer(EmbeddingService embeddingService, SocialMediaContentRepository repository,
+                            AgentConfig agentConfig) {
+        this.embeddingService = embeddingService;
+        this.repository = repository;
+        this.config = agentConfig.getEmbedding();
+    }
+    
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContentsPersisted(ContentsPersistedEvent event) {
+        if (!event.inserted().isEmpty()) {
+            int added = embeddingService.index(event.inserted());
+            log.debug("Indexed {} of {} new contents for semantic search", added, event.inserted().size());
+        }
+    }
+    
+    /**
+     * Embed up to {@code backfillBatchSize} stored contents that are not indexed yet, continuing from
+     * where the previous run stopped and starting over once the end of the table is reached
+     */
+    @Scheduled(fixedDelayString = "${agent.embedding.backfill-interval:PT30M}",
+               initialDelayString = "${agent.embedding.backfill-interval:PT30M}")
+    public synchronized void backfill() {
+        if (!embeddingService.isEnabled()) {
+            return;
+        }
+        int budget = config.getBackfillBatchSize();
+        int added = 0;
+        while (added < budget) {
+            List<Long> ids = repository.findIdsAfter(backfillCursor, PageRequest.of(0, budget));
+            if (ids.isEmpty()) {
+                backfillCursor = 0;
+                break;
+            }
+            List<Long> missing = ids.stream().filter(id -> !embeddingService.isIndexed(id)).toList();
+            if (!missing.isEmpty()) {
+                List<SocialMediaContent> contents = repository.findAllById(missing);
+                int indexed = embeddingService.index(contents);
+                added += indexed;
+                if (indexed < contents.size()) {
+                    break; // model unavailable; retry from the same cursor next run
+                }
+            }
+            backfillCursor = ids.get(ids.size() - 1);
+        }
+        embeddingService.flush();
+        if (added > 0) {
+            log.info("Backfilled {} contents into the vector index", added);
+        }
+    }
+}
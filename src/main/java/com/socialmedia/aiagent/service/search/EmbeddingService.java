@@ -0,0 +1,189 @@
+package com.socialmedia.aiagent.service.search;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.service.inference.InferenceGuard;
+import com.socialmedia.aiagent.service.inference.InferenceUnavailableException;
+import com.socialmedia.aiagent.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Embeds title and content with the Ollama embedding model and keeps the vectors in the {@link VectorIndex}.
+ * Embedding calls go through their own inference guard, so a missing embedding model cannot open the
+ * circuit of the chat model.
+ */
+@Service
+@Slf4j
+public class EmbeddingService {
+    
+    private static final String OPERATION = "embedding";
+    
+    private final EmbeddingClient embeddingClient;
+    private final VectorIndex vectorIndex;
+    private final PipelineMetrics pipelineMetrics;
+    private final AgentConfig.Embedding config;
+    private final InferenceGuard embeddingGuard;
+    private final Map<String, float[]> recent;
+    private final Scheduler blockingScheduler;
+    
+    public EmbeddingService(EmbeddingClient embeddingClient, VectorIndex vectorIndex,
+                            PipelineMetrics pipelineMetrics, AgentConfig agentConfig, Scheduler blockingScheduler) {
+        this.embeddingClient = embeddingClient;
+        this.vectorIndex = vectorIndex;
+        this.pipelineMetrics = pipelineMetrics;
+        this.config = agentConfig.getEmbedding();
+        this.blockingScheduler = blockingScheduler;
+        this.embeddingGuard = new InferenceGuard("ollama-embedding", agentConfig.getInference());
+        pipelineMetrics.bindInferenceGuard(embeddingGuard);
+        int cacheSize = config.getCacheSize();
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+    
+    public boolean isEnabled() {
+        return config.getEnabled();
+    }
+    
+    /**
+     * Embed a text, blocking. A text embedded shortly before, e.g. while looking for a duplicate of a
+     * content that is now being indexed, is answered from memory.
+     */
+    public float[] embed(String platform, String text) {
+        float[] cached = recent.get(text);
+        pipelineMetrics.recordCacheLookup(OPERATION, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            List<Double> embedding = embeddingGuard.execute(OPERATION, () -> embeddingClient.embed(text));
+            if (embedding == null || embedding.isEmpty()) {
+                throw new IllegalStateException("Embedding model returned an empty vector");
+            }
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = embedding.get(i).floatValue();
+            }
+            recent.put(text, vector);
+            success = true;
+            return vector;
+        } finally {
+            pipelineMetrics.recordInference(OPERATION, platform, System.nanoTime() - start, success, null, null);
+        }
+    }
+    
+    public float[] embed(SocialMediaContent content) {
+        return embed(content.getPlatform(), textOf(content));
+    }
+    
+    /**
+     * Id of the stored content most similar to this one, if it reaches the duplicate threshold.
+     * Empty when embeddings are disabled or the embedding model is unavailable.
+     */
+    public Mono<Long> findNearDuplicate(SocialMediaContent content) {
+        if (!isEnabled() || vectorIndex.size() == 0) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+                    List<VectorIndex.Hit> hits = vectorIndex.search(embed(content), 1, null);
+                    boolean duplicate = !hits.isEmpty() && hits.get(0).score() >= config.getDuplicateThreshold();
+                    pipelineMetrics.recordCacheLookup("near_duplicate", duplicate);
+                    return duplicate ? hits.get(0).contentId() : null;
+                })
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(e -> {
+                    log.debug("Near-duplicate lookup skipped for {}: {}", content.getContentUrl(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+    
+    /**
+     * Nearest stored contents to a free-text query, best first, blocking
+     */
+    public List<VectorIndex.Hit> search(String query, int k, LongPredicate filter) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Semantic search is disabled (agent.embedding.enabled=false)");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        float[] vector = embed("search", truncate(query.strip()));
+        if (vectorIndex.getDimension() != 0 && vector.length != vectorIndex.getDimension()) {
+            throw new IllegalStateException("Embedding model changed: index holds " + vectorIndex.getDimension()
+                + " dimensions, the model returns " + vector.length + "; delete " + config.getIndexPath() + " to rebuild");
+        }
+        return vectorIndex.search(vector, Math.min(Math.max(k, 1), config.getMaxResults()), filter);
+    }
+    
+    /**
+     * Embed and index stored contents that are not indexed yet, blocking. Stops early once the
+     * embedding model is unavailable; the backfill picks up whatever is left. Returns how many were added.
+     */
+    public int index(List<SocialMediaContent> contents) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int added = 0;
+        for (SocialMediaContent content : contents) {
+            if (content.getId() == null || vectorIndex.contains(content.getId())) {
+                continue;
+            }
+            try {
+                if (vectorIndex.add(content.getId(), embed(content))) {
+                    added++;
+                }
+            } catch (InferenceUnavailableException e) {
+                log.warn("Embedding model unavailable, {} contents left unindexed: {}",
+                    contents.size() - added, e.getMessage());
+                break;
+            } catch (IllegalArgumentException e) {
+                log.warn("Cannot index content {}: {}", content.getId(), e.getMessage());
+                break;
+            }
+        }
+        return added;
+    }
+    
+    public boolean isIndexed(long contentId) {
+        return vectorIndex.contains(contentId);
+    }
+    
+    public void flush() {
+        vectorIndex.flush();
+    }
+    
+    /**
+     * Title and content, as the classifier reads them, cut to the embedding budget
+     */
+    String textOf(SocialMediaContent content) {
+        String title = content.getTitle() != null ? content.getTitle() : "";
+        String text = content.getContent() != null && !content.getContent().equals(title)
+                ? title + "\n" + content.getContent()
+                : title;
+        return truncate(text);
+    }
+    
+    private String truncate(String text) {
+        int max = config.getMaxTextLength();
+        if (text.length() <= max) {
+            return text;
+        }
+        int end = Character.isHighSurrogate(text.charAt(max - 1)) ? max - 1 : max;
+        return text.substring(0, end);
+    }
+}
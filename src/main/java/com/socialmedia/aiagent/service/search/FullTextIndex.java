@@ -0,0 +1,210 @@
+package com.socialmedia.aiagent.service.search;
+
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lucene index over content titles and text, tokenized with the smart Chinese analyzer, plus exact-match
+ * platform and blogger fields and a point-indexed publish time for filtering. Only ids are stored;
+ * callers load the rows they need from the database.
+ * <p>
+ * Writes become searchable on the next near-real-time refresh, which {@link #index} triggers itself,
+ * and durable on {@link #commit}.
+ */
+@Slf4j
+public class FullTextIndex implements Closeable {
+    
+    static final String FIELD_ID = "id";
+    static final String FIELD_PLATFORM = "platform";
+    static final String FIELD_BLOGGER = "blogger";
+    static final String FIELD_PUBLISH_TIME = "publishTime";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_CONTENT = "content";
+    
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final float titleBoost;
+    private final int maxResultWindow;
+    
+    public record Hit(long contentId, double score) {
+    }
+    
+    public record Result(long totalHits, List<Hit> hits) {
+    }
+    
+    public FullTextIndex(Path path, float titleBoost, int maxResultWindow) {
+        this.titleBoost = titleBoost;
+        this.maxResultWindow = maxResultWindow;
+        this.analyzer = new SmartChineseAnalyzer();
+        try {
+            this.directory = FSDirectory.open(path); // memory-mapped on 64-bit JVMs
+            IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.writer = new IndexWriter(directory, writerConfig);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open full-text index at " + path, e);
+        }
+        log.info("Opened full-text index at {}: {} documents", path, size());
+    }
+    
+    /**
+     * Add or replace the documents of stored contents and make them searchable
+     */
+    public void index(List<SocialMediaContent> contents) {
+        try {
+            for (SocialMediaContent content : contents) {
+                if (content.getId() != null) {
+                    writer.updateDocument(new Term(FIELD_ID, content.getId().toString()), toDocument(content));
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot index " + contents.size() + " contents", e);
+        }
+    }
+    
+    /**
+     * Rank contents matching the query text, title matches weighted higher. Null filters are ignored.
+     */
+    public Result search(String text, String platform, String bloggerName, LocalDateTime since, int page, int size) {
+        int window = (page + 1) * size;
+        if (window > maxResultWindow) {
+            throw new IllegalArgumentException("Cannot page past the first " + maxResultWindow + " results");
+        }
+        Query query = buildQuery(text, platform, bloggerName, since);
+        if (query == null) {
+            return new Result(0, List.of());
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, window);
+                StoredFields storedFields = searcher.storedFields();
+                List<Hit> hits = new ArrayList<>();
+                for (int i = page * size; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    long id = Long.parseLong(storedFields.document(scoreDoc.doc).get(FIELD_ID));
+                    hits.add(new Hit(id, scoreDoc.score));
+                }
+                return new Result(top.totalHits.value, hits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Full-text search failed", e);
+        }
+    }
+    
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+    
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot commit full-text index", e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close(); // commits pending changes
+        directory.close();
+        analyzer.close();
+    }
+    
+    /**
+     * Null when the text has no searchable tokens, e.g. only punctuation
+     */
+    Query buildQuery(String text, String platform, String bloggerName, LocalDateTime since) {
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        Query title = builder.createBooleanQuery(FIELD_TITLE, text);
+        Query content = builder.createBooleanQuery(FIELD_CONTENT, text);
+        if (title == null && content == null) {
+            return null;
+        }
+        
+        BooleanQuery.Builder matches = new BooleanQuery.Builder();
+        if (title != null) {
+            matches.add(new BoostQuery(title, titleBoost), BooleanClause.Occur.SHOULD);
+        }
+        if (content != null) {
+            matches.add(content, BooleanClause.Occur.SHOULD);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(matches.build(), BooleanClause.Occur.MUST);
+        if (platform != null) {
+            query.add(new TermQuery(new Term(FIELD_PLATFORM, platform)), BooleanClause.Occur.FILTER);
+        }
+        if (bloggerName != null) {
+            query.add(new TermQuery(new Term(FIELD_BLOGGER, bloggerName)), BooleanClause.Occur.FILTER);
+        }
+        if (since != null) {
+            query.add(LongPoint.newRangeQuery(FIELD_PUBLISH_TIME, epochSecond(since), Long.MAX_VALUE),
+                BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+    
+    private Document toDocument(SocialMediaContent content) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, content.getId().toString(), Field.Store.YES));
+        document.add(new StringField(FIELD_PLATFORM, content.getPlatform(), Field.Store.NO));
+        if (content.getBloggerName() != null) {
+            document.add(new StringField(FIELD_BLOGGER, content.getBloggerName(), Field.Store.NO));
+        }
+        if (content.getPublishTime() != null) {
+            document.add(new LongPoint(FIELD_PUBLISH_TIME, epochSecond(content.getPublishTime())));
+        }
+        if (content.getTitle() != null) {
+            document.add(new TextField(FIELD_TITLE, content.getTitle(), Field.Store.NO));
+        }
+        if (content.getContent() != null && !content.getContent().equals(content.getTitle())) {
+            document.add(new TextField(FIELD_CONTENT, content.getContent(), Field.Store.NO));
+        }
+        return document;
+    }
+    
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,78 @@
+package com.socialmedia.aiagent.service.search;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import com.socialmedia.aiagent.service.ContentsPersistedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps the full-text index in step with the content table. New contents are indexed right after their
+ * transaction commits, so a search issued after an analysis response already finds them; an index that
+ * is behind the table at startup (new volume, deleted directory) is rebuilt in the background.
+ */
+@Component
+@Slf4j
+public class FullTextIndexer {
+    
+    private final FullTextIndex fullTextIndex;
+    private final SocialMediaContentRepository repository;
+    private final AgentConfig.FullText config;
+    
+    public FullTextIndexer(FullTextIndex fullTextIndex, SocialMediaContentRepository repository, AgentConfig agentConfig) {
+        this.fullTextIndex = fullTextIndex;
+        this.repository = repository;
+        this.config = agentConfig.getFullText();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContentsPersisted(ContentsPersistedEvent event) {
+        if (event.inserted().isEmpty()) {
+            return;
+        }
+        try {
+            fullTextIndex.index(event.inserted());
+        } catch (RuntimeException e) {
+            // the rows are committed; the next startup rebuild picks them up
+            log.warn("Failed to index {} new contents for full-text search: {}", event.inserted().size(), e.getMessage());
+        }
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfBehind() {
+        long stored = repository.count();
+        if (fullTextIndex.size() >= stored) {
+            return;
+        }
+        log.info("Full-text index holds {} of {} contents, reindexing", fullTextIndex.size(), stored);
+        long cursor = 0;
+        int indexed = 0;
+        while (true) {
+            List<Long> ids = repository.findIdsAfter(cursor, PageRequest.of(0, config.getRebuildBatchSize()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            fullTextIndex.index(repository.findAllById(ids));
+            indexed += ids.size();
+            cursor = ids.get(ids.size() - 1);
+        }
+        fullTextIndex.commit();
+        log.info("Reindexed {} contents for full-text search", indexed);
+    }
+    
+    @Scheduled(fixedDelayString = "${agent.full-text.commit-interval:PT1M}",
+               initialDelayString = "${agent.full-text.commit-interval:PT1M}")
+    public void commit() {
+        fullTextIndex.commit();
+    }
+}
@@ -0,0 +1,407 @@
+package com.socialmedia.aiagent.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store of unit-length float vectors in memory-mapped segment files, keyed by content id.
+ * Approximate nearest neighbours come from random-hyperplane LSH tables probed at Hamming distance 0 and 1,
+ * re-ranked by exact cosine similarity; small indexes are scanned exhaustively instead.
+ * <p>
+ * Each record is the content id, its LSH signatures and the vector, so reopening only reads ids and
+ * signatures back into the in-memory buckets. The vectors themselves stay in the page cache.
+ */
+@Slf4j
+public class VectorIndex implements Closeable {
+    
+    private static final int MAGIC = 0x56454331; // "VEC1"
+    private static final int HEADER_BYTES = 64;
+    private static final int OFFSET_DIMENSION = 4;
+    private static final int OFFSET_TABLES = 8;
+    private static final int OFFSET_BITS = 12;
+    private static final int OFFSET_SEED = 16;
+    private static final int OFFSET_SEGMENT_CAPACITY = 24;
+    private static final int OFFSET_COUNT = 28;
+    
+    private final Path directory;
+    private final int tables;
+    private final int bits;
+    private final long seed;
+    private final int segmentCapacity;
+    private final int exactSearchBelow;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final List<Map<Integer, Bucket>> buckets = new ArrayList<>();
+    private final MappedByteBuffer header;
+    
+    private int dimension;
+    private int recordBytes;
+    private float[][] hyperplanes;
+    private long[] contentIds = new long[0];
+    private int count;
+    
+    public record Hit(long contentId, double score) {
+    }
+    
+    public VectorIndex(Path directory, int tables, int bits, long seed, int segmentCapacity, int exactSearchBelow) {
+        if (bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("LSH bits must be between 1 and 30: " + bits);
+        }
+        this.directory = directory;
+        this.tables = tables;
+        this.bits = bits;
+        this.seed = seed;
+        this.segmentCapacity = segmentCapacity;
+        this.exactSearchBelow = exactSearchBelow;
+        for (int t = 0; t < tables; t++) {
+            buckets.add(new HashMap<>());
+        }
+        try {
+            Files.createDirectories(directory);
+            Path headerFile = directory.resolve("index.meta");
+            boolean existing = Files.exists(headerFile);
+            header = map(headerFile, HEADER_BYTES);
+            if (existing && !matchesLayout()) {
+                log.warn("Vector index at {} was built with other LSH settings, rebuilding it", directory);
+                clear();
+                existing = false;
+            }
+            if (!existing) {
+                writeHeader();
+            } else {
+                load();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open vector index at " + directory, e);
+        }
+    }
+    
+    /**
+     * Append a vector unless the content is already indexed; the first vector fixes the dimension
+     */
+    public boolean add(long contentId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (positions.containsKey(contentId)) {
+                return false;
+            }
+            if (dimension == 0) {
+                initDimension(vector.length);
+                header.putInt(OFFSET_DIMENSION, dimension);
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException(
+                        "Vector has " + vector.length + " dimensions, the index holds " + dimension);
+            }
+            float[] unit = normalize(vector);
+            int[] signatures = signatures(unit);
+            
+            int position = count;
+            MappedByteBuffer segment = segmentFor(position);
+            int offset = (position % segmentCapacity) * recordBytes;
+            segment.putLong(offset, contentId);
+            offset += Long.BYTES;
+            for (int signature : signatures) {
+                segment.putInt(offset, signature);
+                offset += Integer.BYTES;
+            }
+            for (float value : unit) {
+                segment.putFloat(offset, value);
+                offset += Float.BYTES;
+            }
+            
+            register(position, contentId, signatures);
+            count++;
+            header.putInt(OFFSET_COUNT, count); // only published once the record is complete
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean contains(long contentId) {
+        lock.readLock().lock();
+        try {
+            return positions.containsKey(contentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Nearest indexed vectors by cosine similarity, best first, keeping only ids the filter accepts
+     */
+    public List<Hit> search(float[] query, int k, LongPredicate filter) {
+        lock.readLock().lock();
+        try {
+            if (count == 0 || k <= 0) {
+                return List.of();
+            }
+            if (query.length != dimension) {
+                throw new IllegalArgumentException(
+                        "Query has " + query.length + " dimensions, the index holds " + dimension);
+            }
+            float[] unit = normalize(query);
+            PriorityQueue<Hit> top = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::score));
+            if (count < exactSearchBelow) {
+                for (int position = 0; position < count; position++) {
+                    offer(top, k, position, unit, filter);
+                }
+            } else {
+                BitSet candidates = candidates(signatures(unit));
+                for (int position = candidates.nextSetBit(0); position >= 0; position = candidates.nextSetBit(position + 1)) {
+                    offer(top, k, position, unit, filter);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int getDimension() {
+        return dimension;
+    }
+    
+    /**
+     * Write dirty pages back to the segment files
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            segments.forEach(MappedByteBuffer::force);
+            header.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void close() {
+        flush();
+    }
+    
+    private void offer(PriorityQueue<Hit> top, int k, int position, float[] query, LongPredicate filter) {
+        long contentId = contentIds[position];
+        if (filter != null && !filter.test(contentId)) {
+            return;
+        }
+        double score = dot(position, query);
+        if (top.size() < k) {
+            top.add(new Hit(contentId, score));
+        } else if (score > top.peek().score()) {
+            top.poll();
+            top.add(new Hit(contentId, score));
+        }
+    }
+    
+    /**
+     * Positions sharing a bucket with the query, or one bit away from it, in any table
+     */
+    private BitSet candidates(int[] signatures) {
+        BitSet candidates = new BitSet(count);
+        for (int t = 0; t < tables; t++) {
+            Map<Integer, Bucket> table = buckets.get(t);
+            collect(table.get(signatures[t]), candidates);
+            for (int b = 0; b < bits; b++) {
+                collect(table.get(signatures[t] ^ (1 << b)), candidates);
+            }
+        }
+        return candidates;
+    }
+    
+    private void collect(Bucket bucket, BitSet candidates) {
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size; i++) {
+                candidates.set(bucket.positions[i]);
+            }
+        }
+    }
+    
+    private double dot(int position, float[] query) {
+        MappedByteBuffer segment = segments.get(position / segmentCapacity);
+        int offset = (position % segmentCapacity) * recordBytes + Long.BYTES + tables * Integer.BYTES;
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += segment.getFloat(offset + i * Float.BYTES) * query[i];
+        }
+        return sum;
+    }
+    
+    private int[] signatures(float[] vector) {
+        int[] signatures = new int[tables];
+        for (int t = 0; t < tables; t++) {
+            int signature = 0;
+            for (int b = 0; b < bits; b++) {
+                float[] plane = hyperplanes[t * bits + b];
+                double side = 0;
+                for (int i = 0; i < dimension; i++) {
+                    side += plane[i] * vector[i];
+                }
+                if (side >= 0) {
+                    signature |= 1 << b;
+                }
+            }
+            signatures[t] = signature;
+        }
+        return signatures;
+    }
+    
+    private void register(int position, long contentId, int[] signatures) {
+        if (position >= contentIds.length) {
+            contentIds = Arrays.copyOf(contentIds, Math.max(1024, contentIds.length * 2));
+        }
+        contentIds[position] = contentId;
+        positions.put(contentId, position);
+        for (int t = 0; t < tables; t++) {
+            buckets.get(t).computeIfAbsent(signatures[t], key -> new Bucket()).add(position);
+        }
+    }
+    
+    private void initDimension(int dimension) {
+        this.dimension = dimension;
+        this.recordBytes = Long.BYTES + tables * Integer.BYTES + dimension * Float.BYTES;
+        Random random = new Random(seed);
+        hyperplanes = new float[tables * bits][dimension];
+        for (float[] plane : hyperplanes) {
+            for (int i = 0; i < dimension; i++) {
+                plane[i] = (float) random.nextGaussian();
+            }
+        }
+    }
+    
+    private MappedByteBuffer segmentFor(int position) {
+        int index = position / segmentCapacity;
+        while (segments.size() <= index) {
+            try {
+                segments.add(map(segmentPath(segments.size()), (long) segmentCapacity * recordBytes));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map vector segment " + segments.size(), e);
+            }
+        }
+        return segments.get(index);
+    }
+    
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%05d.vec", index));
+    }
+    
+    private boolean matchesLayout() {
+        return header.getInt(0) == MAGIC
+                && header.getInt(OFFSET_TABLES) == tables
+                && header.getInt(OFFSET_BITS) == bits
+                && header.getLong(OFFSET_SEED) == seed
+                && header.getInt(OFFSET_SEGMENT_CAPACITY) == segmentCapacity;
+    }
+    
+    private void writeHeader() {
+        header.putInt(0, MAGIC);
+        header.putInt(OFFSET_DIMENSION, dimension);
+        header.putInt(OFFSET_TABLES, tables);
+        header.putInt(OFFSET_BITS, bits);
+        header.putLong(OFFSET_SEED, seed);
+        header.putInt(OFFSET_SEGMENT_CAPACITY, segmentCapacity);
+        header.putInt(OFFSET_COUNT, 0);
+    }
+    
+    private void load() {
+        int stored = header.getInt(OFFSET_COUNT);
+        if (stored == 0) {
+            return;
+        }
+        initDimension(header.getInt(OFFSET_DIMENSION));
+        int[] signatures = new int[tables];
+        for (int position = 0; position < stored; position++) {
+            MappedByteBuffer segment = segmentFor(position);
+            int offset = (position % segmentCapacity) * recordBytes;
+            long contentId = segment.getLong(offset);
+            offset += Long.BYTES;
+            for (int t = 0; t < tables; t++) {
+                signatures[t] = segment.getInt(offset + t * Integer.BYTES);
+            }
+            register(position, contentId, signatures);
+        }
+        count = stored;
+        log.info("Opened vector index at {}: {} vectors of {} dimensions", directory, count, dimension);
+    }
+    
+    private void clear() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".vec")).toList()) {
+                Files.delete(file);
+            }
+        }
+        header.put(new byte[HEADER_BYTES], 0, HEADER_BYTES);
+    }
+    
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // grows the file, sparsely
+        }
+    }
+    
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] unit = new float[vector.length];
+        if (norm == 0) {
+            return unit;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = (float) (vector[i] / norm);
+        }
+        return unit;
+    }
+    
+    /**
+     * Growable list of record positions sharing one signature
+     */
+    private static final class Bucket {
+        private int[] positions = new int[4];
+        private int size;
+        
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.socialmedia.aiagent.service.stats;
+
+import com.socialmedia.aiagent.model.BloggerStats;
+import com.socialmedia.aiagent.model.HourHistogramConverter;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.dto.BloggerStatsSummary;
+import com.socialmedia.aiagent.model.dto.StoredContentRef;
+import com.socialmedia.aiagent.repository.BloggerStatsRepository;
+import com.socialmedia.aiagent.repository.SocialMediaContentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Per-blogger aggregates kept up to date by the save path, so reads never scan a blogger's contents
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BloggerStatsService {
+    
+    private static final int PEAK_HOURS = 3;
+    
+    private final BloggerStatsRepository statsRepository;
+    private final SocialMediaContentRepository contentRepository;
+    
+    /**
+     * Give every blogger of a batch a stats row before the batch's save transaction starts, each insert in
+     * a transaction of its own. Two first saves of one blogger then meet on the unique key here, and the
+     * loser uses the winner's row instead of failing its whole save. A new row is rebuilt from the content
+     * table, which does not hold the batch yet.
+     */
+    public void createMissing(List<SocialMediaContent> contents) {
+        for (BloggerKey key : keysOf(contents)) {
+            if (statsRepository.findByPlatformAndBloggerName(key.platform(), key.bloggerName()).isPresent()) {
+                continue;
+            }
+            try {
+                statsRepository.saveAndFlush(rebuild(key.platform(), key.bloggerName()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Stats of {} blogger {} created concurrently", key.platform(), key.bloggerName());
+            }
+        }
+    }
+    
+    /**
+     * Lock the stats rows of a batch's bloggers, in a fixed order, joining the caller's transaction. The save
+     * path takes the locks before it reads the stored counters, so two saves refreshing the same posts
+     * cannot both read the old counters and both add the same increase.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(List<SocialMediaContent> contents) {
+        for (BloggerKey key : keysOf(contents)) {
+            statsRepository.lockByPlatformAndBloggerName(key.platform(), key.bloggerName());
+        }
+    }
+    
+    /**
+     * Fold one save into the aggregates, joining the caller's transaction: inserted contents add a post,
+     * refreshed ones add the difference between the fetched and the stored counters. A blogger without
+     * a stats row yet is rebuilt from the content table, which already holds this save.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSave(List<SocialMediaContent> inserted, Map<SocialMediaContent, StoredContentRef> refreshed) {
+        Map<BloggerKey, Delta> deltas = new HashMap<>();
+        for (SocialMediaContent content : inserted) {
+            Delta delta = deltas.computeIfAbsent(BloggerKey.of(content), key -> new Delta());
+            delta.posts++;
+            delta.likes += orZero(content.getLikes());
+            delta.comments += orZero(content.getComments());
+            delta.shares += orZero(content.getShares());
+            delta.views += orZero(content.getViews());
+            LocalDateTime publishTime = content.getPublishTime();
+            if (publishTime != null) {
+                delta.hours[publishTime.getHour()]++;
+                delta.firstPublish = min(delta.firstPublish, publishTime);
+                delta.lastPublish = max(delta.lastPublish, publishTime);
+            }
+        }
+        refreshed.forEach((content, stored) -> {
+            Delta delta = deltas.computeIfAbsent(BloggerKey.of(content), key -> new Delta());
+            delta.likes += change(content.getLikes(), stored.getLikes());
+            delta.comments += change(content.getComments(), stored.getComments());
+            delta.shares += change(content.getShares(), stored.getShares());
+            delta.views += change(content.getViews(), stored.getViews());
+        });
+        
+        deltas.forEach((key, delta) -> {
+            Optional<BloggerStats> locked = statsRepository.lockByPlatformAndBloggerName(key.platform(), key.bloggerName());
+            if (locked.isEmpty()) {
+                statsRepository.save(rebuild(key.platform(), key.bloggerName()));
+                return;
+            }
+            BloggerStats stats = locked.get();
+            stats.setPostCount(stats.getPostCount() + delta.posts);
+            stats.setTotalLikes(stats.getTotalLikes() + delta.likes);
+            stats.setTotalComments(stats.getTotalComments() + delta.comments);
+            stats.setTotalShares(stats.getTotalShares() + delta.shares);
+            stats.setTotalViews(stats.getTotalViews() + delta.views);
+            long[] hours = Arrays.copyOf(stats.getPostingHours(), HourHistogramConverter.HOURS);
+            for (int hour = 0; hour < HourHistogramConverter.HOURS; hour++) {
+                hours[hour] += delta.hours[hour];
+            }
+            stats.setPostingHours(hours); // new array so the converted attribute is seen as dirty
+            stats.setFirstPublishTime(min(stats.getFirstPublishTime(), delta.firstPublish));
+            stats.setLastPublishTime(max(stats.getLastPublishTime(), delta.lastPublish));
+        });
+    }
+    
+    /**
+     * Stats of a blogger, or empty when nothing is stored for them. Bloggers stored before the
+     * stats table existed are aggregated on the fly until their next fetch persists a row.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BloggerStatsSummary> getStats(String platform, String bloggerName) {
+        BloggerStats stats = statsRepository.findByPlatformAndBloggerName(platform, bloggerName)
+                .orElseGet(() -> rebuild(platform, bloggerName));
+        return stats.getPostCount() > 0 ? Optional.of(toSummary(stats)) : Optional.empty();
+    }
+    
+    private BloggerStats rebuild(String platform, String bloggerName) {
+        Object[] totals = contentRepository.aggregateByBlogger(platform, bloggerName).get(0);
+        long[] hours = new long[HourHistogramConverter.HOURS];
+        for (Object[] row : contentRepository.countByPublishHour(platform, bloggerName)) {
+            hours[((Number) row[0]).intValue()] = ((Number) row[1]).longValue();
+        }
+        log.debug("Rebuilt stats of {} blogger {}", platform, bloggerName);
+        return BloggerStats.builder()
+                .platform(platform)
+                .bloggerName(bloggerName)
+                .postCount(((Number) totals[0]).longValue())
+                .totalLikes(((Number) totals[1]).longValue())
+                .totalComments(((Number) totals[2]).longValue())
+                .totalShares(((Number) totals[3]).longValue())
+                .totalViews(((Number) totals[4]).longValue())
+                .postingHours(hours)
+                .firstPublishTime((LocalDateTime) totals[5])
+                .lastPublishTime((LocalDateTime) totals[6])
+                .build();
+    }
+    
+    private BloggerStatsSummary toSummary(BloggerStats stats) {
+        long[] hours = stats.getPostingHours();
+        double posts = stats.getPostCount();
+        return BloggerStatsSummary.builder()
+                .platform(stats.getPlatform())
+                .bloggerName(stats.getBloggerName())
+                .postCount(stats.getPostCount())
+                .totalLikes(stats.getTotalLikes())
+                .totalComments(stats.getTotalComments())
+                .totalShares(stats.getTotalShares())
+                .totalViews(stats.getTotalViews())
+                .averageLikes(stats.getTotalLikes() / posts)
+                .averageComments(stats.getTotalComments() / posts)
+                .averageShares(stats.getTotalShares() / posts)
+                .averageViews(stats.getTotalViews() / posts)
+                .postingHours(Arrays.stream(hours).boxed().toList())
+                .peakHours(IntStream.range(0, hours.length)
+                        .filter(hour -> hours[hour] > 0)
+                        .boxed()
+                        .sorted(Comparator.comparingLong((Integer hour) -> hours[hour]).reversed())
+                        .limit(PEAK_HOURS)
+                        .toList())
+                .firstPublishTime(stats.getFirstPublishTime())
+                .lastPublishTime(stats.getLastPublishTime())
+                .updatedAt(stats.getUpdatedAt())
+                .build();
+    }
+    
+    private static long orZero(Integer value) {
+        return value != null ? value : 0L;
+    }
+    
+    private static long change(Integer fetched, Integer stored) {
+        return fetched != null ? fetched - orZero(stored) : 0L; // a missing counter keeps the stored value
+    }
+    
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+    
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+    
+    private static Set<BloggerKey> keysOf(List<SocialMediaContent> contents) {
+        Set<BloggerKey> keys = new TreeSet<>(Comparator.comparing(BloggerKey::platform).thenComparing(BloggerKey::bloggerName));
+        contents.forEach(content -> keys.add(BloggerKey.of(content)));
+        return keys;
+    }
+    
+    private record BloggerKey(String platform, String bloggerName) {
+        static BloggerKey of(SocialMediaContent content) {
+            return new BloggerKey(content.getPlatform(), content.getBloggerName());
+        }
+    }
+    
+    private static class Delta {
+        long posts;
+        long likes;
+        long comments;
+        long shares;
+        long views;
+        final long[] hours = new long[HourHistogramConverter.HOURS];
+        LocalDateTime firstPublish;
+        LocalDateTime lastPublish;
+    }
+}
@@ -0,0 +1,79 @@
+package com.socialmedia.aiagent.service.trends;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size frequency sketch: estimates never undercount and overcount by at most
+ * {@code e / width} of the total with probability {@code 1 - exp(-depth)}. Uses conservative update,
+ * which only raises the cells that hold the current minimum.
+ */
+final class CountMinSketch {
+    
+    private final int depth;
+    private final int width;
+    private final int[] cells; // a bucket never sees 2^31 uses of one tag
+    private long total;
+    
+    CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.cells = new int[depth * width];
+    }
+    
+    void add(String item, int count) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int current = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            current = Math.min(current, cells[cell(row, h1, h2)]);
+        }
+        int target = current + count;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(row, h1, h2);
+            if (cells[cell] < target) {
+                cells[cell] = target;
+            }
+        }
+        total += count;
+    }
+    
+    long estimate(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[cell(row, h1, h2)]);
+        }
+        return estimate;
+    }
+    
+    long total() {
+        return total;
+    }
+    
+    /**
+     * Row hashes derived from one 64-bit hash as h1 + row * h2 (Kirsch-Mitzenmacher)
+     */
+    private int cell(int row, int h1, int h2) {
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+    
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mix
+     */
+    private static long hash(String item) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
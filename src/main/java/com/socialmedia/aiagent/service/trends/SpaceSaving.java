@@ -0,0 +1,47 @@
+package com.socialmedia.aiagent.service.trends;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-saving heavy hitters: keeps at most {@code capacity} items, and any item seen more often than
+ * {@code total / capacity} is guaranteed to be among them. A new item replaces the least counted one and
+ * inherits its count as error.
+ */
+final class SpaceSaving {
+    
+    private final int capacity;
+    private final Map<String, long[]> counters; // item -> {count, error}
+    
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    void add(String item, long count) {
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(item, new long[] {count, 0});
+            return;
+        }
+        String minItem = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                minItem = entry.getKey();
+            }
+        }
+        counters.remove(minItem);
+        counters.put(item, new long[] {min + count, min});
+    }
+    
+    Set<String> items() {
+        return counters.keySet();
+    }
+}
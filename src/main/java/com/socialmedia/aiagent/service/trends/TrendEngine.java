@@ -0,0 +1,139 @@
+package com.socialmedia.aiagent.service.trends;
+
+import com.socialmedia.aiagent.model.dto.TrendingTag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sliding-window tag counts per platform. Each platform has a ring of time buckets covering the retention;
+ * a bucket holds a count-min sketch for frequencies and a space-saving set of candidate heavy hitters.
+ * Memory is fixed per platform at buckets x (depth x width counters + heavy-hitter capacity) regardless
+ * of how many contents are recorded; buckets falling out of the retention are overwritten.
+ */
+public class TrendEngine {
+    
+    private final long bucketSeconds;
+    private final int bucketCount;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int heavyHitters;
+    private final Map<String, Bucket[]> rings = new HashMap<>();
+    
+    public TrendEngine(Duration bucketDuration, Duration retention, int sketchDepth, int sketchWidth, int heavyHitters) {
+        this.bucketSeconds = bucketDuration.toSeconds();
+        this.bucketCount = (int) Math.max(1, retention.toSeconds() / bucketSeconds);
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.heavyHitters = heavyHitters;
+    }
+    
+    /**
+     * Count the tags of one content in the bucket of its time. Times outside the retention are dropped,
+     * times in the future are counted now.
+     */
+    public synchronized void record(String platform, Instant time, Collection<String> tags, Instant now) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        long nowIndex = bucketIndex(now);
+        long index = Math.min(bucketIndex(time), nowIndex);
+        if (index <= nowIndex - bucketCount) {
+            return;
+        }
+        Bucket[] ring = rings.computeIfAbsent(platform, key -> new Bucket[bucketCount]);
+        int slot = (int) Math.floorMod(index, (long) bucketCount);
+        Bucket bucket = ring[slot];
+        if (bucket == null || bucket.index != index) {
+            if (bucket != null && bucket.index > index) {
+                return; // the slot already moved on to a newer bucket
+            }
+            bucket = new Bucket(index, new CountMinSketch(sketchDepth, sketchWidth), new SpaceSaving(heavyHitters));
+            ring[slot] = bucket;
+        }
+        for (String tag : tags) {
+            bucket.sketch.add(tag, 1);
+            bucket.candidates.add(tag, 1);
+        }
+    }
+    
+    /**
+     * Most used tags over the last {@code window}, on one platform or all when platform is null. Each
+     * comes with its count over the window before, when the retention still covers it.
+     */
+    public synchronized List<TrendingTag> top(String platform, Duration window, int k, boolean rising, Instant now) {
+        long nowIndex = bucketIndex(now);
+        int windowBuckets = (int) Math.min(bucketCount, Math.max(1, window.toSeconds() / bucketSeconds));
+        boolean hasPrevious = windowBuckets * 2 <= bucketCount;
+        List<Bucket[]> selected = new ArrayList<>();
+        if (platform == null) {
+            selected.addAll(rings.values());
+        } else if (rings.containsKey(platform)) {
+            selected.add(rings.get(platform));
+        }
+        
+        List<Bucket> current = new ArrayList<>();
+        List<Bucket> previous = new ArrayList<>();
+        for (Bucket[] ring : selected) {
+            for (Bucket bucket : ring) {
+                if (bucket == null) {
+                    continue;
+                }
+                long age = nowIndex - bucket.index;
+                if (age >= 0 && age < windowBuckets) {
+                    current.add(bucket);
+                } else if (hasPrevious && age >= windowBuckets && age < 2L * windowBuckets) {
+                    previous.add(bucket);
+                }
+            }
+        }
+        
+        Set<String> candidates = new HashSet<>();
+        current.forEach(bucket -> candidates.addAll(bucket.candidates.items()));
+        List<TrendingTag> trends = new ArrayList<>(candidates.size());
+        for (String tag : candidates) {
+            long count = estimate(current, tag);
+            Long before = hasPrevious ? estimate(previous, tag) : null;
+            trends.add(TrendingTag.builder()
+                    .tag(tag)
+                    .platform(platform)
+                    .count(count)
+                    .previousCount(before)
+                    .growth(before != null && before > 0 ? (double) count / before : null)
+                    .build());
+        }
+        Comparator<TrendingTag> order = rising
+                ? Comparator.comparingLong((TrendingTag trend) -> trend.getCount()
+                    - (trend.getPreviousCount() != null ? trend.getPreviousCount() : 0))
+                : Comparator.comparingLong(TrendingTag::getCount);
+        trends.sort(order.reversed().thenComparing(TrendingTag::getTag));
+        return trends.size() > k ? new ArrayList<>(trends.subList(0, k)) : trends;
+    }
+    
+    public int getBucketCount() {
+        return bucketCount;
+    }
+    
+    private long estimate(List<Bucket> buckets, String tag) {
+        long sum = 0;
+        for (Bucket bucket : buckets) {
+            sum += bucket.sketch.estimate(tag);
+        }
+        return sum;
+    }
+    
+    private long bucketIndex(Instant time) {
+        return Math.floorDiv(time.getEpochSecond(), bucketSeconds);
+    }
+    
+    private record Bucket(long index, CountMinSketch sketch, SpaceSaving candidates) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.socialmedia.aiagent.service.trends;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import com.socialmedia.aiagent.model.TagType;
+import com.socialmedia.aiagent.model.dto.TagOccurrence;
+import com.socialmedia.aiagent.model.dto.TrendingTag;
+import com.socialmedia.aiagent.repository.ContentTagRepository;
+import com.socialmedia.aiagent.service.ContentsPersistedEvent;
+import com.socialmedia.aiagent.service.classify.ContentClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Feeds the hashtags of every newly stored content into the {@link TrendEngine} and answers top-K queries.
+ * The engine is in memory; at startup it is warmed from the stored tags within the retention.
+ */
+@Service
+@Slf4j
+public class TrendService {
+    
+    private final TrendEngine engine;
+    private final ContentTagRepository tagRepository;
+    private final AgentConfig.Trends config;
+    
+    public TrendService(ContentTagRepository tagRepository, AgentConfig agentConfig) {
+        this.tagRepository = tagRepository;
+        this.config = agentConfig.getTrends();
+        this.engine = new TrendEngine(config.getBucketDuration(), config.getRetention(),
+            config.getSketchDepth(), config.getSketchWidth(), config.getHeavyHitters());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onContentsPersisted(ContentsPersistedEvent event) {
+        Instant now = Instant.now();
+        for (SocialMediaContent content : event.inserted()) {
+            List<String> tags = ContentClassifier.split(content.getHashtags()).stream()
+                    .map(TrendService::normalize)
+                    .filter(tag -> !tag.isEmpty())
+                    .distinct()
+                    .toList();
+            engine.record(content.getPlatform(), instantOf(content.getPublishTime(), now), tags, now);
+        }
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant now = Instant.now();
+        LocalDateTime since = LocalDateTime.ofInstant(now.minus(config.getRetention()), ZoneId.systemDefault());
+        long cursor = 0;
+        int loaded = 0;
+        while (true) {
+            List<TagOccurrence> page = tagRepository.findOccurrencesSince(TagType.HASHTAG, since, cursor,
+                PageRequest.of(0, config.getWarmUpBatchSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (TagOccurrence occurrence : page) {
+                String tag = normalize(occurrence.getTag());
+                if (!tag.isEmpty()) {
+                    engine.record(occurrence.getPlatform(), instantOf(occurrence.getPublishTime(), now), List.of(tag), now);
+                }
+            }
+            loaded += page.size();
+            cursor = page.get(page.size() - 1).getId();
+        }
+        log.info("Warmed trend counters with {} stored hashtags", loaded);
+    }
+    
+    /**
+     * Top hashtags over the last {@code window}, by count or, when rising, by increase over the window before
+     */
+    public List<TrendingTag> getTrends(String platform, Duration window, int k, boolean rising) {
+        if (window.compareTo(config.getRetention()) > 0) {
+            throw new IllegalArgumentException("Trend window cannot exceed the retention of " + config.getRetention());
+        }
+        return engine.top(platform, window, Math.min(Math.max(k, 1), config.getMaxResults()), rising, Instant.now());
+    }
+    
+    private static String normalize(String tag) {
+        return tag.strip().toLowerCase(Locale.ROOT);
+    }
+    
+    private static Instant instantOf(LocalDateTime publishTime, Instant fallback) {
+        return publishTime != null ? publishTime.atZone(ZoneId.systemDefault()).toInstant() : fallback;
+    }
+}
@@ -0,0 +1,34 @@
+package com.socialmedia.aiagent.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21 only, compiled by the java21 Maven profile. Runs blocking repository and model calls on one
+ * virtual thread each instead of the bounded elastic pool, whose 10 threads per core cap how many calls
+ * can wait on JDBC or Ollama at once. Concurrency stays bounded by the connection pool and the inference
+ * limiters, which both park waiting virtual threads without holding a carrier.
+ */
+@Configuration
+@ConditionalOnProperty(name = "agent.execution.virtual-threads", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+    
+    @Bean(destroyMethod = "dispose")
+    @Primary
+    public Scheduler virtualThreadScheduler() {
+        log.info("Blocking calls run on virtual threads");
+        return newScheduler();
+    }
+    
+    public static Scheduler newScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual");
+    }
+}
@@ -0,0 +1,23 @@
+CREATE SEQUENCE social_media_content_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE social_media_content (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    platform     VARCHAR(255) NOT NULL,
+    blogger_name VARCHAR(255) NOT NULL,
+    blogger_url  VARCHAR(255) NOT NULL,
+    title        VARCHAR(500) NOT NULL,
+    content      CLOB,
+    content_url  VARCHAR(255),
+    likes        INTEGER,
+    comments     INTEGER,
+    shares       INTEGER,
+    views        INTEGER,
+    ai_analysis  CLOB,
+    publish_time TIMESTAMP,
+    created_at   TIMESTAMP,
+    updated_at   TIMESTAMP
+);
+
+CREATE INDEX idx_content_platform_url ON social_media_content (platform, content_url);
+CREATE INDEX idx_content_blogger_publish ON social_media_content (platform, blogger_name, publish_time);
+CREATE INDEX idx_content_publish ON social_media_content (publish_time);
@@ -0,0 +1,24 @@
+CREATE SEQUENCE engagement_series_seq START WITH 1 INCREMENT BY 50;
+
+-- One row per content; snapshots are appended to the packed points column
+CREATE TABLE engagement_series (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    content_id    BIGINT       NOT NULL,
+    platform      VARCHAR(255) NOT NULL,
+    blogger_name  VARCHAR(255) NOT NULL,
+    point_count   INTEGER      NOT NULL,
+    first_time    BIGINT       NOT NULL,
+    last_time     BIGINT       NOT NULL,
+    last_likes    BIGINT       NOT NULL,
+    last_comments BIGINT       NOT NULL,
+    last_shares   BIGINT       NOT NULL,
+    last_views    BIGINT       NOT NULL,
+    points        VARBINARY(1000000) NOT NULL,
+    compacted_at  BIGINT       NOT NULL,
+    updated_at    TIMESTAMP,
+    CONSTRAINT uk_engagement_series_content UNIQUE (content_id),
+    CONSTRAINT fk_engagement_series_content FOREIGN KEY (content_id) REFERENCES social_media_content (id)
+);
+
+CREATE INDEX idx_engagement_series_blogger ON engagement_series (platform, blogger_name);
+CREATE INDEX idx_engagement_series_compacted ON engagement_series (compacted_at);
@@ -0,0 +1,18 @@
+CREATE SEQUENCE blogger_stats_seq START WITH 1 INCREMENT BY 50;
+
+-- Running totals per blogger, maintained by the save path; posting_hours holds 24 comma-separated counts
+CREATE TABLE blogger_stats (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    platform           VARCHAR(255) NOT NULL,
+    blogger_name       VARCHAR(255) NOT NULL,
+    post_count         BIGINT       NOT NULL,
+    total_likes        BIGINT       NOT NULL,
+    total_comments     BIGINT       NOT NULL,
+    total_shares       BIGINT       NOT NULL,
+    total_views        BIGINT       NOT NULL,
+    posting_hours      VARCHAR(400) NOT NULL,
+    first_publish_time TIMESTAMP,
+    last_publish_time  TIMESTAMP,
+    updated_at         TIMESTAMP,
+    CONSTRAINT uk_blogger_stats_blogger UNIQUE (platform, blogger_name)
+);
@@ -0,0 +1,4 @@
+ALTER TABLE social_media_content ADD COLUMN sentiment VARCHAR(16);
+ALTER TABLE social_media_content ADD COLUMN sentiment_score DOUBLE PRECISION;
+ALTER TABLE social_media_content ADD COLUMN topics VARCHAR(1000);
+ALTER TABLE social_media_content ADD COLUMN hashtags VARCHAR(1000);
@@ -0,0 +1,15 @@
+CREATE INDEX idx_content_platform_sentiment ON social_media_content (platform, sentiment, publish_time);
+CREATE INDEX idx_content_sentiment_score ON social_media_content (sentiment_score);
+
+CREATE SEQUENCE content_tag_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE content_tag (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    content_id BIGINT       NOT NULL,
+    tag_type   VARCHAR(16)  NOT NULL,
+    tag        VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_content_tag UNIQUE (content_id, tag_type, tag),
+    CONSTRAINT fk_content_tag_content FOREIGN KEY (content_id) REFERENCES social_media_content (id)
+);
+
+CREATE INDEX idx_content_tag_lookup ON content_tag (tag_type, tag, content_id);
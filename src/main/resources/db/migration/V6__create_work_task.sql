@@ -0,0 +1,30 @@
+CREATE SEQUENCE work_task_seq START WITH 1 INCREMENT BY 50;
+
+-- Fetch and analysis work shared by every node; a node owns a LEASED task until lease_expires_at.
+-- dedupe_key is set while a task is pending or leased, so the same work is queued at most once.
+CREATE TABLE work_task (
+    id               BIGINT        NOT NULL PRIMARY KEY,
+    task_type        VARCHAR(16)   NOT NULL,
+    platform         VARCHAR(255)  NOT NULL,
+    subject          VARCHAR(500)  NOT NULL,
+    item_limit       INT,
+    dedupe_key       VARCHAR(800),
+    status           VARCHAR(16)   NOT NULL,
+    lease_owner      VARCHAR(255),
+    lease_expires_at TIMESTAMP,
+    attempts         INT           NOT NULL,
+    last_error       VARCHAR(1000),
+    created_at       TIMESTAMP     NOT NULL,
+    updated_at       TIMESTAMP     NOT NULL,
+    CONSTRAINT uk_work_task_dedupe UNIQUE (dedupe_key)
+);
+
+CREATE INDEX idx_work_task_status ON work_task (status, id);
+CREATE INDEX idx_work_task_lease ON work_task (status, lease_expires_at);
+
+-- Upstream requests per platform in the current fixed window, counted across all nodes
+CREATE TABLE platform_rate_window (
+    platform     VARCHAR(255) NOT NULL PRIMARY KEY,
+    window_start TIMESTAMP    NOT NULL,
+    permits_used INT          NOT NULL
+);
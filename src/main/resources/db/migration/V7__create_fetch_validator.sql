@@ -0,0 +1,12 @@
+-- Last response seen per upstream endpoint: the HTTP validators to send back, a SHA-256 of the body,
+-- and the content URLs parsed from it, so an unchanged page is answered from social_media_content.
+CREATE TABLE fetch_validator (
+    endpoint      VARCHAR(1000) NOT NULL PRIMARY KEY,
+    platform      VARCHAR(255)  NOT NULL,
+    etag          VARCHAR(500),
+    last_modified VARCHAR(100),
+    body_sha256   VARCHAR(64)   NOT NULL,
+    content_urls  TEXT          NOT NULL,
+    checked_at    TIMESTAMP     NOT NULL,
+    changed_at    TIMESTAMP     NOT NULL
+);
@@ -0,0 +1,2 @@
+ALTER TABLE social_media_content ADD COLUMN mentions VARCHAR(1000);
+ALTER TABLE social_media_content ADD COLUMN links VARCHAR(2000);
@@ -0,0 +1,19 @@
+-- Model and prompt an analysis was produced with, e.g. llama3.2#3f9a0c1d2e4b; NULL for analyses older than this column
+ALTER TABLE social_media_content ADD COLUMN analysis_version VARCHAR(255);
+
+-- Re-analysis of stored contents up to one analysis version, resumable from its checkpoint. Contents are
+-- walked by ascending id; every id up to last_content_id has been handled.
+CREATE TABLE reanalysis_job (
+    target_version  VARCHAR(255) NOT NULL PRIMARY KEY,
+    status          VARCHAR(16)  NOT NULL,
+    owner           VARCHAR(255),
+    last_content_id BIGINT       NOT NULL,
+    total           INT          NOT NULL,
+    analyzed        INT          NOT NULL,
+    failed          INT          NOT NULL,
+    run_started_at  TIMESTAMP    NOT NULL,
+    run_processed   INT          NOT NULL,
+    started_at      TIMESTAMP    NOT NULL,
+    updated_at      TIMESTAMP    NOT NULL,
+    finished_at     TIMESTAMP
+);
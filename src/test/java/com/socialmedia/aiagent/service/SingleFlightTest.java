@@ -0,0 +1,75 @@
+package com.socialmedia.aiagent.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    
+    private static final Duration FRESHNESS = Duration.ofMinutes(1);
+    
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final AtomicInteger runs = new AtomicInteger();
+    
+    @Test
+    void callersDuringARunShareIt() {
+        Sinks.One<String> result = Sinks.one();
+        Mono<String> first = flights.execute("key", FRESHNESS, value -> true, () -> counted(result.asMono()));
+        Mono<String> second = flights.execute("key", FRESHNESS, value -> true, () -> counted(result.asMono()));
+        
+        first.subscribe();
+        second.subscribe();
+        result.tryEmitValue("done");
+        
+        assertThat(first.block()).isEqualTo("done");
+        assertThat(second.block()).isEqualTo("done");
+        assertThat(runs).hasValue(1);
+    }
+    
+    @Test
+    void keptResultIsServedWhileFresh() {
+        assertThat(run("key", "ok", true)).isEqualTo("ok");
+        assertThat(run("key", "other", true)).isEqualTo("ok");
+        assertThat(flights.isShared("key")).isTrue();
+        assertThat(runs).hasValue(1);
+    }
+    
+    @Test
+    void resultNotKeptGoesOnlyToItsCallers() {
+        assertThat(run("key", "degraded", false)).isEqualTo("degraded");
+        assertThat(flights.isShared("key")).isFalse();
+        assertThat(run("key", "ok", true)).isEqualTo("ok");
+        assertThat(runs).hasValue(2);
+    }
+    
+    @Test
+    void failureIsNotKept() {
+        assertThatThrownBy(() -> flights.execute("key", FRESHNESS, value -> true,
+                () -> counted(Mono.<String>error(new IllegalStateException("down")))).block())
+            .hasMessage("down");
+        assertThat(flights.isShared("key")).isFalse();
+        assertThat(run("key", "ok", true)).isEqualTo("ok");
+    }
+    
+    @Test
+    void zeroFreshnessSharesOnlyRunsInProgress() {
+        flights.execute("key", Duration.ZERO, value -> true, () -> counted(Mono.just("ok"))).block();
+        assertThat(flights.isShared("key")).isFalse();
+        assertThat(flights.size()).isZero();
+    }
+    
+    private String run(String key, String value, boolean keep) {
+        return flights.execute(key, FRESHNESS, result -> keep, () -> counted(Mono.just(value))).block();
+    }
+    
+    private Mono<String> counted(Mono<String> work) {
+        runs.incrementAndGet();
+        return work;
+    }
+}
@@ -0,0 +1,60 @@
+package com.socialmedia.aiagent.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void startsFullAndWaitsOnceEmpty() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0); // one token a second
+        
+        assertThat(bucket.tryTake(2, 0)).isZero();
+        assertThat(bucket.tryTake(1, 0)).isZero();
+        assertThat(bucket.tryTake(1, 0)).isCloseTo(SECOND, within(10L));
+    }
+    
+    @Test
+    void refillsContinuously() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        bucket.tryTake(2, 0);
+        
+        assertThat(bucket.tryTake(1, SECOND / 4)).isCloseTo(SECOND * 3 / 4, within(10L));
+        assertThat(bucket.tryTake(1, SECOND)).isZero();
+        assertThat(bucket.tryTake(1, SECOND)).isCloseTo(SECOND, within(10L));
+    }
+    
+    @Test
+    void failedTakeLeavesTheTokens() {
+        TokenBucket bucket = new TokenBucket(5, 60, 0);
+        bucket.tryTake(4, 0);
+        
+        assertThat(bucket.tryTake(3, 0)).isCloseTo(2 * SECOND, within(10L));
+        assertThat(bucket.tryTake(1, 0)).isZero();
+    }
+    
+    @Test
+    void refillStopsAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        bucket.tryTake(2, 0);
+        long hourLater = TimeUnit.HOURS.toNanos(1);
+        
+        assertThat(bucket.tryTake(2, hourLater)).isZero();
+        assertThat(bucket.tryTake(1, hourLater)).isCloseTo(SECOND, within(10L));
+        assertThat(bucket.getCapacity()).isEqualTo(2);
+    }
+    
+    @Test
+    void bucketWithoutRefillNeverRefills() {
+        TokenBucket bucket = new TokenBucket(1, 0, 0);
+        
+        assertThat(bucket.tryTake(1, 0)).isZero();
+        assertThat(bucket.tryTake(1, TimeUnit.DAYS.toNanos(1))).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,49 @@
+package com.socialmedia.aiagent.service.classify;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import com.socialmedia.aiagent.model.SocialMediaContent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentClassifierTest {
+    
+    private final ContentClassifier classifier = new ContentClassifier(new AgentConfig());
+    
+    @Test
+    void keepsParsedHashtagsAheadOfThoseInTheText() {
+        SocialMediaContent content = content("返图来啦 #cos# #原神#");
+        content.setHashtags("鬼灭之刃,cos");
+        
+        ContentClassification classification = classifier.classify(content);
+        
+        assertThat(content.getHashtags()).isEqualTo("鬼灭之刃,cos,原神");
+        assertThat(classification.getHashtags()).containsExactly("鬼灭之刃", "cos", "原神");
+    }
+    
+    @Test
+    void leavesParsedHashtagsWhenTheTextHasNone() {
+        SocialMediaContent content = content("今天的返图");
+        content.setHashtags("鬼灭之刃");
+        
+        classifier.classify(content);
+        
+        assertThat(content.getHashtags()).isEqualTo("鬼灭之刃");
+    }
+    
+    @Test
+    void classifyingTwiceChangesNothing() {
+        SocialMediaContent content = content("#cos# 返图");
+        classifier.classify(content);
+        classifier.classify(content);
+        
+        assertThat(content.getHashtags()).isEqualTo("cos");
+    }
+    
+    private static SocialMediaContent content(String text) {
+        SocialMediaContent content = new SocialMediaContent();
+        content.setTitle(text);
+        content.setContent(text);
+        return content;
+    }
+}
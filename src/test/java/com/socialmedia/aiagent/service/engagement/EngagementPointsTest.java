@@ -0,0 +1,90 @@
+package com.socialmedia.aiagent.service.engagement;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngagementPointsTest {
+    
+    private static final long HOUR = 3600;
+    private static final long DAY = 86400;
+    private static final long HOURLY_SINCE = 3 * DAY;
+    private static final long RAW_SINCE = 4 * DAY;
+    
+    @Test
+    void keepsLastPointOfEachBucket() {
+        EngagementPoints points = points(
+            DAY + 100,          // first point, always kept
+            DAY + 200,
+            2 * DAY - 1,        // last of day 1
+            2 * DAY,
+            3 * DAY - 1,        // last of day 2, just before the hourly range
+            3 * DAY,
+            3 * DAY + HOUR - 1, // last of the first hourly bucket
+            3 * DAY + HOUR,
+            4 * DAY - 1,        // last of its hour, just before the raw range
+            4 * DAY,
+            4 * DAY + 1);
+        
+        EngagementPoints kept = points.downsample(RAW_SINCE, HOURLY_SINCE);
+        
+        assertThat(times(kept)).containsExactly(DAY + 100, 2 * DAY - 1, 3 * DAY - 1, 3 * DAY + HOUR - 1,
+            3 * DAY + HOUR, 4 * DAY - 1, 4 * DAY, 4 * DAY + 1);
+    }
+    
+    @Test
+    void keptPointsCarryTheirOwnCounters() {
+        EngagementPoints points = points(DAY, DAY + 10, DAY + 20, 5 * DAY);
+        
+        EngagementPoints kept = points.downsample(RAW_SINCE, HOURLY_SINCE);
+        
+        assertThat(kept.size()).isEqualTo(3);
+        assertThat(kept.likes(1)).isEqualTo(2);
+        assertThat(kept.views(1)).isEqualTo(200);
+        assertThat(kept.likes(2)).isEqualTo(3);
+    }
+    
+    @Test
+    void rawPointsAreNeverMerged() {
+        EngagementPoints points = points(RAW_SINCE, RAW_SINCE + 1, RAW_SINCE + 2, RAW_SINCE + 3);
+        
+        assertThat(times(points.downsample(RAW_SINCE, HOURLY_SINCE)))
+            .containsExactly(RAW_SINCE, RAW_SINCE + 1, RAW_SINCE + 2, RAW_SINCE + 3);
+    }
+    
+    @Test
+    void singlePointIsKept() {
+        assertThat(times(points(DAY).downsample(RAW_SINCE, HOURLY_SINCE))).containsExactly(DAY);
+        assertThat(new EngagementPoints(0).downsample(RAW_SINCE, HOURLY_SINCE).size()).isZero();
+    }
+    
+    @Test
+    void growsPastItsCapacity() {
+        EngagementPoints points = new EngagementPoints(1);
+        for (int i = 0; i < 100; i++) {
+            points.add(i, i, 0, 0, 0);
+        }
+        
+        assertThat(points.size()).isEqualTo(100);
+        assertThat(points.likes(99)).isEqualTo(99);
+    }
+    
+    /**
+     * Points at the given times whose likes are their position and views a hundred times that
+     */
+    private static EngagementPoints points(long... times) {
+        EngagementPoints points = new EngagementPoints(times.length);
+        for (int i = 0; i < times.length; i++) {
+            points.add(times[i], i, 0, 0, i * 100L);
+        }
+        return points;
+    }
+    
+    private static long[] times(EngagementPoints points) {
+        long[] times = new long[points.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = points.time(i);
+        }
+        return times;
+    }
+}
@@ -0,0 +1,96 @@
+package com.socialmedia.aiagent.service.engagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EngagementSeriesCodecTest {
+    
+    @Test
+    void roundTripKeepsEveryPoint() {
+        EngagementPoints points = new EngagementPoints(0);
+        points.add(1_700_000_000L, 10, 2, 0, 500);
+        points.add(1_700_000_060L, 15, 2, 1, 900);
+        points.add(1_700_000_120L, 12, 1, 1, 900); // likes and comments withdrawn
+        points.add(1_700_086_400L, 4_000_000_000L, 70_000, 3_000, 9_000_000_000L);
+        points.add(1_700_086_401L, 0, 0, 0, 0);
+        
+        EngagementPoints decoded = EngagementSeriesCodec.decode(EngagementSeriesCodec.encode(points), 1);
+        
+        assertSamePoints(decoded, points);
+    }
+    
+    @Test
+    void extremeDeltasSurviveZigzag() {
+        EngagementPoints points = new EngagementPoints(3);
+        points.add(0, Long.MAX_VALUE, Long.MIN_VALUE, -1, 1);
+        points.add(-1, Long.MIN_VALUE, Long.MAX_VALUE, 1, -1);
+        points.add(Long.MAX_VALUE, 0, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+        
+        assertSamePoints(EngagementSeriesCodec.decode(EngagementSeriesCodec.encode(points), 3), points);
+    }
+    
+    @Test
+    void smallDeltasTakeOneByteWithSignInTheLowBit() {
+        EngagementPoints points = new EngagementPoints(1);
+        points.add(0, -1, 1, -64, 63);
+        
+        assertThat(EngagementSeriesCodec.encode(points)).containsExactly(0, 1, 2, 127, 126);
+    }
+    
+    @Test
+    void steadyPointCostsFiveBytes() {
+        EngagementPoints one = new EngagementPoints(2);
+        one.add(1_700_000_000L, 120, 30, 4, 10_000);
+        EngagementPoints two = new EngagementPoints(2);
+        two.add(1_700_000_000L, 120, 30, 4, 10_000);
+        two.add(1_700_000_060L, 120, 30, 4, 10_000);
+        
+        int pointBytes = EngagementSeriesCodec.encode(two).length - EngagementSeriesCodec.encode(one).length;
+        
+        assertThat(pointBytes).isEqualTo(5);
+    }
+    
+    @Test
+    void appendMatchesEncodingTheWholeSeries() {
+        EngagementPoints points = new EngagementPoints(2);
+        points.add(1_700_000_000L, 10, 2, 0, 500);
+        byte[] data = EngagementSeriesCodec.encode(points);
+        
+        byte[] appended = EngagementSeriesCodec.append(data, 1_700_000_000L, 10, 2, 0, 500,
+            1_700_003_600L, 8, 5, 1, 1_200);
+        points.add(1_700_003_600L, 8, 5, 1, 1_200);
+        
+        assertThat(appended).isEqualTo(EngagementSeriesCodec.encode(points));
+    }
+    
+    @Test
+    void emptySeriesEncodesToNothing() {
+        assertThat(EngagementSeriesCodec.encode(new EngagementPoints(0))).isEmpty();
+        assertThat(EngagementSeriesCodec.decode(new byte[0], 0).size()).isZero();
+    }
+    
+    @Test
+    void truncatedDataIsRejected() {
+        EngagementPoints points = new EngagementPoints(1);
+        points.add(1_700_000_000L, 10, 2, 0, 500);
+        byte[] data = EngagementSeriesCodec.encode(points);
+        
+        assertThatThrownBy(() -> EngagementSeriesCodec.decode(Arrays.copyOf(data, data.length - 1), 1))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> EngagementSeriesCodec.decode(new byte[] {(byte) 0x80}, 1))
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    private static void assertSamePoints(EngagementPoints actual, EngagementPoints expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(new long[] {actual.time(i), actual.likes(i), actual.comments(i), actual.shares(i), actual.views(i)})
+                .as("point %d", i)
+                .containsExactly(expected.time(i), expected.likes(i), expected.comments(i), expected.shares(i), expected.views(i));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.socialmedia.aiagent.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.TextNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeiboTextScannerTest {
+    
+    // captured page shared with the benchmarks
+    private static final Path FIXTURE = Path.of("src/jmh/resources/fixtures/weibo-container-index.json");
+    
+    @Test
+    void textMatchesJsoupOverFixturePosts() throws IOException {
+        List<String> posts = fixturePosts();
+        assertThat(posts).hasSizeGreaterThanOrEqualTo(20);
+        for (String html : posts) {
+            assertThat(WeiboTextScanner.scan(html).text()).as(html).isEqualTo(jsoupText(html));
+        }
+    }
+    
+    @Test
+    void collectsHashtagsMentionsAndLinksFromAnchors() {
+        WeiboTextScanner.Result result = WeiboTextScanner.scan(
+            "<a href=\"https://m.weibo.cn/search?q=%23cos%23\"><span class=\"surl-text\">#鬼灭之刃#</span></a> 返图 "
+                + "<a href='/n/小明毛娘'>@小明毛娘</a> <a data-url=\"http://t.cn/A6x\" href=\"https://video.weibo.com/show?a=1&amp;b=2\">视频</a>");
+        
+        assertThat(result.text()).isEqualTo("#鬼灭之刃# 返图 @小明毛娘 视频");
+        assertThat(result.hashtags()).containsExactly("鬼灭之刃");
+        assertThat(result.mentions()).containsExactly("小明毛娘");
+        assertThat(result.links()).containsExactly("https://video.weibo.com/show?a=1&b=2");
+    }
+    
+    @Test
+    void keepsEmoticonAltTextAndDecodesEntities() {
+        assertThat(WeiboTextScanner.scan("好耶<img alt=\"[心]\" src=\"x.png\" />&nbsp;&gt;_&lt;&#x1F600;&unknown; a<br/>b").text())
+            .isEqualTo("好耶[心] >_<😀&unknown; a b");
+    }
+    
+    @Test
+    void truncateLeavesShortTextAlone() {
+        assertThat(WeiboTextScanner.truncate("abc", 3)).isEqualTo("abc");
+    }
+    
+    @Test
+    void truncateDoesNotSplitSurrogatePair() {
+        assertThat(WeiboTextScanner.truncate("abc😀def", 7)).isEqualTo("abc...");
+    }
+    
+    @Test
+    void truncateKeepsZwjSequenceWhole() {
+        String family = "👨‍👩‍👧"; // man, woman, girl joined by ZWJ
+        assertThat(WeiboTextScanner.truncate("ab" + family + "cd", 9)).isEqualTo("ab...");
+        assertThat(WeiboTextScanner.truncate("ab" + family + "cdef", 13)).isEqualTo("ab" + family + "...");
+    }
+    
+    @Test
+    void truncateKeepsSkinToneWithItsEmoji() {
+        String thumbsUp = "👍🏽"; // thumbs up, medium skin tone
+        assertThat(WeiboTextScanner.truncate("ab" + thumbsUp + "cd", 7)).isEqualTo("ab...");
+        assertThat(WeiboTextScanner.truncate("ab" + thumbsUp + "cdef", 9)).isEqualTo("ab" + thumbsUp + "...");
+    }
+    
+    @Test
+    void truncateCutsFlagsOnlyBetweenPairs() {
+        String china = "🇨🇳";
+        String japan = "🇯🇵";
+        assertThat(WeiboTextScanner.truncate(china + japan + "xyz", 9)).isEqualTo(china + "...");
+        assertThat(WeiboTextScanner.truncate(china + japan + "xyz", 11)).isEqualTo(china + japan + "xyz");
+        assertThat(WeiboTextScanner.truncate(china + japan + "xyzw", 11)).isEqualTo(china + japan + "...");
+    }
+    
+    @Test
+    void truncateKeepsCombiningMarkWithItsBase() {
+        String text = "café au lait";
+        assertThat(WeiboTextScanner.truncate(text, 8)).isEqualTo("café...");
+        assertThat(WeiboTextScanner.truncate(text, 7)).isEqualTo("caf...");
+    }
+    
+    private static List<String> fixturePosts() throws IOException {
+        JsonNode cards = new ObjectMapper().readTree(Files.readString(FIXTURE)).path("data").path("cards");
+        List<String> posts = new ArrayList<>();
+        cards.forEach(card -> {
+            if (card.path("mblog").hasNonNull("text")) {
+                posts.add(card.path("mblog").path("text").asText());
+            }
+        });
+        return posts;
+    }
+    
+    /**
+     * What WeiboService produced before the scanner: Jsoup's text(), except that emoticon images are now
+     * kept as their alt text
+     */
+    private static String jsoupText(String html) {
+        Document document = Jsoup.parse(html);
+        document.select("img[alt]").forEach(img -> {
+            String alt = img.attr("alt");
+            if (alt.length() > 2 && alt.startsWith("[") && alt.endsWith("]")) {
+                img.replaceWith(new TextNode(alt));
+            }
+        });
+        return document.text();
+    }
+}
@@ -0,0 +1,56 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InferenceGuardTest {
+    
+    private final AgentConfig.Inference settings = new AgentConfig.Inference();
+    
+    @Test
+    void failedCallReturnsItsPermit() {
+        InferenceGuard guard = new InferenceGuard("test", settings);
+        
+        assertThatThrownBy(() -> guard.execute("analysis", () -> {
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(InferenceUnavailableException.class).hasMessageContaining("model down");
+        
+        assertThat(guard.getInFlight()).isZero();
+    }
+    
+    @Test
+    void errorReturnsThePermitAndCountsAsAFailure() {
+        settings.setFailureThreshold(1);
+        InferenceGuard guard = new InferenceGuard("test", settings);
+        
+        assertThatThrownBy(() -> guard.execute("analysis", () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        
+        assertThat(guard.getInFlight()).isZero();
+        assertThat(guard.getCircuitState()).isEqualTo(InferenceCircuitBreaker.State.OPEN);
+    }
+    
+    @Test
+    void errorInAHalfOpenProbeLetsTheNextProbeThrough() {
+        settings.setFailureThreshold(1);
+        settings.setOpenDuration(Duration.ZERO);
+        InferenceGuard guard = new InferenceGuard("test", settings);
+        assertThatThrownBy(() -> guard.execute("analysis", () -> {
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(InferenceUnavailableException.class);
+        
+        assertThatThrownBy(() -> guard.execute("analysis", () -> {
+            throw new OutOfMemoryError("probe");
+        })).isInstanceOf(OutOfMemoryError.class);
+        
+        assertThat(guard.execute("analysis", () -> "ok")).isEqualTo("ok");
+        assertThat(guard.getCircuitState()).isEqualTo(InferenceCircuitBreaker.State.CLOSED);
+        assertThat(guard.getInFlight()).isZero();
+    }
+}
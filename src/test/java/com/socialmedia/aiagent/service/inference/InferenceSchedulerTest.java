@@ -0,0 +1,124 @@
+package com.socialmedia.aiagent.service.inference;
+
+import com.socialmedia.aiagent.config.AgentConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.socialmedia.aiagent.service.inference.InferencePriority.BACKGROUND;
+import static com.socialmedia.aiagent.service.inference.InferencePriority.INTERACTIVE;
+import static com.socialmedia.aiagent.service.inference.InferencePriority.RECOMMENDATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InferenceSchedulerTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private final AgentConfig.Priorities settings = new AgentConfig.Priorities(); // weights 8, 4 and 1
+    
+    @Test
+    void slotsAreSharedByWeight() {
+        settings.getBackground().setMaxInFlight(0);
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        for (int i = 0; i < 20; i++) {
+            scheduler.enqueue(INTERACTIVE, null, 0);
+            scheduler.enqueue(BACKGROUND, null, 0);
+        }
+        
+        List<InferencePriority> granted = grant(scheduler, 18, 0);
+        
+        assertThat(granted.subList(0, 9)).filteredOn(priority -> priority == INTERACTIVE).hasSize(8);
+        assertThat(granted.subList(9, 18)).filteredOn(priority -> priority == INTERACTIVE).hasSize(8);
+        assertThat(scheduler.queued()).isEqualTo(22);
+    }
+    
+    @Test
+    void eachClassRunsInArrivalOrder() {
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        InferenceScheduler.Waiter first = scheduler.enqueue(RECOMMENDATION, null, 0);
+        InferenceScheduler.Waiter second = scheduler.enqueue(RECOMMENDATION, null, 1);
+        
+        assertThat(scheduler.next(2)).isSameAs(first);
+        assertThat(scheduler.next(2)).isSameAs(second);
+        assertThat(first.granted).isTrue();
+        assertThat(scheduler.next(2)).isNull();
+    }
+    
+    @Test
+    void overdueClassGoesFirstWhateverItsWeight() {
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        scheduler.enqueue(BACKGROUND, null, 0);
+        scheduler.enqueue(INTERACTIVE, null, 61 * SECOND); // background max wait is 60 s
+        
+        assertThat(scheduler.next(61 * SECOND).priority).isEqualTo(BACKGROUND);
+        assertThat(scheduler.next(61 * SECOND).priority).isEqualTo(INTERACTIVE);
+    }
+    
+    @Test
+    void mostOverdueClassGoesFirst() {
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        scheduler.enqueue(BACKGROUND, null, 0);
+        scheduler.enqueue(INTERACTIVE, null, 50 * SECOND); // 6 s overdue against background's 1 s
+        
+        assertThat(scheduler.next(61 * SECOND).priority).isEqualTo(INTERACTIVE);
+    }
+    
+    @Test
+    void classAtItsInFlightCapIsSkipped() {
+        InferenceScheduler scheduler = new InferenceScheduler(settings); // background capped at 2
+        for (int i = 0; i < 3; i++) {
+            scheduler.enqueue(BACKGROUND, null, 0);
+        }
+        
+        assertThat(grant(scheduler, 3, 0)).containsExactly(BACKGROUND, BACKGROUND);
+        assertThat(scheduler.inFlight(BACKGROUND)).isEqualTo(2);
+        
+        scheduler.release(BACKGROUND);
+        assertThat(scheduler.next(0).priority).isEqualTo(BACKGROUND);
+        assertThat(scheduler.queued(BACKGROUND)).isZero();
+    }
+    
+    @Test
+    void withdrawnWaiterIsNeverGranted() {
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        InferenceScheduler.Waiter gaveUp = scheduler.enqueue(INTERACTIVE, null, 0);
+        InferenceScheduler.Waiter waiting = scheduler.enqueue(INTERACTIVE, null, 0);
+        
+        scheduler.remove(gaveUp);
+        
+        assertThat(scheduler.next(0)).isSameAs(waiting);
+        assertThat(gaveUp.granted).isFalse();
+        assertThat(scheduler.queued()).isZero();
+    }
+    
+    @Test
+    void idleClassDoesNotSaveUpCredit() {
+        settings.getRecommendation().setMaxWait(Duration.ofHours(1));
+        InferenceScheduler scheduler = new InferenceScheduler(settings);
+        for (int i = 0; i < 16; i++) {
+            scheduler.enqueue(INTERACTIVE, null, 0);
+        }
+        grant(scheduler, 16, 0);
+        for (int i = 0; i < 4; i++) {
+            scheduler.enqueue(RECOMMENDATION, null, 0);
+            scheduler.enqueue(INTERACTIVE, null, 0);
+            scheduler.enqueue(INTERACTIVE, null, 0);
+        }
+        
+        assertThat(grant(scheduler, 6, 0)).filteredOn(priority -> priority == RECOMMENDATION).hasSize(2);
+    }
+    
+    private static List<InferencePriority> grant(InferenceScheduler scheduler, int slots, long nowNanos) {
+        List<InferencePriority> granted = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            InferenceScheduler.Waiter waiter = scheduler.next(nowNanos);
+            if (waiter != null) {
+                granted.add(waiter.priority);
+            }
+        }
+        return granted;
+    }
+}
@@ -0,0 +1,60 @@
+package com.socialmedia.aiagent.service.trends;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+    
+    @Test
+    void loneItemIsCountedExactly() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("#AI", 1);
+        }
+        sketch.add("#AI", 24);
+        
+        assertThat(sketch.estimate("#AI")).isEqualTo(1024);
+        assertThat(sketch.estimate("#other")).isZero();
+        assertThat(sketch.total()).isEqualTo(1024);
+    }
+    
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 272); // e / 272 ~ 1% of the total
+        Map<String, Long> actual = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String tag = "#tag" + (int) Math.abs(random.nextGaussian() * 300);
+            sketch.add(tag, 1);
+            actual.merge(tag, 1L, Long::sum);
+        }
+        
+        long bound = sketch.total() / 100;
+        int over = 0;
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertThat(estimate).as(entry.getKey()).isGreaterThanOrEqualTo(entry.getValue());
+            if (estimate - entry.getValue() > bound) {
+                over++;
+            }
+        }
+        assertThat(over).isLessThanOrEqualTo(actual.size() / 50); // 1 - exp(-4) ~ 98% within the bound
+        assertThat(sketch.total()).isEqualTo(20_000);
+    }
+    
+    @Test
+    void conservativeUpdateLeavesCollidingItemsExact() {
+        CountMinSketch sketch = new CountMinSketch(1, 1); // every item shares the only cell
+        sketch.add("a", 5);
+        sketch.add("b", 3);
+        
+        assertThat(sketch.estimate("a")).isEqualTo(8);
+        assertThat(sketch.estimate("b")).isEqualTo(8);
+        assertThat(sketch.total()).isEqualTo(8);
+    }
+}
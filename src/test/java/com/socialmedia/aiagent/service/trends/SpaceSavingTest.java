@@ -0,0 +1,46 @@
+package com.socialmedia.aiagent.service.trends;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+    
+    @Test
+    void keepsEveryItemWhileThereIsRoom() {
+        SpaceSaving candidates = new SpaceSaving(3);
+        candidates.add("a", 1);
+        candidates.add("b", 1);
+        candidates.add("a", 1);
+        candidates.add("c", 1);
+        
+        assertThat(candidates.items()).containsExactlyInAnyOrder("a", "b", "c");
+    }
+    
+    @Test
+    void newItemReplacesTheLeastCounted() {
+        SpaceSaving candidates = new SpaceSaving(3);
+        candidates.add("a", 5);
+        candidates.add("b", 3);
+        candidates.add("c", 1);
+        candidates.add("d", 1);
+        
+        assertThat(candidates.items()).containsExactlyInAnyOrder("a", "b", "d");
+        
+        candidates.add("e", 1); // d holds c's count plus its own, 2, still the least
+        assertThat(candidates.items()).containsExactlyInAnyOrder("a", "b", "e");
+    }
+    
+    @Test
+    void frequentItemSurvivesAStreamOfOneOffs() {
+        SpaceSaving candidates = new SpaceSaving(10);
+        for (int i = 0; i < 10_000; i++) {
+            candidates.add("#once" + i, 1);
+            if (i % 5 == 0) {
+                candidates.add("#AI", 1); // 2,000 of 12,000, above total / capacity
+            }
+        }
+        
+        assertThat(candidates.items()).hasSize(10).contains("#AI");
+    }
+}
@@ -0,0 +1,106 @@
+package com.socialmedia.aiagent.service.trends;
+
+import com.socialmedia.aiagent.model.dto.TrendingTag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendEngineTest {
+    
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final Instant START = Instant.parse("2024-05-01T00:00:00Z");
+    
+    private final TrendEngine engine = new TrendEngine(HOUR, Duration.ofHours(3), 4, 256, 16);
+    
+    @Test
+    void ringHasOneBucketPerDurationOfRetention() {
+        assertThat(engine.getBucketCount()).isEqualTo(3);
+    }
+    
+    @Test
+    void bucketReusedAfterRolloverStartsEmpty() {
+        engine.record("weibo", hour(0), List.of("#old"), hour(0));
+        engine.record("weibo", hour(1), List.of("#old"), hour(1));
+        assertThat(counts("weibo", Duration.ofHours(3), hour(2))).containsEntry("#old", 2L);
+        
+        engine.record("weibo", hour(3), List.of("#new"), hour(3)); // same slot as hour 0
+        
+        assertThat(counts("weibo", Duration.ofHours(3), hour(3)))
+            .containsExactlyInAnyOrderEntriesOf(Map.of("#old", 1L, "#new", 1L));
+    }
+    
+    @Test
+    void lateRecordDoesNotOverwriteANewerBucket() {
+        engine.record("weibo", hour(3), List.of("#new"), hour(3));
+        engine.record("weibo", hour(0), List.of("#late"), hour(2)); // in retention for its caller, slot taken by hour 3
+        
+        assertThat(counts("weibo", Duration.ofHours(3), hour(3))).containsOnlyKeys("#new");
+    }
+    
+    @Test
+    void recordsOutsideTheRetentionAreDroppedAndFutureOnesCountNow() {
+        engine.record("weibo", hour(0), List.of("#expired"), hour(3));
+        engine.record("weibo", hour(10), List.of("#early"), hour(3));
+        
+        assertThat(counts("weibo", HOUR, hour(3))).containsOnlyKeys("#early");
+    }
+    
+    @Test
+    void windowComparesWithTheOneBeforeIt() {
+        TrendEngine engine = new TrendEngine(HOUR, Duration.ofHours(4), 4, 256, 16);
+        engine.record("weibo", hour(0), List.of("#AI"), hour(0));
+        engine.record("weibo", hour(2), List.of("#AI", "#AI2"), hour(2));
+        engine.record("weibo", hour(3), List.of("#AI", "#AI2"), hour(3));
+        engine.record("weibo", hour(3), List.of("#AI2"), hour(3));
+        
+        List<TrendingTag> top = engine.top("weibo", Duration.ofHours(2), 10, false, hour(3));
+        
+        assertThat(top).extracting(TrendingTag::getTag).containsExactly("#AI2", "#AI");
+        assertThat(top.get(0).getPreviousCount()).isZero();
+        assertThat(top.get(0).getGrowth()).isNull();
+        assertThat(top.get(1).getCount()).isEqualTo(2);
+        assertThat(top.get(1).getPreviousCount()).isEqualTo(1);
+        assertThat(top.get(1).getGrowth()).isEqualTo(2.0);
+    }
+    
+    @Test
+    void risingOrdersByGrowthInCount() {
+        TrendEngine engine = new TrendEngine(HOUR, Duration.ofHours(2), 4, 256, 16);
+        for (int i = 0; i < 5; i++) {
+            engine.record("weibo", hour(0), List.of("#steady"), hour(0));
+            engine.record("weibo", hour(1), List.of("#steady"), hour(1));
+        }
+        engine.record("weibo", hour(1), List.of("#rising"), hour(1));
+        engine.record("weibo", hour(1), List.of("#rising"), hour(1));
+        
+        assertThat(engine.top("weibo", HOUR, 10, false, hour(1))).extracting(TrendingTag::getTag)
+            .containsExactly("#steady", "#rising");
+        assertThat(engine.top("weibo", HOUR, 1, true, hour(1))).extracting(TrendingTag::getTag)
+            .containsExactly("#rising");
+    }
+    
+    @Test
+    void nullPlatformSumsAllPlatforms() {
+        engine.record("weibo", hour(0), List.of("#AI"), hour(0));
+        engine.record("zhihu", hour(0), List.of("#AI"), hour(0));
+        
+        assertThat(counts(null, HOUR, hour(0))).containsEntry("#AI", 2L);
+        assertThat(counts("weibo", HOUR, hour(0))).containsEntry("#AI", 1L);
+        assertThat(counts("douyin", HOUR, hour(0))).isEmpty();
+    }
+    
+    private Map<String, Long> counts(String platform, Duration window, Instant now) {
+        return engine.top(platform, window, 100, false, now).stream()
+                .collect(Collectors.toMap(TrendingTag::getTag, TrendingTag::getCount));
+    }
+    
+    private static Instant hour(int hours) {
+        return START.plus(Duration.ofHours(hours));
+    }
+}